@@ -5,6 +5,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,6 +17,10 @@ public class AppConfig {
     private final Auth auth = new Auth();
     private final OAuth2 oauth2 = new OAuth2();
     private final FileStorage fileStorage = new FileStorage();
+    private final Counters counters = new Counters();
+    private final Trending trending = new Trending();
+    private final Likes likes = new Likes();
+    private final Feed feed = new Feed();
 
     public static class Auth {
         private String tokenSecret;
@@ -54,6 +59,23 @@ public class AppConfig {
         private String uploadDir;
         private long maxFileSize;
         private List<String> allowedFileTypes = new ArrayList<>();
+        private int workerThreads = 2;
+        private int workerQueueCapacity = 100;
+        private int thumbnailSize = 320;
+        private int mediumSize = 1080;
+        private String cleanupCron = "0 0 2 * * *";
+        private int tempFileExpiryHours = 24;
+        private int cleanupBatchSize = 500;
+        private long cleanupBatchPauseMs = 100;
+        private long maxResumableFileSize = 104857600;
+        private int uploadChunkSize = 1048576;
+        private long deletionPollMs = 60000;
+        private int deletionBatchSize = 100;
+        private int deletionMaxAttempts = 10;
+        private long deletionRetryBaseMs = 5000;
+        private int maxOpenUploadsPerUser = 5;
+        private long maxReservedUploadBytesPerUser = 209715200;
+        private int uploadSessionExpiryHours = 6;
 
         public String getUploadDir() {
             return uploadDir;
@@ -78,6 +100,307 @@ public class AppConfig {
         public void setAllowedFileTypes(List<String> allowedFileTypes) {
             this.allowedFileTypes = allowedFileTypes;
         }
+
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        public int getWorkerQueueCapacity() {
+            return workerQueueCapacity;
+        }
+
+        public void setWorkerQueueCapacity(int workerQueueCapacity) {
+            this.workerQueueCapacity = workerQueueCapacity;
+        }
+
+        public int getThumbnailSize() {
+            return thumbnailSize;
+        }
+
+        public void setThumbnailSize(int thumbnailSize) {
+            this.thumbnailSize = thumbnailSize;
+        }
+
+        public int getMediumSize() {
+            return mediumSize;
+        }
+
+        public void setMediumSize(int mediumSize) {
+            this.mediumSize = mediumSize;
+        }
+
+        public String getCleanupCron() {
+            return cleanupCron;
+        }
+
+        public void setCleanupCron(String cleanupCron) {
+            this.cleanupCron = cleanupCron;
+        }
+
+        public int getTempFileExpiryHours() {
+            return tempFileExpiryHours;
+        }
+
+        public void setTempFileExpiryHours(int tempFileExpiryHours) {
+            this.tempFileExpiryHours = tempFileExpiryHours;
+        }
+
+        public int getCleanupBatchSize() {
+            return cleanupBatchSize;
+        }
+
+        public void setCleanupBatchSize(int cleanupBatchSize) {
+            this.cleanupBatchSize = cleanupBatchSize;
+        }
+
+        public long getCleanupBatchPauseMs() {
+            return cleanupBatchPauseMs;
+        }
+
+        public void setCleanupBatchPauseMs(long cleanupBatchPauseMs) {
+            this.cleanupBatchPauseMs = cleanupBatchPauseMs;
+        }
+
+        public long getMaxResumableFileSize() {
+            return maxResumableFileSize;
+        }
+
+        public void setMaxResumableFileSize(long maxResumableFileSize) {
+            this.maxResumableFileSize = maxResumableFileSize;
+        }
+
+        public int getUploadChunkSize() {
+            return uploadChunkSize;
+        }
+
+        public void setUploadChunkSize(int uploadChunkSize) {
+            this.uploadChunkSize = uploadChunkSize;
+        }
+
+        public long getDeletionPollMs() {
+            return deletionPollMs;
+        }
+
+        public void setDeletionPollMs(long deletionPollMs) {
+            this.deletionPollMs = deletionPollMs;
+        }
+
+        public int getDeletionBatchSize() {
+            return deletionBatchSize;
+        }
+
+        public void setDeletionBatchSize(int deletionBatchSize) {
+            this.deletionBatchSize = deletionBatchSize;
+        }
+
+        public int getDeletionMaxAttempts() {
+            return deletionMaxAttempts;
+        }
+
+        public void setDeletionMaxAttempts(int deletionMaxAttempts) {
+            this.deletionMaxAttempts = deletionMaxAttempts;
+        }
+
+        public long getDeletionRetryBaseMs() {
+            return deletionRetryBaseMs;
+        }
+
+        public void setDeletionRetryBaseMs(long deletionRetryBaseMs) {
+            this.deletionRetryBaseMs = deletionRetryBaseMs;
+        }
+
+        public int getMaxOpenUploadsPerUser() {
+            return maxOpenUploadsPerUser;
+        }
+
+        public void setMaxOpenUploadsPerUser(int maxOpenUploadsPerUser) {
+            this.maxOpenUploadsPerUser = maxOpenUploadsPerUser;
+        }
+
+        public long getMaxReservedUploadBytesPerUser() {
+            return maxReservedUploadBytesPerUser;
+        }
+
+        public void setMaxReservedUploadBytesPerUser(long maxReservedUploadBytesPerUser) {
+            this.maxReservedUploadBytesPerUser = maxReservedUploadBytesPerUser;
+        }
+
+        public int getUploadSessionExpiryHours() {
+            return uploadSessionExpiryHours;
+        }
+
+        public void setUploadSessionExpiryHours(int uploadSessionExpiryHours) {
+            this.uploadSessionExpiryHours = uploadSessionExpiryHours;
+        }
+    }
+
+    public static class Counters {
+        private String reconcileCron = "0 30 3 * * *";
+        private int reconcileBatchSize = 500;
+
+        public String getReconcileCron() {
+            return reconcileCron;
+        }
+
+        public void setReconcileCron(String reconcileCron) {
+            this.reconcileCron = reconcileCron;
+        }
+
+        public int getReconcileBatchSize() {
+            return reconcileBatchSize;
+        }
+
+        public void setReconcileBatchSize(int reconcileBatchSize) {
+            this.reconcileBatchSize = reconcileBatchSize;
+        }
+    }
+
+    public static class Feed {
+        private String reconcileCron = "0 0 4 * * *";
+        private int reconcileBatchSize = 500;
+        private boolean backfillOnStartup = false;
+
+        public String getReconcileCron() {
+            return reconcileCron;
+        }
+
+        public void setReconcileCron(String reconcileCron) {
+            this.reconcileCron = reconcileCron;
+        }
+
+        public int getReconcileBatchSize() {
+            return reconcileBatchSize;
+        }
+
+        public void setReconcileBatchSize(int reconcileBatchSize) {
+            this.reconcileBatchSize = reconcileBatchSize;
+        }
+
+        public boolean isBackfillOnStartup() {
+            return backfillOnStartup;
+        }
+
+        public void setBackfillOnStartup(boolean backfillOnStartup) {
+            this.backfillOnStartup = backfillOnStartup;
+        }
+    }
+
+    public static class Trending {
+        private Duration window = Duration.ofHours(24);
+        private Duration bucket = Duration.ofMinutes(5);
+        private Duration halfLife = Duration.ofHours(6);
+        private int topK = 10;
+        private double likeWeight = 1.0;
+        private double commentWeight = 2.0;
+        private long recomputeIntervalMs = 60000;
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public Duration getBucket() {
+            return bucket;
+        }
+
+        public void setBucket(Duration bucket) {
+            this.bucket = bucket;
+        }
+
+        public Duration getHalfLife() {
+            return halfLife;
+        }
+
+        public void setHalfLife(Duration halfLife) {
+            this.halfLife = halfLife;
+        }
+
+        public int getTopK() {
+            return topK;
+        }
+
+        public void setTopK(int topK) {
+            this.topK = topK;
+        }
+
+        public double getLikeWeight() {
+            return likeWeight;
+        }
+
+        public void setLikeWeight(double likeWeight) {
+            this.likeWeight = likeWeight;
+        }
+
+        public double getCommentWeight() {
+            return commentWeight;
+        }
+
+        public void setCommentWeight(double commentWeight) {
+            this.commentWeight = commentWeight;
+        }
+
+        public long getRecomputeIntervalMs() {
+            return recomputeIntervalMs;
+        }
+
+        public void setRecomputeIntervalMs(long recomputeIntervalMs) {
+            this.recomputeIntervalMs = recomputeIntervalMs;
+        }
+    }
+
+    public static class Likes {
+        private boolean writeBehindEnabled = false;
+        private long flushIntervalMs = 200;
+        private int maxPending = 10000;
+        private int batchSize = 500;
+        private int maxFlushAttempts = 5;
+
+        public boolean isWriteBehindEnabled() {
+            return writeBehindEnabled;
+        }
+
+        public void setWriteBehindEnabled(boolean writeBehindEnabled) {
+            this.writeBehindEnabled = writeBehindEnabled;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public int getMaxPending() {
+            return maxPending;
+        }
+
+        public void setMaxPending(int maxPending) {
+            this.maxPending = maxPending;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxFlushAttempts() {
+            return maxFlushAttempts;
+        }
+
+        public void setMaxFlushAttempts(int maxFlushAttempts) {
+            this.maxFlushAttempts = maxFlushAttempts;
+        }
     }
 
     public Auth getAuth() {
@@ -91,4 +414,20 @@ public class AppConfig {
     public FileStorage getFileStorage() {
         return fileStorage;
     }
+
+    public Counters getCounters() {
+        return counters;
+    }
+
+    public Trending getTrending() {
+        return trending;
+    }
+
+    public Likes getLikes() {
+        return likes;
+    }
+
+    public Feed getFeed() {
+        return feed;
+    }
 }
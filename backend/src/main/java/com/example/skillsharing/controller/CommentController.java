@@ -1,9 +1,11 @@
 package com.example.skillsharing.controller;
 
 import com.example.skillsharing.dto.CommentDTO;
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.security.CurrentUser;
 import com.example.skillsharing.security.UserPrincipal;
 import com.example.skillsharing.service.CommentService;
+import com.example.skillsharing.util.Cursor;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -26,6 +28,28 @@ public class CommentController {
         return commentService.createComment(postId, createCommentDTO);
     }
 
+    @PostMapping("/comments/{commentId}/replies")
+    @PreAuthorize("hasRole('USER')")
+    public CommentDTO createReply(@PathVariable Long commentId,
+                                  @Valid @RequestBody CommentDTO.CreateCommentDTO createCommentDTO) {
+        return commentService.createReply(commentId, createCommentDTO);
+    }
+
+    @GetMapping("/comments/{commentId}/replies")
+    public CursorPageDTO<CommentDTO> getReplies(@PathVariable Long commentId,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "" + Cursor.DEFAULT_SIZE) int size) {
+        return commentService.getReplies(commentId, cursor, size);
+    }
+
+    @GetMapping("/posts/{postId}/threads")
+    public CursorPageDTO<CommentDTO> getPostThreads(@PathVariable Long postId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "" + Cursor.DEFAULT_SIZE) int size,
+                                                    @RequestParam(defaultValue = "3") int replies) {
+        return commentService.getPostThreads(postId, cursor, size, replies);
+    }
+
     @GetMapping("/comments/{commentId}")
     public CommentDTO getComment(@PathVariable Long commentId) {
         return commentService.getCommentById(commentId);
@@ -36,11 +60,25 @@ public class CommentController {
         return commentService.getPostComments(postId, pageable);
     }
 
+    @GetMapping(value = "/posts/{postId}/comments", params = "cursor")
+    public CursorPageDTO<CommentDTO> getPostCommentsByCursor(@PathVariable Long postId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "" + Cursor.DEFAULT_SIZE) int size) {
+        return commentService.getPostComments(postId, cursor, size);
+    }
+
     @GetMapping("/users/{userId}/comments")
     public Page<CommentDTO> getUserComments(@PathVariable Long userId, Pageable pageable) {
         return commentService.getUserComments(userId, pageable);
     }
 
+    @GetMapping(value = "/users/{userId}/comments", params = "cursor")
+    public CursorPageDTO<CommentDTO> getUserCommentsByCursor(@PathVariable Long userId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "" + Cursor.DEFAULT_SIZE) int size) {
+        return commentService.getUserComments(userId, cursor, size);
+    }
+
     @PutMapping("/comments/{commentId}")
     @PreAuthorize("hasRole('USER')")
     public CommentDTO updateComment(@PathVariable Long commentId,
@@ -0,0 +1,138 @@
+package com.example.skillsharing.controller;
+
+import com.example.skillsharing.exception.ResourceNotFoundException;
+import com.example.skillsharing.service.MediaStorage;
+import com.example.skillsharing.util.ByteRange;
+import com.example.skillsharing.util.MediaVariant;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves stored media with single-range support and strong content ETags. Stored
+ * files are write-once under unique names, so responses are cacheable forever.
+ * When the container supports it, the body is handed to Tomcat's sendfile path;
+ * otherwise it is streamed with {@link FileChannel#transferTo}.
+ */
+@RestController
+@RequestMapping("/uploads")
+@RequiredArgsConstructor
+public class MediaController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+
+    private final MediaStorage mediaStorage;
+
+    @GetMapping("/{area}/{filename:.+}")
+    public void getMedia(@PathVariable String area,
+                         @PathVariable String filename,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        MediaStorage.Area storageArea = MediaStorage.Area.fromDirectory(area);
+        Path path = storageArea == null ? null : mediaStorage.locate(storageArea, filename);
+        String cacheControl = CACHE_CONTROL;
+        if (path == null && storageArea == MediaStorage.Area.POSTS && MediaVariant.originalOf(filename) != null) {
+            // Variants are generated after the post is created; until then hand out the
+            // original, but do not let it be cached under the variant's URL
+            filename = MediaVariant.originalOf(filename);
+            path = mediaStorage.locate(storageArea, filename);
+            cacheControl = CacheControl.noCache().getHeaderValue();
+        }
+        if (path == null) {
+            throw new ResourceNotFoundException("Media", "filename", filename);
+        }
+
+        long totalLength = Files.size(path);
+        String etag = "\"" + mediaStorage.contentHash(storageArea, filename) + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        // If-Range with a different validator means the client's partial copy is stale
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        ByteRange range;
+        try {
+            range = ifRange == null || ifRange.equals(etag)
+                    ? ByteRange.parse(request.getHeader(HttpHeaders.RANGE), totalLength)
+                    : null;
+        } catch (ByteRange.NotSatisfiableException e) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + totalLength);
+            return;
+        }
+
+        long start = range == null ? 0 : range.start();
+        long length = range == null ? totalLength : range.length();
+        if (range != null) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(totalLength));
+        }
+        response.setContentType(MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString());
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        return ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals(etag) || candidate.equals("*"));
+    }
+}
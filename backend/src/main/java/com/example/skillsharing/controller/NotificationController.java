@@ -1,9 +1,11 @@
 package com.example.skillsharing.controller;
 
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.dto.NotificationDTO;
 import com.example.skillsharing.security.CurrentUser;
 import com.example.skillsharing.security.UserPrincipal;
 import com.example.skillsharing.service.NotificationService;
+import com.example.skillsharing.util.Cursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +27,14 @@ public class NotificationController {
         return notificationService.getUserNotifications(currentUser.getId(), pageable);
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasRole('USER')")
+    public CursorPageDTO<NotificationDTO> getUserNotificationsByCursor(@CurrentUser UserPrincipal currentUser,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "" + Cursor.DEFAULT_SIZE) int size) {
+        return notificationService.getUserNotifications(currentUser.getId(), cursor, size);
+    }
+
     @GetMapping("/{notificationId}")
     @PreAuthorize("hasRole('USER')")
     public NotificationDTO getNotification(@PathVariable Long notificationId) {
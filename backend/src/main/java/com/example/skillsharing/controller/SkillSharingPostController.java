@@ -1,19 +1,34 @@
 package com.example.skillsharing.controller;
 
+import com.example.skillsharing.dto.CommentDTO;
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.dto.SkillSharingPostDTO;
+import com.example.skillsharing.exception.BadRequestException;
 import com.example.skillsharing.security.CurrentUser;
 import com.example.skillsharing.security.UserPrincipal;
+import com.example.skillsharing.service.CommentService;
 import com.example.skillsharing.service.SkillSharingPostService;
+import com.example.skillsharing.util.Cursor;
+import com.example.skillsharing.util.LimitedInputStream;
+import com.example.skillsharing.util.MultipartStream;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.util.WebUtils;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -21,13 +36,33 @@ import java.util.List;
 public class SkillSharingPostController {
 
     private final SkillSharingPostService postService;
+    private final CommentService commentService;
+    private final MultipartProperties multipartProperties;
 
-    @PostMapping
+    // Expects a "post" JSON part and up to three "media" file parts. The body is not resolved
+    // up front (see WebMvcConfig); media parts are streamed into storage as they are read.
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('USER')")
     public SkillSharingPostDTO createPost(@CurrentUser UserPrincipal currentUser,
-                                        @Valid @RequestPart("post") SkillSharingPostDTO.CreatePostDTO createPostDTO,
-                                        @RequestPart(value = "media", required = false) List<MultipartFile> mediaFiles) {
-        return postService.createPost(createPostDTO, mediaFiles);
+                                        HttpServletRequest request) throws IOException {
+        MultipartHttpServletRequest resolved = WebUtils.getNativeRequest(request, MultipartHttpServletRequest.class);
+        if (resolved != null) {
+            return postService.createPost(MultipartStream.of(resolved));
+        }
+        String boundary = MultipartStream.boundaryOf(request.getContentType());
+        if (boundary == null) {
+            throw new BadRequestException("Multipart boundary is missing");
+        }
+        // The container's max-request-size only applies to bodies it parses itself
+        long maxRequestSize = multipartProperties.getMaxRequestSize().toBytes();
+        if (maxRequestSize < 0) {
+            return postService.createPost(MultipartStream.parse(request.getInputStream(), boundary));
+        }
+        if (request.getContentLengthLong() > maxRequestSize) {
+            throw new MaxUploadSizeExceededException(maxRequestSize);
+        }
+        return postService.createPost(MultipartStream.parse(
+                new LimitedInputStream(request.getInputStream(), maxRequestSize), boundary));
     }
 
     @GetMapping("/{postId}")
@@ -36,19 +71,39 @@ public class SkillSharingPostController {
     }
 
     @GetMapping
-    public Page<SkillSharingPostDTO> getAllPosts(Pageable pageable) {
-        return postService.getAllPosts(pageable);
+    public Page<SkillSharingPostDTO> getAllPosts(Pageable pageable,
+                                                 @RequestParam(defaultValue = "0") int includeCommentPreview) {
+        return withCommentPreview(postService.getAllPosts(pageable), includeCommentPreview);
     }
 
     @GetMapping("/user/{userId}")
-    public Page<SkillSharingPostDTO> getUserPosts(@PathVariable Long userId, Pageable pageable) {
-        return postService.getUserPosts(userId, pageable);
+    public Page<SkillSharingPostDTO> getUserPosts(@PathVariable Long userId, Pageable pageable,
+                                                  @RequestParam(defaultValue = "0") int includeCommentPreview) {
+        return withCommentPreview(postService.getUserPosts(userId, pageable), includeCommentPreview);
+    }
+
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    public CursorPageDTO<SkillSharingPostDTO> getUserPostsByCursor(@PathVariable Long userId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "" + Cursor.DEFAULT_SIZE) int size,
+                                                                  @RequestParam(defaultValue = "0") int includeCommentPreview) {
+        return withCommentPreview(postService.getUserPosts(userId, cursor, size), includeCommentPreview);
     }
 
     @GetMapping("/feed")
     @PreAuthorize("hasRole('USER')")
-    public Page<SkillSharingPostDTO> getFeedPosts(@CurrentUser UserPrincipal currentUser, Pageable pageable) {
-        return postService.getFeedPosts(currentUser.getId(), pageable);
+    public Page<SkillSharingPostDTO> getFeedPosts(@CurrentUser UserPrincipal currentUser, Pageable pageable,
+                                                  @RequestParam(defaultValue = "0") int includeCommentPreview) {
+        return withCommentPreview(postService.getFeedPosts(currentUser.getId(), pageable), includeCommentPreview);
+    }
+
+    @GetMapping(value = "/feed", params = "cursor")
+    @PreAuthorize("hasRole('USER')")
+    public CursorPageDTO<SkillSharingPostDTO> getFeedPostsByCursor(@CurrentUser UserPrincipal currentUser,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "" + Cursor.DEFAULT_SIZE) int size,
+                                                                  @RequestParam(defaultValue = "0") int includeCommentPreview) {
+        return withCommentPreview(postService.getFeedPosts(currentUser.getId(), cursor, size), includeCommentPreview);
     }
 
     @PutMapping("/{postId}")
@@ -78,14 +133,47 @@ public class SkillSharingPostController {
     }
 
     @GetMapping("/trending")
-    public List<SkillSharingPostDTO> getTrendingPosts() {
-        return postService.getTrendingPosts();
+    public List<SkillSharingPostDTO> getTrendingPosts(@RequestParam(defaultValue = "0") int includeCommentPreview) {
+        List<SkillSharingPostDTO> posts = postService.getTrendingPosts();
+        addCommentPreview(posts, includeCommentPreview);
+        return posts;
+    }
+
+    @GetMapping("/liked")
+    @PreAuthorize("hasRole('USER')")
+    public Set<Long> getLikedPostIds(@CurrentUser UserPrincipal currentUser,
+                                     @RequestParam List<Long> ids) {
+        if (ids.size() > Cursor.MAX_SIZE) {
+            throw new BadRequestException("At most " + Cursor.MAX_SIZE + " post ids can be checked at once");
+        }
+        return postService.getLikedPostIds(currentUser.getId(), ids);
     }
 
+    // Page responses already carry the liked flag; prefer /liked for ad-hoc checks
     @GetMapping("/{postId}/is-liked")
     @PreAuthorize("hasRole('USER')")
     public boolean isPostLiked(@CurrentUser UserPrincipal currentUser,
                               @PathVariable Long postId) {
         return postService.isPostLikedByUser(postId, currentUser.getId());
     }
+
+    private Page<SkillSharingPostDTO> withCommentPreview(Page<SkillSharingPostDTO> posts, int size) {
+        addCommentPreview(posts.getContent(), size);
+        return posts;
+    }
+
+    private CursorPageDTO<SkillSharingPostDTO> withCommentPreview(CursorPageDTO<SkillSharingPostDTO> posts, int size) {
+        addCommentPreview(posts.getContent(), size);
+        return posts;
+    }
+
+    // One query for the whole page instead of a comments request per post
+    private void addCommentPreview(List<SkillSharingPostDTO> posts, int size) {
+        if (size <= 0) {
+            return;
+        }
+        Map<Long, List<CommentDTO>> previews = commentService.getCommentPreviews(
+                posts.stream().map(SkillSharingPostDTO::getId).toList(), size);
+        posts.forEach(post -> post.setCommentPreview(previews.getOrDefault(post.getId(), List.of())));
+    }
 }
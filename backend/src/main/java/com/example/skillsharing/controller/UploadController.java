@@ -0,0 +1,69 @@
+package com.example.skillsharing.controller;
+
+import com.example.skillsharing.dto.UploadSessionDTO;
+import com.example.skillsharing.exception.BadRequestException;
+import com.example.skillsharing.security.CurrentUser;
+import com.example.skillsharing.security.UserPrincipal;
+import com.example.skillsharing.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Resumable uploads. Open a session, PUT the file in chunks of the returned
+ * {@code chunkSize} at the returned {@code offset}, complete it, and pass its id
+ * in {@code uploadIds} when creating the post. After a dropped connection, GET
+ * the session to learn where to continue.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final UploadSessionService uploadSessionService;
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    public UploadSessionDTO createUpload(@CurrentUser UserPrincipal currentUser,
+                                         @Valid @RequestBody UploadSessionDTO.CreateUploadDTO createUploadDTO) {
+        return uploadSessionService.createSession(currentUser.getId(), createUploadDTO);
+    }
+
+    @GetMapping("/{uploadId}")
+    @PreAuthorize("hasRole('USER')")
+    public UploadSessionDTO getUpload(@CurrentUser UserPrincipal currentUser, @PathVariable String uploadId) {
+        return uploadSessionService.getSession(currentUser.getId(), uploadId);
+    }
+
+    @PutMapping(value = "/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public UploadSessionDTO uploadChunk(@CurrentUser UserPrincipal currentUser,
+                                        @PathVariable String uploadId,
+                                        @RequestParam long offset,
+                                        HttpServletRequest request) throws IOException {
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            throw new BadRequestException("Content-Length is required");
+        }
+        return uploadSessionService.appendChunk(currentUser.getId(), uploadId, offset, length, request.getInputStream());
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    @PreAuthorize("hasRole('USER')")
+    public UploadSessionDTO completeUpload(@CurrentUser UserPrincipal currentUser, @PathVariable String uploadId) {
+        return uploadSessionService.completeSession(currentUser.getId(), uploadId);
+    }
+
+    @DeleteMapping("/{uploadId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> cancelUpload(@CurrentUser UserPrincipal currentUser, @PathVariable String uploadId) {
+        uploadSessionService.cancelSession(currentUser.getId(), uploadId);
+        return ResponseEntity.ok().build();
+    }
+}
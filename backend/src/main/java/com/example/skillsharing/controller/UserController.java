@@ -1,9 +1,11 @@
 package com.example.skillsharing.controller;
 
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.dto.UserDTO;
 import com.example.skillsharing.security.CurrentUser;
 import com.example.skillsharing.security.UserPrincipal;
 import com.example.skillsharing.service.UserService;
+import com.example.skillsharing.util.Cursor;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -47,9 +49,7 @@ public class UserController {
     @PreAuthorize("hasRole('USER')")
     public UserDTO updateProfilePicture(@CurrentUser UserPrincipal userPrincipal,
                                       @RequestParam("file") MultipartFile file) {
-        UserDTO userDTO = userService.getCurrentUserDTO();
-        userDTO.setProfilePicture(file.getOriginalFilename()); // In real app, save file and get URL
-        return userService.updateUser(userPrincipal.getId(), userDTO);
+        return userService.updateProfilePicture(userPrincipal.getId(), file);
     }
 
     @PostMapping("/{userId}/follow")
@@ -71,11 +71,25 @@ public class UserController {
         return userService.getFollowers(userId, pageable);
     }
 
+    @GetMapping(value = "/{userId}/followers", params = "cursor")
+    public CursorPageDTO<UserDTO> getUserFollowersByCursor(@PathVariable Long userId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "" + Cursor.DEFAULT_SIZE) int size) {
+        return userService.getFollowers(userId, cursor, size);
+    }
+
     @GetMapping("/{userId}/following")
     public Page<UserDTO> getUserFollowing(@PathVariable Long userId, Pageable pageable) {
         return userService.getFollowing(userId, pageable);
     }
 
+    @GetMapping(value = "/{userId}/following", params = "cursor")
+    public CursorPageDTO<UserDTO> getUserFollowingByCursor(@PathVariable Long userId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "" + Cursor.DEFAULT_SIZE) int size) {
+        return userService.getFollowing(userId, cursor, size);
+    }
+
     @DeleteMapping("/me")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> deleteUser(@CurrentUser UserPrincipal userPrincipal) {
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 public class CommentDTO {
@@ -16,12 +17,18 @@ public class CommentDTO {
 
     private UserDTO user;
     private Long postId;
+    private Long parentId;
+    private int depth;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean edited;
     private boolean canEdit;
     private boolean canDelete;
 
+    // Only filled in for top-level comments of a thread page
+    private List<CommentDTO> replies;
+    private Boolean hasMoreReplies;
+
     // For creating/updating comments
     public static class CreateCommentDTO {
         @NotBlank(message = "Comment content is required")
@@ -0,0 +1,44 @@
+package com.example.skillsharing.dto;
+
+import com.example.skillsharing.util.Cursor;
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset-paginated response. Unlike a Spring Page it carries no total count, so
+ * fetching any slice costs the same as fetching the first one.
+ */
+@Data
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public static <E, T> CursorPageDTO<T> of(Slice<E> slice, Function<E, T> mapper, Function<E, Cursor> cursorOf) {
+        return of(slice, slice.getContent().stream().map(mapper).toList(), cursorOf);
+    }
+
+    public static <E, T> CursorPageDTO<T> of(Slice<E> slice, List<T> content, Function<E, Cursor> cursorOf) {
+        return ofTokens(slice, content, entity -> cursorOf.apply(entity).encode());
+    }
+
+    /**
+     * For lists ordered by something other than creation time; {@code tokenOf}
+     * encodes the position of the last entity.
+     */
+    public static <E, T> CursorPageDTO<T> ofTokens(Slice<E> slice, List<T> content, Function<E, String> tokenOf) {
+        CursorPageDTO<T> page = new CursorPageDTO<>();
+        page.setContent(content);
+        page.setSize(content.size());
+        page.setHasNext(slice.hasNext());
+        if (slice.hasNext() && slice.hasContent()) {
+            List<E> entities = slice.getContent();
+            page.setNextCursor(tokenOf.apply(entities.get(entities.size() - 1)));
+        }
+        return page;
+    }
+}
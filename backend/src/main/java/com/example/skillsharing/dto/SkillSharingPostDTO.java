@@ -20,6 +20,9 @@ public class SkillSharingPostDTO {
     @Size(max = 3, message = "Maximum of 3 media files allowed")
     private List<String> mediaUrls = new ArrayList<>();
 
+    // URLs for each entry of mediaUrls; photos also get downscaled variants
+    private List<MediaDTO> media = new ArrayList<>();
+
     private MediaType mediaType;
 
     private UserDTO user;
@@ -28,6 +31,9 @@ public class SkillSharingPostDTO {
     private int commentsCount;
     private boolean isLiked;
 
+    // Latest comments, newest first; only filled in when a list asks for a preview
+    private List<CommentDTO> commentPreview;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -39,6 +45,10 @@ public class SkillSharingPostDTO {
 
         private MediaType mediaType;
 
+        // Completed resumable uploads to attach alongside any multipart media
+        @Size(max = 3, message = "Maximum of 3 media files allowed")
+        private List<String> uploadIds = new ArrayList<>();
+
         public String getDescription() {
             return description;
         }
@@ -54,6 +64,14 @@ public class SkillSharingPostDTO {
         public void setMediaType(MediaType mediaType) {
             this.mediaType = mediaType;
         }
+
+        public List<String> getUploadIds() {
+            return uploadIds;
+        }
+
+        public void setUploadIds(List<String> uploadIds) {
+            this.uploadIds = uploadIds;
+        }
     }
 
     // For updating post description
@@ -70,4 +88,70 @@ public class SkillSharingPostDTO {
             this.description = description;
         }
     }
+
+    public static class MediaDTO {
+        private String original;
+        private String contentType;
+        private String medium;
+        private String thumbnail;
+        private Long durationMs;
+        private Integer width;
+        private Integer height;
+
+        public String getOriginal() {
+            return original;
+        }
+
+        public void setOriginal(String original) {
+            this.original = original;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getMedium() {
+            return medium;
+        }
+
+        public void setMedium(String medium) {
+            this.medium = medium;
+        }
+
+        public String getThumbnail() {
+            return thumbnail;
+        }
+
+        public void setThumbnail(String thumbnail) {
+            this.thumbnail = thumbnail;
+        }
+
+        public Long getDurationMs() {
+            return durationMs;
+        }
+
+        public void setDurationMs(Long durationMs) {
+            this.durationMs = durationMs;
+        }
+
+        public Integer getWidth() {
+            return width;
+        }
+
+        public void setWidth(Integer width) {
+            this.width = width;
+        }
+
+        public Integer getHeight() {
+            return height;
+        }
+
+        public void setHeight(Integer height) {
+            this.height = height;
+        }
+    }
 }
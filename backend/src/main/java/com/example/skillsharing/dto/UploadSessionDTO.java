@@ -0,0 +1,61 @@
+package com.example.skillsharing.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class UploadSessionDTO {
+    private String id;
+    private String filename;
+    private String contentType;
+    private long size;
+    private int chunkSize;
+
+    // Where the next chunk has to start
+    private long offset;
+
+    // Once true, the id can be passed in uploadIds when creating a post
+    private boolean complete;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // For opening an upload session
+    public static class CreateUploadDTO {
+        @NotBlank(message = "Filename is required")
+        private String filename;
+
+        @NotBlank(message = "Content type is required")
+        private String contentType;
+
+        @Positive(message = "Size must be positive")
+        private long size;
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public void setFilename(String filename) {
+            this.filename = filename;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+    }
+}
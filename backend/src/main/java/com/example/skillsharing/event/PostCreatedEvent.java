@@ -0,0 +1,10 @@
+package com.example.skillsharing.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by the post service once a new post has been saved. Listeners that
+ * need the post to be visible to other transactions should run after commit.
+ */
+public record PostCreatedEvent(Long postId, Long authorId, LocalDateTime createdAt) {
+}
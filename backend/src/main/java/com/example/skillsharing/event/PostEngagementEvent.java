@@ -0,0 +1,12 @@
+package com.example.skillsharing.event;
+
+/**
+ * Published whenever a post gains or loses engagement. The delta is negative
+ * when engagement is withdrawn, e.g. on unlike.
+ */
+public record PostEngagementEvent(Long postId, Type type, int delta) {
+
+    public enum Type {
+        LIKE, COMMENT
+    }
+}
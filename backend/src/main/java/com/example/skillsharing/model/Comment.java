@@ -10,7 +10,13 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    @Index(name = "idx_comment_post_created", columnList = "post_id, createdAt, id"),
+    @Index(name = "idx_comment_user_created", columnList = "user_id, createdAt, id"),
+    @Index(name = "idx_comment_post_depth_created", columnList = "post_id, depth, createdAt, id"),
+    @Index(name = "idx_comment_root_path", columnList = "root_id, path"),
+    @Index(name = "idx_comment_path", columnList = "path", unique = true)
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Comment {
     @Id
@@ -28,6 +34,20 @@ public class Comment {
     @Column(nullable = false, length = 500)
     private String content;
 
+    // Null for top-level comments
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // The thread's top-level comment; its own id for top-level comments
+    @Column(name = "root_id")
+    private Long rootId;
+
+    // See CommentPath; set right after the id is assigned
+    @Column(length = 255)
+    private String path;
+
+    private int depth;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
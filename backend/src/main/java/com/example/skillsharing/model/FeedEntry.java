@@ -0,0 +1,43 @@
+package com.example.skillsharing.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a user's materialized home timeline. Entries are written when a
+ * followed author publishes (fan-out on write) and read back as a range scan
+ * over (recipient_id, created_at).
+ */
+@Data
+@Entity
+@Table(
+    name = "feed_entries",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"recipient_id", "post_id"}),
+    indexes = {
+        @Index(name = "idx_feed_recipient_created", columnList = "recipient_id, created_at, post_id"),
+        @Index(name = "idx_feed_recipient_author", columnList = "recipient_id, author_id"),
+        @Index(name = "idx_feed_post", columnList = "post_id")
+    }
+)
+public class FeedEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain id columns so fan-out can insert rows without loading users
+    @Column(name = "recipient_id", nullable = false)
+    private Long recipientId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "post_id", nullable = false)
+    private SkillSharingPost post;
+
+    // Copy of the post's creation time, used for timeline ordering
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
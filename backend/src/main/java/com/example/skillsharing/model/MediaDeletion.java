@@ -0,0 +1,41 @@
+package com.example.skillsharing.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * A post media file waiting to be deleted. Rows are written in the transaction
+ * that released the file's last reference, so the deletion survives a crash,
+ * and removed once the file is gone or turned out to be referenced again.
+ */
+@Data
+@Entity
+@Table(
+    name = "media_deletions",
+    indexes = @Index(name = "idx_media_deletions_due", columnList = "next_attempt_at")
+)
+@EntityListeners(AuditingEntityListener.class)
+public class MediaDeletion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 80)
+    private String filename;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
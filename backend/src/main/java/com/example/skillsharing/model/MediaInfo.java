@@ -0,0 +1,23 @@
+package com.example.skillsharing.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+
+/**
+ * What was learned about one of a post's media files when it was uploaded.
+ */
+@Data
+@Embeddable
+public class MediaInfo {
+    // Detected from the file's leading bytes, not taken from the client
+    @Column(length = 100)
+    private String contentType;
+
+    // Read from the moov box of MP4 and QuickTime uploads; null for images
+    private Long durationMs;
+
+    private Integer width;
+
+    private Integer height;
+}
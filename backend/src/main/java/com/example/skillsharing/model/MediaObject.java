@@ -0,0 +1,31 @@
+package com.example.skillsharing.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored media file, named by the SHA-256 of its content, together with the
+ * number of post media references pointing at it.
+ */
+@Data
+@Entity
+@Table(name = "media_objects")
+@EntityListeners(AuditingEntityListener.class)
+public class MediaObject {
+    @Id
+    @Column(length = 80)
+    private String filename;
+
+    @Column(nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
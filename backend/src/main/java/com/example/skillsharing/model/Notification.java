@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notification_user_created", columnList = "user_id, createdAt, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Notification {
     @Id
@@ -9,13 +9,18 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "skill_sharing_posts")
+@Table(name = "skill_sharing_posts", indexes = {
+    @Index(name = "idx_post_user_created", columnList = "user_id, createdAt, id"),
+    @Index(name = "idx_post_like_count", columnList = "likeCount")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class SkillSharingPost {
     @Id
@@ -33,17 +38,31 @@ public class SkillSharingPost {
     @Size(max = 3, message = "Maximum of 3 media files allowed")
     private List<String> mediaUrls = new ArrayList<>();
 
+    // Keyed by the entries of mediaUrls
+    @ElementCollection
+    @CollectionTable(name = "post_media_info", joinColumns = @JoinColumn(name = "post_id"))
+    @MapKeyColumn(name = "filename", length = 80)
+    private Map<String, MediaInfo> mediaInfo = new HashMap<>();
+
     @ManyToMany
     @JoinTable(
         name = "post_likes",
         joinColumns = @JoinColumn(name = "post_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
+        inverseJoinColumns = @JoinColumn(name = "user_id"),
+        indexes = @Index(name = "idx_post_likes_user_post", columnList = "user_id, post_id")
     )
     private Set<User> likes = new HashSet<>();
 
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments = new ArrayList<>();
 
+    // Denormalized counters, only ever changed through atomic UPDATEs in the repository
+    @Column(nullable = false, updatable = false)
+    private long likeCount;
+
+    @Column(nullable = false, updatable = false)
+    private long commentCount;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
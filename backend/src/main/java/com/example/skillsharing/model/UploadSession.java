@@ -0,0 +1,70 @@
+package com.example.skillsharing.model;
+
+import com.example.skillsharing.util.MediaSignature;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable upload in progress. Chunks are written into a preallocated staging
+ * file and {@code receivedBytes} records how much of it is in place, so a client
+ * that lost its connection can ask for the offset and carry on from there.
+ */
+@Data
+@Entity
+@Table(
+    name = "upload_sessions",
+    indexes = {
+        @Index(name = "idx_upload_sessions_updated", columnList = "updated_at"),
+        @Index(name = "idx_upload_sessions_user", columnList = "user_id")
+    }
+)
+@EntityListeners(AuditingEntityListener.class)
+public class UploadSession {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String originalFilename;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long totalSize;
+
+    @Column(nullable = false)
+    private int chunkSize;
+
+    @Column(nullable = false)
+    private long receivedBytes;
+
+    // Format found in the leading bytes of the first chunk
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private MediaSignature detectedType;
+
+    // Content-addressed name, set once every chunk has arrived and the file was hashed
+    @Column(length = 80)
+    private String mediaFilename;
+
+    // Described together with the hash, so attaching the upload needs no file access
+    @Embedded
+    @AttributeOverride(name = "contentType", column = @Column(name = "media_content_type", length = 100))
+    private MediaInfo mediaInfo;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -2,6 +2,8 @@ package com.example.skillsharing.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -11,11 +13,14 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Data
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@ToString(exclude = {"password", "followers", "following"})
 @Entity
 @Table(name = "users")
 @EntityListeners(AuditingEntityListener.class)
 public class User {
     @Id
+    @EqualsAndHashCode.Include
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
@@ -25,15 +30,21 @@ public class User {
     @Column(nullable = false, unique = true)
     private String username;
 
+    // BCrypt hash for local sign-ups; null for OAuth2 accounts
+    private String password;
+
     private String profilePicture;
     
     private String bio;
 
+    // The primary key (following_id, follower_id) pages a user's followers;
+    // the index pages the other direction
     @ManyToMany
     @JoinTable(
         name = "user_followers",
         joinColumns = @JoinColumn(name = "following_id"),
-        inverseJoinColumns = @JoinColumn(name = "follower_id")
+        inverseJoinColumns = @JoinColumn(name = "follower_id"),
+        indexes = @Index(name = "idx_user_followers_follower", columnList = "follower_id, following_id")
     )
     private Set<User> followers = new HashSet<>();
 
@@ -5,17 +5,71 @@ import com.example.skillsharing.model.SkillSharingPost;
 import com.example.skillsharing.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     Page<Comment> findByPostOrderByCreatedAtDesc(SkillSharingPost post, Pageable pageable);
+
+    Slice<Comment> findSliceByPostIdOrderByCreatedAtDescIdDesc(Long postId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findSliceByPostIdBefore(Long postId, LocalDateTime createdAt, Long id, Pageable pageable);
     
-    List<Comment> findByUserOrderByCreatedAtDesc(User user);
+    Page<Comment> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    Slice<Comment> findSliceByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.user.id = :userId " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findSliceByUserIdBefore(Long userId, LocalDateTime createdAt, Long id, Pageable pageable);
     
+    // Top-level comments of a post, newest first
+    Slice<Comment> findSliceByPostIdAndDepthOrderByCreatedAtDescIdDesc(Long postId, int depth, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c WHERE c.post.id = :postId AND c.depth = 0 " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    Slice<Comment> findThreadSliceBefore(Long postId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    // Depth-first walk of a subtree after the given path; one range scan over idx_comment_path
+    @Query("SELECT c FROM Comment c WHERE c.path LIKE CONCAT(:prefix, '%') AND c.path > :after ORDER BY c.path")
+    Slice<Comment> findSubtreeSliceAfter(String prefix, String after, Pageable pageable);
+
+    // The first replies of each thread in depth-first order, numbered per thread so
+    // a single statement serves the whole page; ask for one more than shown to
+    // learn whether a thread has further replies
+    @Query(value = "SELECT * FROM (" +
+                   "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.root_id ORDER BY c.path) AS reply_rank " +
+                   "FROM comments c WHERE c.root_id IN (:rootIds) AND c.depth > 0" +
+                   ") ranked WHERE ranked.reply_rank <= :limit ORDER BY ranked.path",
+           nativeQuery = true)
+    List<Comment> findFirstReplies(Collection<Long> rootIds, int limit);
+
+    // The latest top-level comments of each post, numbered per post so a whole
+    // page of posts is served by one statement over idx_comment_post_depth_created
+    @Query(value = "SELECT * FROM (" +
+                   "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.created_at DESC, c.id DESC) AS preview_rank " +
+                   "FROM comments c WHERE c.post_id IN (:postIds) AND c.depth = 0" +
+                   ") ranked WHERE ranked.preview_rank <= :limit ORDER BY ranked.post_id, ranked.preview_rank",
+           nativeQuery = true)
+    List<Comment> findLatestByPostIds(Collection<Long> postIds, int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Comment c WHERE c.path LIKE CONCAT(:prefix, '%')")
+    int deleteSubtree(String prefix);
+
     long countByPost(SkillSharingPost post);
     
     void deleteByPostAndUser(SkillSharingPost post, User user);
@@ -0,0 +1,75 @@
+package com.example.skillsharing.repository;
+
+import com.example.skillsharing.model.FeedEntry;
+import com.example.skillsharing.model.SkillSharingPost;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface FeedEntryRepository extends JpaRepository<FeedEntry, Long> {
+
+    @Query(value = "SELECT e.post FROM FeedEntry e WHERE e.recipientId = :recipientId " +
+                   "ORDER BY e.createdAt DESC, e.post.id DESC",
+           countQuery = "SELECT COUNT(e) FROM FeedEntry e WHERE e.recipientId = :recipientId")
+    Page<SkillSharingPost> findFeedPosts(Long recipientId, Pageable pageable);
+
+    @Query("SELECT e.post FROM FeedEntry e WHERE e.recipientId = :recipientId " +
+           "ORDER BY e.createdAt DESC, e.post.id DESC")
+    Slice<SkillSharingPost> findFeedSlice(Long recipientId, Pageable pageable);
+
+    @Query("SELECT e.post FROM FeedEntry e WHERE e.recipientId = :recipientId " +
+           "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.post.id < :postId)) " +
+           "ORDER BY e.createdAt DESC, e.post.id DESC")
+    Slice<SkillSharingPost> findFeedSliceBefore(Long recipientId, LocalDateTime createdAt, Long postId, Pageable pageable);
+
+    // Copies a new post into the timeline of every follower of its author
+    @Modifying
+    @Query(value = "INSERT INTO feed_entries (recipient_id, author_id, post_id, created_at) " +
+                   "SELECT uf.follower_id, :authorId, :postId, :createdAt FROM user_followers uf " +
+                   "WHERE uf.following_id = :authorId AND NOT EXISTS " +
+                   "(SELECT 1 FROM feed_entries fe WHERE fe.recipient_id = uf.follower_id AND fe.post_id = :postId)",
+           nativeQuery = true)
+    int fanOutPost(Long postId, Long authorId, LocalDateTime createdAt);
+
+    // Copies an author's existing posts into a new follower's timeline
+    @Modifying
+    @Query(value = "INSERT INTO feed_entries (recipient_id, author_id, post_id, created_at) " +
+                   "SELECT :recipientId, p.user_id, p.id, p.created_at FROM skill_sharing_posts p " +
+                   "WHERE p.user_id = :authorId AND NOT EXISTS " +
+                   "(SELECT 1 FROM feed_entries fe WHERE fe.recipient_id = :recipientId AND fe.post_id = p.id)",
+           nativeQuery = true)
+    int backfillAuthor(Long recipientId, Long authorId);
+
+    // Fills in entries missing for recipients in [fromId, toId], e.g. a fan-out that gave up or a table seeded late
+    @Modifying
+    @Query(value = "INSERT INTO feed_entries (recipient_id, author_id, post_id, created_at) " +
+                   "SELECT uf.follower_id, p.user_id, p.id, p.created_at FROM user_followers uf " +
+                   "JOIN skill_sharing_posts p ON p.user_id = uf.following_id " +
+                   "WHERE uf.follower_id BETWEEN :fromId AND :toId AND NOT EXISTS " +
+                   "(SELECT 1 FROM feed_entries fe WHERE fe.recipient_id = uf.follower_id AND fe.post_id = p.id)",
+           nativeQuery = true)
+    int backfillRecipients(Long fromId, Long toId);
+
+    // Drops entries for recipients in [fromId, toId] whose author they no longer follow
+    @Modifying
+    @Query(value = "DELETE FROM feed_entries fe WHERE fe.recipient_id BETWEEN :fromId AND :toId AND NOT EXISTS " +
+                   "(SELECT 1 FROM user_followers uf WHERE uf.follower_id = fe.recipient_id " +
+                   "AND uf.following_id = fe.author_id)",
+           nativeQuery = true)
+    int pruneRecipients(Long fromId, Long toId);
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry e WHERE e.recipientId = :recipientId AND e.authorId = :authorId")
+    int deleteByRecipientIdAndAuthorId(Long recipientId, Long authorId);
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry e WHERE e.post.id = :postId")
+    int deleteByPostId(Long postId);
+}
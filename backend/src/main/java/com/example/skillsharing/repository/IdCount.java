@@ -0,0 +1,19 @@
+package com.example.skillsharing.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Projection for grouped "count per id" queries used when hydrating a page of
+ * DTOs in one round trip instead of touching each entity's collections.
+ */
+public interface IdCount {
+    Long getId();
+
+    long getCount();
+
+    static Map<Long, Long> toMap(List<IdCount> counts) {
+        return counts.stream().collect(Collectors.toMap(IdCount::getId, IdCount::getCount));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.skillsharing.repository;
+
+import com.example.skillsharing.model.MediaDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MediaDeletionRepository extends JpaRepository<MediaDeletion, Long> {
+
+    // Entries that used up their attempts stay for inspection but are not picked up again
+    @Query("SELECT d FROM MediaDeletion d WHERE d.nextAttemptAt <= :now AND d.attempts < :maxAttempts " +
+           "ORDER BY d.nextAttemptAt")
+    List<MediaDeletion> findDue(LocalDateTime now, int maxAttempts, Pageable pageable);
+
+    long countByAttemptsLessThan(int maxAttempts);
+}
@@ -0,0 +1,42 @@
+package com.example.skillsharing.repository;
+
+import com.example.skillsharing.model.MediaObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MediaObjectRepository extends JpaRepository<MediaObject, String> {
+
+    // Creates the row with no references if this content has not been stored before
+    @Modifying
+    @Query(value = "INSERT INTO media_objects (filename, size_bytes, ref_count, created_at) " +
+                   "SELECT :filename, :sizeBytes, 0, CURRENT_TIMESTAMP WHERE NOT EXISTS " +
+                   "(SELECT 1 FROM media_objects WHERE filename = :filename)",
+           nativeQuery = true)
+    int insertIfAbsent(String filename, long sizeBytes);
+
+    @Modifying
+    @Query("UPDATE MediaObject m SET m.refCount = m.refCount + 1 WHERE m.filename = :filename")
+    int incrementRefCount(String filename);
+
+    @Modifying
+    @Query("UPDATE MediaObject m SET m.refCount = m.refCount - 1 WHERE m.filename = :filename AND m.refCount > 0")
+    int decrementRefCount(String filename);
+
+    // Read after decrementRefCount in the same transaction, whose row lock keeps it current until commit
+    @Query("SELECT m.refCount FROM MediaObject m WHERE m.filename = :filename")
+    Optional<Integer> findRefCount(String filename);
+
+    // Row lock that a concurrent incrementRefCount waits on until the deletion holding it commits
+    @Query(value = "SELECT ref_count FROM media_objects WHERE filename = :filename FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockRefCount(String filename);
+
+    // Succeeds only while nothing references the file, so a concurrent re-upload keeps it alive
+    @Modifying
+    @Query("DELETE FROM MediaObject m WHERE m.filename = :filename AND m.refCount = 0")
+    int deleteIfUnreferenced(String filename);
+}
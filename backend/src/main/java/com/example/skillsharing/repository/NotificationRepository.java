@@ -4,18 +4,28 @@ import com.example.skillsharing.model.Notification;
 import com.example.skillsharing.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     Page<Notification> findByRecipientOrderByCreatedAtDesc(User recipient, Pageable pageable);
+
+    Slice<Notification> findSliceByRecipientIdOrderByCreatedAtDescIdDesc(Long recipientId, Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<Notification> findSliceByRecipientIdBefore(Long recipientId, LocalDateTime createdAt, Long id, Pageable pageable);
     
     long countByRecipientAndReadFalse(User recipient);
     
-    @Modifying
+    @Modifying(clearAutomatically = true)
     @Query("UPDATE Notification n SET n.read = true WHERE n.recipient = :recipient AND n.read = false")
     void markAllAsRead(User recipient);
     
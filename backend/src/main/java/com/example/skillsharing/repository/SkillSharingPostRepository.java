@@ -2,27 +2,91 @@ package com.example.skillsharing.repository;
 
 import com.example.skillsharing.model.SkillSharingPost;
 import com.example.skillsharing.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SkillSharingPostRepository extends JpaRepository<SkillSharingPost, Long> {
     Page<SkillSharingPost> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+
+    Slice<SkillSharingPost> findSliceByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    @Query("SELECT p FROM SkillSharingPost p WHERE p.user.id = :userId " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<SkillSharingPost> findSliceByUserIdBefore(Long userId, LocalDateTime createdAt, Long id, Pageable pageable);
     
     Page<SkillSharingPost> findByUserInOrderByCreatedAtDesc(Iterable<User> users, Pageable pageable);
     
-    @Query("SELECT p FROM SkillSharingPost p WHERE p.user IN " +
-           "(SELECT f FROM User u JOIN u.following f WHERE u = :user) " +
-           "ORDER BY p.createdAt DESC")
-    Page<SkillSharingPost> findFeedPostsByUser(User user, Pageable pageable);
+    // Cold-start fallback for trending before any engagement has been observed
+    List<SkillSharingPost> findTop10ByOrderByLikeCountDesc();
     
-    List<SkillSharingPost> findTop10ByOrderByLikesDesc();
-    
-    @Query("SELECT COUNT(l) > 0 FROM SkillSharingPost p JOIN p.likes l WHERE p = :post AND l = :user")
-    boolean isLikedByUser(SkillSharingPost post, User user);
+
+    // Inserts the like only if the post exists and the user has not liked it yet
+    @Modifying
+    @Query(value = "INSERT INTO post_likes (post_id, user_id) " +
+                   "SELECT p.id, :userId FROM skill_sharing_posts p WHERE p.id = :postId AND NOT EXISTS " +
+                   "(SELECT 1 FROM post_likes l WHERE l.post_id = :postId AND l.user_id = :userId)",
+           nativeQuery = true)
+    int insertLike(Long postId, Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM post_likes WHERE post_id = :postId AND user_id = :userId", nativeQuery = true)
+    int deleteLike(Long postId, Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SkillSharingPost p SET p.likeCount = p.likeCount + :delta " +
+           "WHERE p.id = :postId AND p.likeCount + :delta >= 0")
+    int adjustLikeCount(Long postId, long delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SkillSharingPost p SET p.commentCount = p.commentCount + :delta " +
+           "WHERE p.id = :postId AND p.commentCount + :delta >= 0")
+    int adjustCommentCount(Long postId, long delta);
+
+    @Query("SELECT p.id FROM SkillSharingPost p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
+    // Rewrites drifted like counters for posts in [fromId, toId]; returns the number repaired
+    @Modifying
+    @Query(value = "UPDATE skill_sharing_posts p SET like_count = " +
+                   "(SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.id) " +
+                   "WHERE p.id BETWEEN :fromId AND :toId AND like_count <> " +
+                   "(SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.id)",
+           nativeQuery = true)
+    int reconcileLikeCounts(Long fromId, Long toId);
+
+    @Modifying
+    @Query(value = "UPDATE skill_sharing_posts p SET comment_count = " +
+                   "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) " +
+                   "WHERE p.id BETWEEN :fromId AND :toId AND comment_count <> " +
+                   "(SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)",
+           nativeQuery = true)
+    int reconcileCommentCounts(Long fromId, Long toId);
+
+    // Subset of postIds that userId has liked, served by idx_post_likes_user_post
+    @Query(value = "SELECT post_id FROM post_likes WHERE user_id = :userId AND post_id IN (:postIds)",
+           nativeQuery = true)
+    List<Long> findLikedPostIds(Long userId, Collection<Long> postIds);
+
+    // Every media filename referenced by a post, streamed so the list is never materialized
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT m FROM SkillSharingPost p JOIN p.mediaUrls m")
+    Stream<String> streamMediaUrls();
+
+    @Query("SELECT DISTINCT m FROM SkillSharingPost p JOIN p.mediaUrls m WHERE m IN :filenames")
+    List<String> findReferencedMediaUrls(Collection<String> filenames);
 }
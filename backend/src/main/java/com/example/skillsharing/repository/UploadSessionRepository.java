@@ -0,0 +1,43 @@
+package com.example.skillsharing.repository;
+
+import com.example.skillsharing.model.UploadSession;
+import com.example.skillsharing.util.MediaSignature;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    Optional<UploadSession> findByIdAndUserId(String id, Long userId);
+
+    List<UploadSession> findByIdInAndUserId(Collection<String> ids, Long userId);
+
+    List<UploadSession> findByUserIdAndUpdatedAtBefore(Long userId, LocalDateTime cutoff);
+
+    long countByUserId(Long userId);
+
+    // Bytes preallocated on disk for the user's sessions, finished ones included until a post takes them
+    @Query("SELECT COALESCE(SUM(s.totalSize), 0) FROM UploadSession s WHERE s.userId = :userId")
+    long sumTotalSizeByUserId(Long userId);
+
+    // Moves the offset only if no other request has written this chunk in the meantime
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.receivedBytes = :receivedBytes, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.id = :id AND s.receivedBytes = :expectedOffset AND s.mediaFilename IS NULL")
+    int advance(String id, long expectedOffset, long receivedBytes);
+
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.detectedType = :detectedType WHERE s.id = :id")
+    int recordDetectedType(String id, MediaSignature detectedType);
+
+    @Modifying
+    @Query("DELETE FROM UploadSession s WHERE s.updatedAt < :cutoff")
+    int deleteByUpdatedAtBefore(LocalDateTime cutoff);
+}
@@ -1,10 +1,23 @@
 package com.example.skillsharing.repository;
 
 import com.example.skillsharing.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,4 +26,72 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
     Optional<User> findByProviderAndProviderId(User.AuthProvider provider, String providerId);
+
+    // Profile writes save every column, so they hold the row to keep one from undoing another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findByIdForUpdate(Long id);
+
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) > 0 FROM user_followers WHERE follower_id = :followerId AND following_id = :followingId",
+           nativeQuery = true)
+    boolean existsFollow(Long followerId, Long followingId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_followers (following_id, follower_id) VALUES (:followingId, :followerId)",
+           nativeQuery = true)
+    int insertFollow(Long followerId, Long followingId);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_followers WHERE follower_id = :followerId AND following_id = :followingId",
+           nativeQuery = true)
+    int deleteFollow(Long followerId, Long followingId);
+
+    @Query(value = "SELECT following_id AS id, COUNT(*) AS count FROM user_followers " +
+                   "WHERE following_id IN (:userIds) GROUP BY following_id",
+           nativeQuery = true)
+    List<IdCount> countFollowers(Collection<Long> userIds);
+
+    @Query(value = "SELECT follower_id AS id, COUNT(*) AS count FROM user_followers " +
+                   "WHERE follower_id IN (:userIds) GROUP BY follower_id",
+           nativeQuery = true)
+    List<IdCount> countFollowing(Collection<Long> userIds);
+
+    // Subset of userIds that followerId follows
+    @Query(value = "SELECT following_id FROM user_followers " +
+                   "WHERE follower_id = :followerId AND following_id IN (:userIds)",
+           nativeQuery = true)
+    List<Long> findFollowedIds(Long followerId, Collection<Long> userIds);
+
+    // Followers and followed users in id order, read straight off the user_followers keys
+    @Query(value = "SELECT u.* FROM user_followers f JOIN users u ON u.id = f.follower_id " +
+                   "WHERE f.following_id = :userId ORDER BY f.follower_id",
+           countQuery = "SELECT COUNT(*) FROM user_followers WHERE following_id = :userId",
+           nativeQuery = true)
+    Page<User> findFollowers(Long userId, Pageable pageable);
+
+    @Query(value = "SELECT u.* FROM user_followers f JOIN users u ON u.id = f.follower_id " +
+                   "WHERE f.following_id = :userId AND f.follower_id > :afterId ORDER BY f.follower_id",
+           nativeQuery = true)
+    Slice<User> findFollowersAfter(Long userId, Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT u.* FROM user_followers f JOIN users u ON u.id = f.following_id " +
+                   "WHERE f.follower_id = :userId ORDER BY f.following_id",
+           countQuery = "SELECT COUNT(*) FROM user_followers WHERE follower_id = :userId",
+           nativeQuery = true)
+    Page<User> findFollowing(Long userId, Pageable pageable);
+
+    @Query(value = "SELECT u.* FROM user_followers f JOIN users u ON u.id = f.following_id " +
+                   "WHERE f.follower_id = :userId AND f.following_id > :afterId ORDER BY f.following_id",
+           nativeQuery = true)
+    Slice<User> findFollowingAfter(Long userId, Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.profilePicture FROM User u WHERE u.profilePicture LIKE CONCAT(:prefix, '%')")
+    Stream<String> streamProfilePicturesStartingWith(String prefix);
+
+    @Query("SELECT u.profilePicture FROM User u WHERE u.profilePicture IN :urls")
+    List<String> findProfilePicturesIn(Collection<String> urls);
 }
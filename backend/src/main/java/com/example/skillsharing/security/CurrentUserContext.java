@@ -0,0 +1,119 @@
+package com.example.skillsharing.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The viewer of the current request: their id, taken once from the
+ * {@link UserPrincipal} set by {@link TokenAuthenticationFilter}, and the
+ * follow and like flags already looked up for them. DTO conversions ask for
+ * flags here, so a response that converts the same users or posts more than
+ * once (a post and its comment previews, say) queries each id only once.
+ *
+ * <p>State lives in the request attributes. Outside a request, such as in
+ * scheduled jobs and async listeners, nothing is cached and every lookup
+ * goes to the loader.
+ */
+@Component
+public class CurrentUserContext {
+
+    private static final String ATTRIBUTE = CurrentUserContext.class.getName();
+
+    /**
+     * Id of the authenticated user, or {@code null} for anonymous access.
+     */
+    public Long getUserId() {
+        return state().userId;
+    }
+
+    /**
+     * Ids among {@code userIds} that the current user follows. {@code loader}
+     * is only asked about the ids not looked up yet in this request.
+     */
+    public Set<Long> getFollowedIds(Collection<Long> userIds,
+                                    Function<Collection<Long>, Collection<Long>> loader) {
+        State state = state();
+        return state.userId == null ? Set.of() : lookup(state.following, userIds, loader);
+    }
+
+    /**
+     * Ids among {@code postIds} that the current user has liked, loaded like
+     * {@link #getFollowedIds}.
+     */
+    public Set<Long> getLikedPostIds(Collection<Long> postIds,
+                                     Function<Collection<Long>, Collection<Long>> loader) {
+        State state = state();
+        return state.userId == null ? Set.of() : lookup(state.liked, postIds, loader);
+    }
+
+    /**
+     * Keeps the cached flag in step when the current user follows or unfollows
+     * someone later in the same request.
+     */
+    public void setFollowing(Long userId, boolean following) {
+        state().following.put(userId, following);
+    }
+
+    public void setLiked(Long postId, boolean liked) {
+        state().liked.put(postId, liked);
+    }
+
+    private static Set<Long> lookup(Map<Long, Boolean> known, Collection<Long> ids,
+                                    Function<Collection<Long>, Collection<Long>> loader) {
+        List<Long> missing = ids.stream().filter(id -> !known.containsKey(id)).distinct().toList();
+        if (!missing.isEmpty()) {
+            Set<Long> found = new HashSet<>(loader.apply(missing));
+            missing.forEach(id -> known.put(id, found.contains(id)));
+        }
+
+        Set<Long> result = new HashSet<>();
+        for (Long id : ids) {
+            if (Boolean.TRUE.equals(known.get(id))) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static State state() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new State(principalId());
+        }
+        State state = (State) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (state == null) {
+            state = new State(principalId());
+            attributes.setAttribute(ATTRIBUTE, state, RequestAttributes.SCOPE_REQUEST);
+        }
+        return state;
+    }
+
+    private static Long principalId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    private static final class State {
+        private final Long userId;
+        private final Map<Long, Boolean> following = new HashMap<>();
+        private final Map<Long, Boolean> liked = new HashMap<>();
+
+        private State(Long userId) {
+            this.userId = userId;
+        }
+    }
+}
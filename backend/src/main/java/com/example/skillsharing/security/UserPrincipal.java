@@ -2,6 +2,7 @@ package com.example.skillsharing.security;
 
 import com.example.skillsharing.model.User;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,6 +16,7 @@ import java.util.Map;
 
 @Getter
 @AllArgsConstructor
+@EqualsAndHashCode(of = "id")
 public class UserPrincipal implements OAuth2User, UserDetails {
     private Long id;
     private String email;
@@ -30,7 +32,7 @@ public class UserPrincipal implements OAuth2User, UserDetails {
         return new UserPrincipal(
             user.getId(),
             user.getEmail(),
-            null,
+            user.getPassword(),
             authorities,
             null
         );
@@ -1,20 +1,37 @@
 package com.example.skillsharing.service;
 
 import com.example.skillsharing.dto.CommentDTO;
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.model.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface CommentService {
     
     CommentDTO createComment(Long postId, CommentDTO.CreateCommentDTO createCommentDTO);
     
+    CommentDTO createReply(Long commentId, CommentDTO.CreateCommentDTO createCommentDTO);
+    
     CommentDTO getCommentById(Long commentId);
     
     Page<CommentDTO> getPostComments(Long postId, Pageable pageable);
     
+    CursorPageDTO<CommentDTO> getPostComments(Long postId, String cursor, int size);
+    
+    CursorPageDTO<CommentDTO> getPostThreads(Long postId, String cursor, int size, int replies);
+    
+    CursorPageDTO<CommentDTO> getReplies(Long commentId, String cursor, int size);
+    
+    Map<Long, List<CommentDTO>> getCommentPreviews(Collection<Long> postIds, int size);
+    
     Page<CommentDTO> getUserComments(Long userId, Pageable pageable);
     
+    CursorPageDTO<CommentDTO> getUserComments(Long userId, String cursor, int size);
+    
     CommentDTO updateComment(Long commentId, CommentDTO.UpdateCommentDTO updateCommentDTO);
     
     void deleteComment(Long commentId);
@@ -23,5 +40,7 @@ public interface CommentService {
     
     CommentDTO convertToDTO(Comment comment);
     
+    List<CommentDTO> convertToDTOs(List<Comment> comments);
+    
     Comment convertToEntity(CommentDTO commentDTO);
 }
@@ -0,0 +1,14 @@
+package com.example.skillsharing.service;
+
+import com.example.skillsharing.event.PostCreatedEvent;
+
+public interface FeedService {
+
+    void fanOutPost(PostCreatedEvent event);
+
+    void backfillAuthor(Long followerId, Long authorId);
+
+    void pruneAuthor(Long followerId, Long authorId);
+
+    void removePost(Long postId);
+}
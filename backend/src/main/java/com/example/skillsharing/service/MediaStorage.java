@@ -0,0 +1,83 @@
+package com.example.skillsharing.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Stores uploaded media by filename within an {@link Area}. Callers only ever see
+ * the filename; how files are laid out on the backing store is up to the
+ * implementation.
+ */
+public interface MediaStorage {
+
+    enum Area {
+        POSTS("posts"),
+        PROFILE_PICTURES("profile-pictures");
+
+        private final String directory;
+
+        Area(String directory) {
+            this.directory = directory;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public static Area fromDirectory(String directory) {
+            for (Area area : values()) {
+                if (area.directory.equals(directory)) {
+                    return area;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Writes the stream under a new unique filename and returns it. Streams longer
+     * than the configured maximum file size are rejected.
+     */
+    String put(Area area, InputStream content, String extension) throws IOException;
+
+    /**
+     * Moves an already written file into the store under the given filename,
+     * replacing any file stored under that name.
+     */
+    void putFile(Area area, String filename, Path source) throws IOException;
+
+    InputStream get(Area area, String filename) throws IOException;
+
+    boolean delete(Area area, String filename) throws IOException;
+
+    /**
+     * Hex SHA-256 of the stored content, used as a strong validator when serving it.
+     * Content-addressed filenames already carry it.
+     */
+    String contentHash(Area area, String filename) throws IOException;
+
+    /**
+     * Location of the stored file, or {@code null} if it does not exist.
+     */
+    Path locate(Area area, String filename);
+
+    /**
+     * Lazily walks every file stored in the area. The stream must be closed.
+     */
+    Stream<Path> list(Area area) throws IOException;
+
+    /**
+     * Scratch directory on the same file system as the store, so that
+     * {@link #putFile} can be a rename.
+     */
+    Path stagingDirectory() throws IOException;
+
+    /**
+     * Public URL path under which the file is served.
+     */
+    default String urlOf(Area area, String filename) {
+        return "/uploads/" + area.getDirectory() + "/" + filename;
+    }
+}
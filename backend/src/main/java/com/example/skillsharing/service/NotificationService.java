@@ -1,5 +1,6 @@
 package com.example.skillsharing.service;
 
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.dto.NotificationDTO;
 import com.example.skillsharing.model.Notification;
 import org.springframework.data.domain.Page;
@@ -13,6 +14,8 @@ public interface NotificationService {
     
     Page<NotificationDTO> getUserNotifications(Long userId, Pageable pageable);
     
+    CursorPageDTO<NotificationDTO> getUserNotifications(Long userId, String cursor, int size);
+    
     void markAsRead(Long notificationId);
     
     void markAllAsRead(Long userId);
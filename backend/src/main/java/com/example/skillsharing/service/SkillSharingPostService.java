@@ -1,25 +1,34 @@
 package com.example.skillsharing.service;
 
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.dto.SkillSharingPostDTO;
 import com.example.skillsharing.model.SkillSharingPost;
+import com.example.skillsharing.util.MultipartStream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface SkillSharingPostService {
     
-    SkillSharingPostDTO createPost(SkillSharingPostDTO.CreatePostDTO createPostDTO, List<MultipartFile> mediaFiles);
+    SkillSharingPostDTO createPost(MultipartStream multipart);
     
     SkillSharingPostDTO getPostById(Long postId);
     
+    SkillSharingPost getPostReference(Long postId);
+    
     Page<SkillSharingPostDTO> getAllPosts(Pageable pageable);
     
     Page<SkillSharingPostDTO> getUserPosts(Long userId, Pageable pageable);
     
+    CursorPageDTO<SkillSharingPostDTO> getUserPosts(Long userId, String cursor, int size);
+    
     Page<SkillSharingPostDTO> getFeedPosts(Long userId, Pageable pageable);
     
+    CursorPageDTO<SkillSharingPostDTO> getFeedPosts(Long userId, String cursor, int size);
+    
     SkillSharingPostDTO updatePost(Long postId, SkillSharingPostDTO.UpdatePostDTO updatePostDTO);
     
     void deletePost(Long postId);
@@ -32,9 +41,11 @@ public interface SkillSharingPostService {
     
     boolean isPostLikedByUser(Long postId, Long userId);
     
-    void validateMediaFiles(List<MultipartFile> mediaFiles);
+    Set<Long> getLikedPostIds(Long userId, Collection<Long> postIds);
     
     SkillSharingPostDTO convertToDTO(SkillSharingPost post);
     
+    List<SkillSharingPostDTO> convertToDTOs(List<SkillSharingPost> posts);
+    
     SkillSharingPost convertToEntity(SkillSharingPostDTO postDTO);
 }
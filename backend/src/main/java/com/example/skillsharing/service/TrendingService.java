@@ -0,0 +1,14 @@
+package com.example.skillsharing.service;
+
+import com.example.skillsharing.event.PostEngagementEvent;
+
+import java.util.List;
+
+public interface TrendingService {
+
+    void recordEngagement(PostEngagementEvent event);
+
+    void recompute();
+
+    List<Long> getTrendingPostIds();
+}
@@ -0,0 +1,18 @@
+package com.example.skillsharing.service;
+
+import com.example.skillsharing.dto.UploadSessionDTO;
+
+import java.io.InputStream;
+
+public interface UploadSessionService {
+
+    UploadSessionDTO createSession(Long userId, UploadSessionDTO.CreateUploadDTO createUploadDTO);
+
+    UploadSessionDTO getSession(Long userId, String sessionId);
+
+    UploadSessionDTO appendChunk(Long userId, String sessionId, long offset, long length, InputStream content);
+
+    UploadSessionDTO completeSession(Long userId, String sessionId);
+
+    void cancelSession(Long userId, String sessionId);
+}
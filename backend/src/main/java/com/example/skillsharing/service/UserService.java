@@ -1,15 +1,21 @@
 package com.example.skillsharing.service;
 
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.dto.UserDTO;
 import com.example.skillsharing.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
 
 public interface UserService {
     UserDTO createUser(UserDTO userDTO);
     
     UserDTO updateUser(Long userId, UserDTO userDTO);
     
+    UserDTO updateProfilePicture(Long userId, MultipartFile file);
+    
     UserDTO getUserById(Long userId);
     
     UserDTO getUserByUsername(String username);
@@ -24,17 +30,27 @@ public interface UserService {
     
     Page<UserDTO> getFollowers(Long userId, Pageable pageable);
     
+    CursorPageDTO<UserDTO> getFollowers(Long userId, String cursor, int size);
+    
     Page<UserDTO> getFollowing(Long userId, Pageable pageable);
     
+    CursorPageDTO<UserDTO> getFollowing(Long userId, String cursor, int size);
+    
     boolean isFollowing(Long userId, Long targetUserId);
     
     User getCurrentUser();
     
+    Long getCurrentUserId();
+    
     UserDTO getCurrentUserDTO();
     
     User getUserEntityById(Long userId);
     
+    User getUserReference(Long userId);
+    
     UserDTO convertToDTO(User user);
     
+    List<UserDTO> convertToDTOs(List<User> users);
+    
     User convertToEntity(UserDTO userDTO);
 }
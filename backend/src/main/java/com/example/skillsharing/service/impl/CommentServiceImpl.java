@@ -1,42 +1,73 @@
 package com.example.skillsharing.service.impl;
 
 import com.example.skillsharing.dto.CommentDTO;
+import com.example.skillsharing.dto.CursorPageDTO;
+import com.example.skillsharing.dto.UserDTO;
+import com.example.skillsharing.event.PostEngagementEvent;
 import com.example.skillsharing.exception.BadRequestException;
 import com.example.skillsharing.exception.ResourceNotFoundException;
 import com.example.skillsharing.model.Comment;
 import com.example.skillsharing.model.SkillSharingPost;
 import com.example.skillsharing.model.User;
 import com.example.skillsharing.repository.CommentRepository;
+import com.example.skillsharing.repository.SkillSharingPostRepository;
+import com.example.skillsharing.security.CurrentUserContext;
 import com.example.skillsharing.service.CommentService;
 import com.example.skillsharing.service.SkillSharingPostService;
 import com.example.skillsharing.service.UserService;
+import com.example.skillsharing.util.CommentPath;
+import com.example.skillsharing.util.Cursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
+    private final SkillSharingPostRepository postRepository;
     private final UserService userService;
+    private final CurrentUserContext currentUserContext;
     private final SkillSharingPostService postService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Keeps paths within their column: 11 segments of 14 characters
+    private static final int MAX_REPLY_DEPTH = 10;
+    private static final int MAX_PREVIEW_REPLIES = 10;
+    private static final int MAX_COMMENT_PREVIEW = 5;
 
     @Override
     public CommentDTO createComment(Long postId, CommentDTO.CreateCommentDTO createCommentDTO) {
-        User currentUser = userService.getCurrentUser();
-        SkillSharingPost post = postService.convertToEntity(postService.getPostById(postId));
-
-        Comment comment = new Comment();
-        comment.setContent(createCommentDTO.getContent());
-        comment.setUser(currentUser);
-        comment.setPost(post);
+        // Both are only needed as foreign keys; nothing is loaded until the DTO is built
+        User currentUser = userService.getUserReference(userService.getCurrentUserId());
+        SkillSharingPost post = postService.getPostReference(postId);
+        return saveComment(post, currentUser, null, createCommentDTO.getContent());
+    }
 
-        Comment savedComment = commentRepository.save(comment);
-        return convertToDTO(savedComment);
+    @Override
+    public CommentDTO createReply(Long commentId, CommentDTO.CreateCommentDTO createCommentDTO) {
+        Comment parent = withPath(getCommentEntityById(commentId));
+        if (parent.getDepth() >= MAX_REPLY_DEPTH) {
+            throw new BadRequestException("Replies cannot be nested more than " + MAX_REPLY_DEPTH + " levels deep");
+        }
+        User currentUser = userService.getUserReference(userService.getCurrentUserId());
+        return saveComment(parent.getPost(), currentUser, parent, createCommentDTO.getContent());
     }
 
     @Override
@@ -49,19 +80,105 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional(readOnly = true)
     public Page<CommentDTO> getPostComments(Long postId, Pageable pageable) {
-        SkillSharingPost post = postService.convertToEntity(postService.getPostById(postId));
-        return commentRepository.findByPostOrderByCreatedAtDesc(post, pageable)
-                .map(this::convertToDTO);
+        SkillSharingPost post = postService.getPostReference(postId);
+        return toDTOPage(commentRepository.findByPostOrderByCreatedAtDesc(post, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CommentDTO> getPostComments(Long postId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Slice<Comment> comments = after == null
+                ? commentRepository.findSliceByPostIdOrderByCreatedAtDescIdDesc(postId, Cursor.limit(size))
+                : commentRepository.findSliceByPostIdBefore(postId, after.createdAt(), after.id(), Cursor.limit(size));
+        return CursorPageDTO.of(comments, convertToDTOs(comments.getContent()), this::cursorOf);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CommentDTO> getPostThreads(Long postId, String cursor, int size, int replies) {
+        postService.getPostReference(postId);
+        Cursor after = Cursor.decode(cursor);
+        Slice<Comment> threads = after == null
+                ? commentRepository.findSliceByPostIdAndDepthOrderByCreatedAtDescIdDesc(postId, 0, Cursor.limit(size))
+                : commentRepository.findThreadSliceBefore(postId, after.createdAt(), after.id(), Cursor.limit(size));
+        int shown = Math.max(0, Math.min(replies, MAX_PREVIEW_REPLIES));
+        if (shown == 0 || !threads.hasContent()) {
+            return CursorPageDTO.of(threads, convertToDTOs(threads.getContent()), this::cursorOf);
+        }
+
+        List<Long> rootIds = threads.getContent().stream().map(Comment::getId).toList();
+        Map<Long, List<Comment>> repliesByRoot = new HashMap<>();
+        for (Comment reply : commentRepository.findFirstReplies(rootIds, shown + 1)) {
+            repliesByRoot.computeIfAbsent(reply.getRootId(), rootId -> new ArrayList<>()).add(reply);
+        }
+
+        // Threads and visible replies are converted together so authors are resolved once
+        List<Comment> visible = new ArrayList<>(threads.getContent());
+        repliesByRoot.values().forEach(thread -> visible.addAll(thread.subList(0, Math.min(shown, thread.size()))));
+        Map<Long, CommentDTO> dtos = convertToDTOs(visible).stream()
+                .collect(Collectors.toMap(CommentDTO::getId, Function.identity()));
+
+        List<CommentDTO> content = threads.getContent().stream()
+                .map(thread -> {
+                    List<Comment> threadReplies = repliesByRoot.getOrDefault(thread.getId(), List.of());
+                    CommentDTO dto = dtos.get(thread.getId());
+                    dto.setReplies(threadReplies.stream().limit(shown).map(reply -> dtos.get(reply.getId())).toList());
+                    dto.setHasMoreReplies(threadReplies.size() > shown);
+                    return dto;
+                })
+                .toList();
+        return CursorPageDTO.of(threads, content, this::cursorOf);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CommentDTO> getReplies(Long commentId, String cursor, int size) {
+        Comment comment = withPath(getCommentEntityById(commentId));
+        String after = CommentPath.decode(cursor);
+        if (after != null && !after.startsWith(comment.getPath())) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        Slice<Comment> replies = commentRepository.findSubtreeSliceAfter(
+                comment.getPath(), after == null ? comment.getPath() : after, Cursor.limit(size));
+        return CursorPageDTO.ofTokens(replies, convertToDTOs(replies.getContent()),
+                reply -> CommentPath.encode(reply.getPath()));
+    }
+
+    /**
+     * The latest top-level comments of each post, newest first, keyed by post id.
+     * Posts without comments are left out.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<CommentDTO>> getCommentPreviews(Collection<Long> postIds, int size) {
+        int shown = Math.min(size, MAX_COMMENT_PREVIEW);
+        if (shown <= 0 || postIds.isEmpty()) {
+            return Map.of();
+        }
+
+        // Ranked and ordered by post in the query; grouping keeps that order
+        return convertToDTOs(commentRepository.findLatestByPostIds(postIds, shown)).stream()
+                .collect(Collectors.groupingBy(CommentDTO::getPostId, LinkedHashMap::new, Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<CommentDTO> getUserComments(Long userId, Pageable pageable) {
-        User user = userService.getUserEntityById(userId);
-        return commentRepository.findByUserOrderByCreatedAtDesc(user)
-                .stream()
-                .map(this::convertToDTO)
-                .reduce(Page::empty, (a, b) -> a); // Convert List to Page
+        // Unknown users are a 404 rather than an empty page
+        userService.getUserReference(userId);
+        return toDTOPage(commentRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<CommentDTO> getUserComments(Long userId, String cursor, int size) {
+        userService.getUserReference(userId);
+        Cursor after = Cursor.decode(cursor);
+        Slice<Comment> comments = after == null
+                ? commentRepository.findSliceByUserIdOrderByCreatedAtDescIdDesc(userId, Cursor.limit(size))
+                : commentRepository.findSliceByUserIdBefore(userId, after.createdAt(), after.id(), Cursor.limit(size));
+        return CursorPageDTO.of(comments, convertToDTOs(comments.getContent()), this::cursorOf);
     }
 
     @Override
@@ -87,41 +204,62 @@ public class CommentServiceImpl implements CommentService {
             throw new BadRequestException("You don't have permission to delete this comment");
         }
 
-        commentRepository.delete(comment);
+        // Replies go together with the comment they answer
+        Long postId = comment.getPost().getId();
+        int deleted = commentRepository.deleteSubtree(withPath(comment).getPath());
+        postRepository.adjustCommentCount(postId, -deleted);
+        eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Type.COMMENT, -deleted));
     }
 
     @Override
     public boolean canModifyComment(Comment comment) {
-        User currentUser = userService.getCurrentUser();
-        return comment.getUser().getId().equals(currentUser.getId()) || 
-               comment.getPost().getUser().getId().equals(currentUser.getId());
+        Long currentUserId = currentUserContext.getUserId();
+        return comment.getUser().getId().equals(currentUserId) || 
+               comment.getPost().getUser().getId().equals(currentUserId);
     }
 
     @Override
     public CommentDTO convertToDTO(Comment comment) {
-        CommentDTO dto = new CommentDTO();
-        dto.setId(comment.getId());
-        dto.setContent(comment.getContent());
-        dto.setUser(userService.convertToDTO(comment.getUser()));
-        dto.setPostId(comment.getPost().getId());
-        dto.setCreatedAt(comment.getCreatedAt());
-        dto.setUpdatedAt(comment.getUpdatedAt());
-        dto.setEdited(comment.isEdited());
-
-        // Set permissions
-        try {
-            User currentUser = userService.getCurrentUser();
-            boolean isCommentOwner = comment.getUser().getId().equals(currentUser.getId());
-            boolean isPostOwner = comment.getPost().getUser().getId().equals(currentUser.getId());
-            
-            dto.setCanEdit(isCommentOwner);
-            dto.setCanDelete(isCommentOwner || isPostOwner);
-        } catch (Exception e) {
-            dto.setCanEdit(false);
-            dto.setCanDelete(false);
+        return convertToDTOs(List.of(comment)).get(0);
+    }
+
+    @Override
+    public List<CommentDTO> convertToDTOs(List<Comment> comments) {
+        if (comments.isEmpty()) {
+            return List.of();
         }
 
-        return dto;
+        // Each author is converted once and the viewer is resolved once for the
+        // whole list; posts and authors behind the lazy references load in batches
+        Map<Long, User> users = new LinkedHashMap<>();
+        comments.forEach(comment -> users.putIfAbsent(comment.getUser().getId(), comment.getUser()));
+        Map<Long, UserDTO> authors = userService.convertToDTOs(List.copyOf(users.values())).stream()
+                .collect(Collectors.toMap(UserDTO::getId, Function.identity()));
+
+        Long currentUserId = currentUserContext.getUserId();
+
+        return comments.stream()
+                .map(comment -> {
+                    CommentDTO dto = new CommentDTO();
+                    dto.setId(comment.getId());
+                    dto.setContent(comment.getContent());
+                    dto.setUser(authors.get(comment.getUser().getId()));
+                    dto.setPostId(comment.getPost().getId());
+                    dto.setParentId(comment.getParentId());
+                    dto.setDepth(comment.getDepth());
+                    dto.setCreatedAt(comment.getCreatedAt());
+                    dto.setUpdatedAt(comment.getUpdatedAt());
+                    dto.setEdited(comment.isEdited());
+
+                    // Anonymous viewers can neither edit nor delete
+                    boolean isCommentOwner = comment.getUser().getId().equals(currentUserId);
+                    boolean isPostOwner = currentUserId != null
+                            && comment.getPost().getUser().getId().equals(currentUserId);
+                    dto.setCanEdit(isCommentOwner);
+                    dto.setCanDelete(isCommentOwner || isPostOwner);
+                    return dto;
+                })
+                .toList();
     }
 
     @Override
@@ -131,6 +269,47 @@ public class CommentServiceImpl implements CommentService {
         return comment;
     }
 
+    private CommentDTO saveComment(SkillSharingPost post, User user, Comment parent, String content) {
+        Comment comment = new Comment();
+        comment.setContent(content);
+        comment.setUser(user);
+        comment.setPost(post);
+        if (parent != null) {
+            comment.setParentId(parent.getId());
+            comment.setDepth(parent.getDepth() + 1);
+        }
+
+        Comment savedComment = commentRepository.save(comment);
+        // The path ends in the comment's own id, so it is filled in once the id exists
+        savedComment.setRootId(parent == null ? savedComment.getId() : parent.getRootId());
+        savedComment.setPath(CommentPath.childOf(parent == null ? null : parent.getPath(), savedComment.getId()));
+        CommentDTO dto = convertToDTO(savedComment);
+
+        // The counter update flushes and clears the persistence context, so convert first
+        Long postId = post.getId();
+        postRepository.adjustCommentCount(postId, 1);
+        eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Type.COMMENT, 1));
+        return dto;
+    }
+
+    // Comments stored before threading have no path; they are top-level, so it is
+    // derived from the id and saved by whichever write transaction loaded it
+    private Comment withPath(Comment comment) {
+        if (comment.getPath() == null) {
+            comment.setRootId(comment.getId());
+            comment.setPath(CommentPath.childOf(null, comment.getId()));
+        }
+        return comment;
+    }
+
+    private Page<CommentDTO> toDTOPage(Page<Comment> comments) {
+        return new PageImpl<>(convertToDTOs(comments.getContent()), comments.getPageable(), comments.getTotalElements());
+    }
+
+    private Cursor cursorOf(Comment comment) {
+        return new Cursor(comment.getCreatedAt(), comment.getId());
+    }
+
     private Comment getCommentEntityById(Long commentId) {
         return commentRepository.findById(commentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Comment", "id", commentId));
@@ -0,0 +1,86 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.repository.FeedEntryRepository;
+import com.example.skillsharing.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Brings feed_entries back in line with user_followers × skill_sharing_posts.
+ * Fan-out on write can miss an entry (a follow and a post committing at the
+ * same moment, or a fan-out that gave up) or leave one behind (a fan-out
+ * racing an unfollow); this job adds the missing rows and drops the stale
+ * ones. Recipients are walked in id order, one short transaction per batch.
+ *
+ * <p>Run with {@code app.feed.backfillOnStartup=true} once after the table is
+ * created to seed it from the existing follows and posts.
+ */
+@Slf4j
+@Component
+public class FeedReconciler {
+
+    private final FeedEntryRepository feedEntryRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AppConfig appConfig;
+
+    public FeedReconciler(FeedEntryRepository feedEntryRepository,
+                          UserRepository userRepository,
+                          PlatformTransactionManager transactionManager,
+                          AppConfig appConfig) {
+        this.feedEntryRepository = feedEntryRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.appConfig = appConfig;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (appConfig.getFeed().isBackfillOnStartup()) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${app.feed.reconcileCron:0 0 4 * * *}")
+    public void reconcile() {
+        int batchSize = appConfig.getFeed().getReconcileBatchSize();
+        long afterId = 0;
+        int added = 0;
+        int removed = 0;
+
+        List<Long> ids;
+        while (!(ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            Long fromId = ids.get(0);
+            Long toId = ids.get(ids.size() - 1);
+            added += backfillRange(fromId, toId);
+            removed += transactionTemplate.execute(status -> feedEntryRepository.pruneRecipients(fromId, toId));
+            afterId = toId;
+        }
+
+        log.info("Feed reconciliation added {} and removed {} timeline entries", added, removed);
+    }
+
+    // A fan-out inserting into the same timelines can win the unique key; the range is retried once it commits
+    private int backfillRange(Long fromId, Long toId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> feedEntryRepository.backfillRecipients(fromId, toId));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == FeedServiceImpl.MAX_FAN_OUT_ATTEMPTS) {
+                    log.warn("Skipping feed backfill for recipients {}-{} until the next run", fromId, toId, e);
+                    return 0;
+                }
+            }
+        }
+    }
+}
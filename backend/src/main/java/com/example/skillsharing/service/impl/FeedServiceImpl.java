@@ -0,0 +1,86 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.event.PostCreatedEvent;
+import com.example.skillsharing.repository.FeedEntryRepository;
+import com.example.skillsharing.service.FeedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+@Transactional
+public class FeedServiceImpl implements FeedService {
+
+    // A fan-out that keeps colliding after this many tries is left to FeedReconciler
+    static final int MAX_FAN_OUT_ATTEMPTS = 3;
+
+    private final FeedEntryRepository feedEntryRepository;
+    private final TransactionTemplate fanOutTransaction;
+
+    public FeedServiceImpl(FeedEntryRepository feedEntryRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.feedEntryRepository = feedEntryRepository;
+        this.fanOutTransaction = new TransactionTemplate(transactionManager);
+        this.fanOutTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * The NOT EXISTS guard cannot see rows another transaction has inserted but
+     * not yet committed, so a concurrent writer for the same recipient and post
+     * makes the insert fail on the unique key. That aborts the whole statement;
+     * it is retried in a fresh transaction, which sees the committed row and
+     * skips it.
+     */
+    @Override
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void fanOutPost(PostCreatedEvent event) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Integer delivered = fanOutTransaction.execute(status ->
+                        feedEntryRepository.fanOutPost(event.postId(), event.authorId(), event.createdAt()));
+                log.debug("Fanned out post {} to {} timelines", event.postId(), delivered);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_FAN_OUT_ATTEMPTS) {
+                    log.warn("Gave up fanning out post {} after {} attempts; the feed reconciler will fill it in",
+                            event.postId(), attempt, e);
+                    return;
+                }
+                log.debug("Fan-out of post {} collided with a concurrent insert, retrying", event.postId());
+            }
+        }
+    }
+
+    /**
+     * Runs inside the follow transaction, after the user_followers row has been
+     * written. A concurrent fan-out cannot see that uncommitted edge and so never
+     * writes into this timeline, and a duplicate follow blocks on the join
+     * table's primary key before it gets here, so this insert has no writer to
+     * collide with.
+     */
+    @Override
+    public void backfillAuthor(Long followerId, Long authorId) {
+        feedEntryRepository.backfillAuthor(followerId, authorId);
+    }
+
+    @Override
+    public void pruneAuthor(Long followerId, Long authorId) {
+        feedEntryRepository.deleteByRecipientIdAndAuthorId(followerId, authorId);
+    }
+
+    @Override
+    public void removePost(Long postId) {
+        feedEntryRepository.deleteByPostId(postId);
+    }
+}
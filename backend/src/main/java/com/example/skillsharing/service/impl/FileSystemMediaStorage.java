@@ -0,0 +1,203 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.exception.BadRequestException;
+import com.example.skillsharing.service.MediaStorage;
+import org.springframework.stereotype.Service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores media under {@code app.fileStorage.uploadDir}, spreading each area over
+ * two levels of 256 directories chosen from a hash of the filename, e.g.
+ * {@code uploads/posts/3f/a2/<uuid>.png}. Files written before sharding was
+ * introduced sit directly in the area directory and are still found there.
+ */
+@Service
+public class FileSystemMediaStorage implements MediaStorage {
+
+    private static final Pattern VALID_FILENAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*");
+    private static final String STAGING_DIR = "staging";
+    private static final int HASH_CACHE_SIZE = 10_000;
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64})(\\..*)?");
+
+    private final Path root;
+    private final long maxFileSize;
+
+    // Stored files are never rewritten in place, but size and mtime are still checked
+    // so a replaced file is never served with a stale validator
+    private final Map<Path, CachedHash> hashCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Path, CachedHash> eldest) {
+                    return size() > HASH_CACHE_SIZE;
+                }
+            });
+
+    public FileSystemMediaStorage(AppConfig appConfig) {
+        this.root = Paths.get(appConfig.getFileStorage().getUploadDir()).toAbsolutePath().normalize();
+        this.maxFileSize = appConfig.getFileStorage().getMaxFileSize();
+    }
+
+    @Override
+    public String put(Area area, InputStream content, String extension) throws IOException {
+        String filename = UUID.randomUUID() + (extension == null ? "" : extension);
+        requireValidFilename(filename);
+        Path target = shardedPath(area, filename);
+        Files.createDirectories(target.getParent());
+
+        Path temp = Files.createTempFile(stagingDirectory(), "put-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                copyWithLimit(content, out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return filename;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void putFile(Area area, String filename, Path source) throws IOException {
+        requireValidFilename(filename);
+        Path target = shardedPath(area, filename);
+        Files.createDirectories(target.getParent());
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public InputStream get(Area area, String filename) throws IOException {
+        Path path = locate(area, filename);
+        if (path == null) {
+            throw new FileNotFoundException(filename);
+        }
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public boolean delete(Area area, String filename) throws IOException {
+        Path path = locate(area, filename);
+        return path != null && Files.deleteIfExists(path);
+    }
+
+    @Override
+    public String contentHash(Area area, String filename) throws IOException {
+        Path path = locate(area, filename);
+        if (path == null) {
+            throw new FileNotFoundException(filename);
+        }
+
+        Matcher contentAddressed = CONTENT_ADDRESSED.matcher(filename);
+        if (contentAddressed.matches()) {
+            return contentAddressed.group(1);
+        }
+
+        long size = Files.size(path);
+        FileTime modified = Files.getLastModifiedTime(path);
+        CachedHash cached = hashCache.get(path);
+        if (cached != null && cached.size() == size && cached.modified().equals(modified)) {
+            return cached.hash();
+        }
+
+        MessageDigest digest = sha256Digest();
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] buffer = new byte[65536];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        hashCache.put(path, new CachedHash(size, modified, hash));
+        return hash;
+    }
+
+    @Override
+    public Path locate(Area area, String filename) {
+        if (filename == null || !VALID_FILENAME.matcher(filename).matches()) {
+            return null;
+        }
+        Path sharded = shardedPath(area, filename);
+        if (Files.isRegularFile(sharded)) {
+            return sharded;
+        }
+        Path legacy = root.resolve(area.getDirectory()).resolve(filename);
+        return Files.isRegularFile(legacy) ? legacy : null;
+    }
+
+    @Override
+    public Stream<Path> list(Area area) throws IOException {
+        Path directory = root.resolve(area.getDirectory());
+        if (!Files.isDirectory(directory)) {
+            return Stream.empty();
+        }
+        return Files.walk(directory).filter(Files::isRegularFile);
+    }
+
+    @Override
+    public Path stagingDirectory() throws IOException {
+        return Files.createDirectories(root.resolve(STAGING_DIR));
+    }
+
+    private Path shardedPath(Area area, String filename) {
+        String hash = HexFormat.of().formatHex(sha256(filename), 0, 2);
+        return root.resolve(area.getDirectory())
+                .resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(filename);
+    }
+
+    private void copyWithLimit(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (maxFileSize > 0 && total > maxFileSize) {
+                throw new BadRequestException("File size exceeds maximum limit of " + maxFileSize + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+    }
+
+    private static void requireValidFilename(String filename) {
+        if (!VALID_FILENAME.matcher(filename).matches()) {
+            throw new BadRequestException("Invalid media filename");
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        return sha256Digest().digest(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedHash(long size, FileTime modified, String hash) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.service.MediaStorage;
+import com.example.skillsharing.util.ExifOrientation;
+import com.example.skillsharing.util.MediaVariant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Writes thumbnail and medium renditions of photo uploads with plain ImageIO.
+ * Large sources are subsampled while decoding so memory stays proportional to
+ * the biggest rendition rather than to the original. JPEGs are turned upright
+ * according to their EXIF orientation, since the renditions carry no EXIF.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ImageDerivativeGenerator {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final MediaStorage mediaStorage;
+    private final AppConfig appConfig;
+
+    public void generate(String filename) {
+        if (!MediaVariant.supports(filename) || MediaVariant.originalOf(filename) != null) {
+            return;
+        }
+        // Re-uploads of already processed content have nothing left to do
+        boolean complete = true;
+        for (MediaVariant variant : MediaVariant.values()) {
+            complete &= mediaStorage.locate(MediaStorage.Area.POSTS, variant.nameFor(filename)) != null;
+        }
+        Path original = mediaStorage.locate(MediaStorage.Area.POSTS, filename);
+        if (complete || original == null) {
+            return;
+        }
+
+        try {
+            BufferedImage source = read(original, appConfig.getFileStorage().getMediumSize());
+            if (source == null) {
+                log.warn("Unreadable image {}, no variants generated", filename);
+                return;
+            }
+            boolean jpeg = !filename.toLowerCase().endsWith(".png");
+            if (jpeg) {
+                source = orient(source, ExifOrientation.read(original));
+            }
+            for (MediaVariant variant : MediaVariant.values()) {
+                BufferedImage scaled = scaleToFit(source, maxDimension(variant), jpeg);
+                write(scaled, variant.nameFor(filename), jpeg);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate variants for {}", filename, e);
+        }
+    }
+
+    public void delete(String filename) {
+        if (!MediaVariant.supports(filename)) {
+            return;
+        }
+        for (MediaVariant variant : MediaVariant.values()) {
+            try {
+                mediaStorage.delete(MediaStorage.Area.POSTS, variant.nameFor(filename));
+            } catch (IOException e) {
+                log.warn("Failed to delete {} variant of {}", variant, filename, e);
+            }
+        }
+    }
+
+    private int maxDimension(MediaVariant variant) {
+        return variant == MediaVariant.THUMBNAIL
+                ? appConfig.getFileStorage().getThumbnailSize()
+                : appConfig.getFileStorage().getMediumSize();
+    }
+
+    private BufferedImage read(Path path, int largestTarget) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // Keep at least twice the largest target so the final downscale stays smooth
+                int subsampling = Math.max(1, longestSide / (largestTarget * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Applied to the subsampled source, so the cost is bounded by the largest rendition
+    private static BufferedImage orient(BufferedImage source, int orientation) {
+        if (orientation == ExifOrientation.NORMAL) {
+            return source;
+        }
+        int width = source.getWidth();
+        int height = source.getHeight();
+        // Maps stored pixels to upright ones: x' = m00 x + m01 y + m02, y' = m10 x + m11 y + m12
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            default -> new AffineTransform(0, -1, 1, 0, 0, width);
+        };
+        boolean swapsSides = orientation >= 5;
+        BufferedImage target = new BufferedImage(swapsSides ? height : width, swapsSides ? width : height,
+                source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.drawImage(source, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage source, int maxDimension, boolean opaque) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage target = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (opaque) {
+                // JPEG has no alpha channel; flatten transparency onto white
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, String filename, boolean jpeg) throws IOException {
+        Path temp = Files.createTempFile(mediaStorage.stagingDirectory(), "variant-", ".tmp");
+        try {
+            if (jpeg) {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                    ImageWriteParam param = writer.getDefaultWriteParam();
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                    writer.setOutput(out);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            } else {
+                ImageIO.write(image, "png", temp.toFile());
+            }
+            mediaStorage.putFile(MediaStorage.Area.POSTS, filename, temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
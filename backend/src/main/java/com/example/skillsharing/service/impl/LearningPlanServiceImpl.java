@@ -144,10 +144,9 @@ public class LearningPlanServiceImpl implements LearningPlanService {
 
     @Override
     public void validatePlanOwnership(Long planId) {
-        User currentUser = userService.getCurrentUser();
         LearningPlan plan = getPlanEntityById(planId);
         
-        if (!plan.getUser().getId().equals(currentUser.getId())) {
+        if (!plan.getUser().getId().equals(userService.getCurrentUserId())) {
             throw new BadRequestException("You don't have permission to modify this learning plan");
         }
     }
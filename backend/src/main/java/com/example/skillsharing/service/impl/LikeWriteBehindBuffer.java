@@ -0,0 +1,266 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.event.PostEngagementEvent;
+import com.example.skillsharing.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for like/unlike intents. Intents are acknowledged as soon
+ * as they are buffered, coalesced per (post, user) so only the latest one is
+ * written, and flushed to post_likes in JDBC batches on a short interval. When
+ * the buffer is full the submitting thread writes one batch itself, which
+ * throttles producers to the speed of the database. A batch that fails is
+ * retried one intent at a time, and an intent that keeps failing while the
+ * database is reachable is dropped after {@code maxFlushAttempts}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeWriteBehindBuffer {
+
+    private static final String INSERT_LIKE =
+        "INSERT INTO post_likes (post_id, user_id) " +
+        "SELECT p.id, ? FROM skill_sharing_posts p WHERE p.id = ? AND NOT EXISTS " +
+        "(SELECT 1 FROM post_likes l WHERE l.post_id = p.id AND l.user_id = ?)";
+    private static final String DELETE_LIKE =
+        "DELETE FROM post_likes WHERE post_id = ? AND user_id = ?";
+    private static final String ADJUST_LIKE_COUNT =
+        "UPDATE skill_sharing_posts SET like_count = like_count + ? WHERE id = ? AND like_count + ? >= 0";
+    private static final String LOCK_LIKE_COUNT =
+        "SELECT like_count FROM skill_sharing_posts WHERE id = ? FOR UPDATE";
+    private static final String COUNT_LIKES =
+        "SELECT COUNT(*) FROM post_likes WHERE post_id = ?";
+    private static final String SET_LIKE_COUNT =
+        "UPDATE skill_sharing_posts SET like_count = ? WHERE id = ?";
+    private static final String PING = "SELECT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AppConfig appConfig;
+
+    private final ConcurrentMap<LikeKey, Boolean> pending = new ConcurrentHashMap<>();
+    // Only touched under flushLock
+    private final Map<LikeKey, Integer> failedAttempts = new HashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public boolean isEnabled() {
+        return appConfig.getLikes().isWriteBehindEnabled();
+    }
+
+    public void submit(Long postId, Long userId, boolean liked) {
+        LikeKey key = new LikeKey(postId, userId);
+        if (pending.size() >= appConfig.getLikes().getMaxPending() && !pending.containsKey(key)) {
+            // One batch frees enough room without holding the request for a full drain
+            flushLock.lock();
+            try {
+                flushBatch();
+            } catch (RuntimeException e) {
+                throw new ServiceUnavailableException("Could not store likes right now, please retry shortly", e);
+            } finally {
+                flushLock.unlock();
+            }
+            if (pending.size() >= appConfig.getLikes().getMaxPending()) {
+                throw new ServiceUnavailableException("Too many pending likes, please retry shortly");
+            }
+        }
+        pending.put(key, liked);
+    }
+
+    /**
+     * Buffered intent for this pair, or {@code null} if nothing is waiting to be
+     * written. Lets readers see their own likes before the next flush.
+     */
+    public Boolean pendingIntent(Long postId, Long userId) {
+        return pending.get(new LikeKey(postId, userId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.likes.flushIntervalMs:200}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            while (!pending.isEmpty()) {
+                flushBatch();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing {} buffered like intents before shutdown", pending.size());
+        flush();
+    }
+
+    private void flushBatch() {
+        int batchSize = appConfig.getLikes().getBatchSize();
+        Map<LikeKey, Boolean> batch = new HashMap<>();
+        for (LikeKey key : pending.keySet()) {
+            if (batch.size() == batchSize) {
+                break;
+            }
+            Boolean liked = pending.remove(key);
+            if (liked != null) {
+                batch.put(key, liked);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush {} like intents, retrying them one at a time", batch.size(), e);
+            retryIndividually(batch, e);
+            return;
+        }
+        failedAttempts.keySet().removeAll(batch.keySet());
+    }
+
+    /**
+     * One bad intent fails the whole batch, so the intents are written alone to
+     * let the rest through. When none of them can be written and the database
+     * does not answer either, everything is re-queued untouched and the failure
+     * propagates; otherwise each failing intent uses up one attempt.
+     */
+    private void retryIndividually(Map<LikeKey, Boolean> batch, RuntimeException batchFailure) {
+        Map<LikeKey, Boolean> failed = new HashMap<>();
+        RuntimeException lastFailure = batchFailure;
+        if (batch.size() == 1) {
+            failed.putAll(batch);
+        } else {
+            for (Map.Entry<LikeKey, Boolean> intent : batch.entrySet()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(Map.of(intent.getKey(), intent.getValue())));
+                    failedAttempts.remove(intent.getKey());
+                } catch (RuntimeException e) {
+                    failed.put(intent.getKey(), intent.getValue());
+                    lastFailure = e;
+                }
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+
+        if (failed.size() == batch.size() && !isDatabaseReachable()) {
+            // Re-queue intents that have not been superseded meanwhile; the next run retries
+            failed.forEach(pending::putIfAbsent);
+            log.error("Failed to flush {} like intents", failed.size(), lastFailure);
+            throw lastFailure;
+        }
+
+        int maxAttempts = appConfig.getLikes().getMaxFlushAttempts();
+        failed.forEach((key, liked) -> {
+            int attempts = failedAttempts.merge(key, 1, Integer::sum);
+            if (attempts < maxAttempts) {
+                pending.putIfAbsent(key, liked);
+                return;
+            }
+            failedAttempts.remove(key);
+            log.error("Dropping {} of post {} by user {} after {} failed flushes",
+                    liked ? "like" : "unlike", key.postId(), key.userId(), attempts);
+        });
+    }
+
+    private boolean isDatabaseReachable() {
+        try {
+            jdbcTemplate.queryForObject(PING, Integer.class);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void write(Map<LikeKey, Boolean> batch) {
+        List<Object[]> likes = new ArrayList<>();
+        List<Object[]> unlikes = new ArrayList<>();
+        List<Long> likedPosts = new ArrayList<>();
+        List<Long> unlikedPosts = new ArrayList<>();
+        batch.forEach((key, liked) -> {
+            if (liked) {
+                likes.add(new Object[]{key.userId(), key.postId(), key.userId()});
+                likedPosts.add(key.postId());
+            } else {
+                unlikes.add(new Object[]{key.postId(), key.userId()});
+                unlikedPosts.add(key.postId());
+            }
+        });
+
+        // Only rows that actually changed state move the counters
+        Map<Long, Integer> deltas = new HashMap<>();
+        Set<Long> recount = new HashSet<>();
+        collectDeltas(jdbcTemplate.batchUpdate(INSERT_LIKE, likes), likedPosts, 1, deltas, recount);
+        collectDeltas(jdbcTemplate.batchUpdate(DELETE_LIKE, unlikes), unlikedPosts, -1, deltas, recount);
+        Map<Long, Integer> recounted = new HashMap<>();
+        for (Long postId : recount) {
+            deltas.remove(postId);
+            recounted.put(postId, recountLikes(postId));
+        }
+
+        List<Object[]> adjustments = new ArrayList<>();
+        deltas.forEach((postId, delta) -> {
+            if (delta != 0) {
+                adjustments.add(new Object[]{delta, postId, delta});
+            }
+        });
+        jdbcTemplate.batchUpdate(ADJUST_LIKE_COUNT, adjustments);
+
+        deltas.putAll(recounted);
+        deltas.forEach((postId, delta) -> {
+            if (delta != 0) {
+                eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Type.LIKE, delta));
+            }
+        });
+    }
+
+    /**
+     * Drivers may answer a batch with {@link Statement#SUCCESS_NO_INFO} instead
+     * of row counts; posts with such a statement go to {@code recount}.
+     */
+    private void collectDeltas(int[] updateCounts, List<Long> postIds, int sign,
+                               Map<Long, Integer> deltas, Set<Long> recount) {
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                recount.add(postIds.get(i));
+            } else if (updateCounts[i] > 0) {
+                deltas.merge(postIds.get(i), sign, Integer::sum);
+            }
+        }
+    }
+
+    // Sets the counter from post_likes itself and returns how far it moved; the write is already applied
+    private int recountLikes(Long postId) {
+        List<Long> stored = jdbcTemplate.queryForList(LOCK_LIKE_COUNT, Long.class, postId);
+        if (stored.isEmpty()) {
+            return 0;
+        }
+        long actual = jdbcTemplate.queryForObject(COUNT_LIKES, Long.class, postId);
+        jdbcTemplate.update(SET_LIKE_COUNT, actual, postId);
+        return (int) (actual - stored.get(0));
+    }
+
+    private record LikeKey(Long postId, Long userId) {
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.model.MediaDeletion;
+import com.example.skillsharing.repository.MediaDeletionRepository;
+import com.example.skillsharing.repository.MediaObjectRepository;
+import com.example.skillsharing.service.MediaStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Durable queue of post media deletions. Releasing a file only inserts a row
+ * in the caller's transaction; the file is removed by a background drain that
+ * is nudged once that transaction commits and also runs on
+ * {@code app.fileStorage.deletionPollMs} to pick up retries and entries left
+ * over by a restart. A failed deletion is retried with exponential backoff
+ * until {@code deletionMaxAttempts} is reached.
+ */
+@Slf4j
+@Component
+public class MediaDeletionQueue {
+
+    private final MediaDeletionRepository deletionRepository;
+    private final MediaObjectRepository mediaObjectRepository;
+    private final MediaStorage mediaStorage;
+    private final ImageDerivativeGenerator derivativeGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AppConfig appConfig;
+    private final ThreadPoolTaskExecutor drainer = new ThreadPoolTaskExecutor();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicLong pending = new AtomicLong();
+
+    public MediaDeletionQueue(MediaDeletionRepository deletionRepository,
+                              MediaObjectRepository mediaObjectRepository,
+                              MediaStorage mediaStorage,
+                              ImageDerivativeGenerator derivativeGenerator,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              AppConfig appConfig) {
+        this.deletionRepository = deletionRepository;
+        this.mediaObjectRepository = mediaObjectRepository;
+        this.mediaStorage = mediaStorage;
+        this.derivativeGenerator = derivativeGenerator;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.appConfig = appConfig;
+        meterRegistry.gauge("media.deletion.pending", pending);
+        // One drain at a time with at most one more waiting; that one sees every
+        // entry committed before it starts, so further nudges can be dropped
+        drainer.setCorePoolSize(1);
+        drainer.setMaxPoolSize(1);
+        drainer.setQueueCapacity(1);
+        drainer.setThreadNamePrefix("media-deletion-");
+        drainer.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        drainer.initialize();
+    }
+
+    /**
+     * Queues the files for deletion in the current transaction. They are deleted
+     * after it commits, unless a post references them again by then.
+     */
+    public void enqueue(List<String> filenames) {
+        if (filenames.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (String filename : filenames) {
+            MediaDeletion deletion = new MediaDeletion();
+            deletion.setFilename(filename);
+            deletion.setNextAttemptAt(now);
+            deletionRepository.save(deletion);
+        }
+        meterRegistry.counter("media.deletion.enqueued").increment(filenames.size());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                drainer.execute(MediaDeletionQueue.this::drain);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.fileStorage.deletionPollMs:60000}")
+    public void drain() {
+        AppConfig.FileStorage config = appConfig.getFileStorage();
+        drainLock.lock();
+        try {
+            List<MediaDeletion> batch;
+            do {
+                batch = deletionRepository.findDue(LocalDateTime.now(), config.getDeletionMaxAttempts(),
+                        PageRequest.of(0, config.getDeletionBatchSize()));
+                batch.forEach(this::process);
+            } while (batch.size() == config.getDeletionBatchSize());
+            pending.set(deletionRepository.countByAttemptsLessThan(config.getDeletionMaxAttempts()));
+        } catch (RuntimeException e) {
+            log.error("Failed to drain media deletion queue", e);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        drainer.shutdown();
+    }
+
+    private void process(MediaDeletion deletion) {
+        String filename = deletion.getFilename();
+        try {
+            // The files go while the media_objects row is locked, so a re-upload of the same
+            // content waits in attach() and only publishes its copy after they are gone.
+            // Checked on every attempt, so a retry never removes content that was uploaded again.
+            Boolean referenced = transactionTemplate.execute(status -> {
+                // Files stored before deduplication have no row; one is created to hold the lock
+                mediaObjectRepository.insertIfAbsent(filename, 0);
+                if (mediaObjectRepository.lockRefCount(filename).orElse(0) > 0) {
+                    return true;
+                }
+                derivativeGenerator.delete(filename);
+                try {
+                    mediaStorage.delete(MediaStorage.Area.POSTS, filename);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                mediaObjectRepository.deleteIfUnreferenced(filename);
+                return false;
+            });
+            transactionTemplate.executeWithoutResult(status -> deletionRepository.deleteById(deletion.getId()));
+            meterRegistry.counter("media.deletion.completed",
+                    "outcome", Boolean.TRUE.equals(referenced) ? "referenced" : "deleted").increment();
+        } catch (Exception e) {
+            scheduleRetry(deletion, e);
+        }
+    }
+
+    private void scheduleRetry(MediaDeletion deletion, Exception failure) {
+        AppConfig.FileStorage config = appConfig.getFileStorage();
+        int attempts = deletion.getAttempts() + 1;
+        long backoffMs = config.getDeletionRetryBaseMs() << Math.min(attempts - 1, 20);
+        deletion.setAttempts(attempts);
+        deletion.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoffMs)));
+        String message = String.valueOf(failure.getMessage());
+        deletion.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        try {
+            transactionTemplate.executeWithoutResult(status -> deletionRepository.save(deletion));
+        } catch (RuntimeException e) {
+            // The row keeps its old schedule and is picked up again by the next drain
+            log.error("Failed to reschedule deletion of media file {}", deletion.getFilename(), e);
+            return;
+        }
+        if (attempts >= config.getDeletionMaxAttempts()) {
+            meterRegistry.counter("media.deletion.abandoned").increment();
+            log.error("Giving up on deleting media file {} after {} attempts", deletion.getFilename(), attempts, failure);
+        } else {
+            meterRegistry.counter("media.deletion.retried").increment();
+            log.warn("Failed to delete media file {}, retrying in {} ms", deletion.getFilename(), backoffMs, failure);
+        }
+    }
+}
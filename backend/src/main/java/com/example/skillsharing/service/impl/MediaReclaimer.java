@@ -0,0 +1,277 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.repository.MediaObjectRepository;
+import com.example.skillsharing.repository.SkillSharingPostRepository;
+import com.example.skillsharing.repository.UploadSessionRepository;
+import com.example.skillsharing.repository.UserRepository;
+import com.example.skillsharing.service.MediaStorage;
+import com.example.skillsharing.util.MediaVariant;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Deletes stored media nothing refers to any more: staged uploads abandoned by
+ * failed requests, post media whose reclaim never ran, replaced or orphaned
+ * profile pictures, and upload sessions that stopped receiving chunks.
+ * Referenced names are streamed into a set, the storage is walked lazily, and
+ * candidates older than {@code tempFileExpiryHours} are re-checked against the
+ * database and deleted in paused batches.
+ */
+@Slf4j
+@Component
+public class MediaReclaimer {
+
+    private static final Pattern SESSION_FILE = Pattern.compile("session-(.+)\\.part");
+
+    private final MediaStorage mediaStorage;
+    private final SkillSharingPostRepository postRepository;
+    private final UserRepository userRepository;
+    private final MediaObjectRepository mediaObjectRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final AppConfig appConfig;
+    private final ThreadPoolTaskExecutor worker = new ThreadPoolTaskExecutor();
+
+    public MediaReclaimer(MediaStorage mediaStorage,
+                          SkillSharingPostRepository postRepository,
+                          UserRepository userRepository,
+                          MediaObjectRepository mediaObjectRepository,
+                          UploadSessionRepository uploadSessionRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          AppConfig appConfig) {
+        this.mediaStorage = mediaStorage;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.mediaObjectRepository = mediaObjectRepository;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.appConfig = appConfig;
+        // The pauses between batches must not hold up the shared scheduler thread;
+        // a run still going when the next one is due makes that one a no-op
+        worker.setCorePoolSize(1);
+        worker.setMaxPoolSize(1);
+        worker.setQueueCapacity(0);
+        worker.setThreadNamePrefix("media-reclaimer-");
+        worker.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        worker.initialize();
+    }
+
+    @Scheduled(cron = "${app.fileStorage.cleanupCron:0 0 2 * * *}")
+    public void scheduleReclaim() {
+        worker.execute(this::reclaim);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    public void reclaim() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(appConfig.getFileStorage().getTempFileExpiryHours()));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<String, Long> deleted = new HashMap<>();
+        try {
+            deleted.put("staging", reclaimStaging(cutoff));
+            deleted.put(MediaStorage.Area.POSTS.getDirectory(), reclaimArea(MediaStorage.Area.POSTS, cutoff));
+            deleted.put(MediaStorage.Area.PROFILE_PICTURES.getDirectory(),
+                    reclaimArea(MediaStorage.Area.PROFILE_PICTURES, cutoff));
+        } catch (IOException e) {
+            log.error("Media reclamation failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Media reclamation interrupted");
+        } finally {
+            sample.stop(meterRegistry.timer("media.reclaimer.duration"));
+        }
+        log.info("Media reclamation deleted {}", deleted);
+    }
+
+    private long reclaimStaging(Instant cutoff) throws IOException, InterruptedException {
+        LocalDateTime sessionCutoff = LocalDateTime.now().minusHours(appConfig.getFileStorage().getUploadSessionExpiryHours());
+        Integer expired = transactionTemplate.execute(status -> uploadSessionRepository.deleteByUpdatedAtBefore(sessionCutoff));
+        meterRegistry.counter("media.reclaimer.expired.uploads").increment(expired == null ? 0 : expired);
+
+        // Files of live upload sessions stay even when their last chunk is old
+        try (Stream<Path> files = Files.list(mediaStorage.stagingDirectory())) {
+            return deleteInBatches("staging", files.filter(Files::isRegularFile).iterator(), cutoff,
+                    this::belongsToUploadSession, batch -> batch);
+        }
+    }
+
+    private boolean belongsToUploadSession(Path path) {
+        Matcher matcher = SESSION_FILE.matcher(path.getFileName().toString());
+        return matcher.matches() && uploadSessionRepository.existsById(matcher.group(1));
+    }
+
+    private long reclaimArea(MediaStorage.Area area, Instant cutoff) throws IOException, InterruptedException {
+        Set<String> referenced = referencedNames(area);
+        try (Stream<Path> files = mediaStorage.list(area)) {
+            return deleteInBatches(area.getDirectory(), files.iterator(), cutoff,
+                    path -> referenced.contains(ownerName(path)),
+                    batch -> withoutNewlyReferenced(area, batch));
+        }
+    }
+
+    private long deleteInBatches(String area, Iterator<Path> files, Instant cutoff,
+                                 Predicate<Path> referenced,
+                                 UnaryOperator<List<Path>> recheck)
+            throws IOException, InterruptedException {
+        int batchSize = appConfig.getFileStorage().getCleanupBatchSize();
+        long scanned = 0;
+        long deleted = 0;
+        List<Path> batch = new ArrayList<>();
+        while (files.hasNext()) {
+            Path path = files.next();
+            scanned++;
+            try {
+                if (referenced.test(path) || Files.getLastModifiedTime(path).toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+            } catch (NoSuchFileException e) {
+                // Deleted by its owner since the walk listed it
+                continue;
+            }
+            batch.add(path);
+            if (batch.size() == batchSize) {
+                deleted += deleteBatch(area, recheck.apply(batch));
+                batch = new ArrayList<>();
+                // Leave disk and database headroom for request traffic
+                Thread.sleep(appConfig.getFileStorage().getCleanupBatchPauseMs());
+            }
+        }
+        if (!batch.isEmpty()) {
+            deleted += deleteBatch(area, recheck.apply(batch));
+        }
+        meterRegistry.counter("media.reclaimer.scanned", "area", area).increment(scanned);
+        return deleted;
+    }
+
+    private long deleteBatch(String area, List<Path> batch) throws IOException {
+        long files = 0;
+        long bytes = 0;
+        for (Path path : batch) {
+            try {
+                long size = Files.size(path);
+                boolean removed = MediaStorage.Area.POSTS.getDirectory().equals(area)
+                        ? deletePostMedia(path)
+                        : Files.deleteIfExists(path);
+                if (removed) {
+                    files++;
+                    bytes += size;
+                }
+            } catch (NoSuchFileException e) {
+                // Deleted by its owner since the walk listed it
+            }
+        }
+        meterRegistry.counter("media.reclaimer.deleted.files", "area", area).increment(files);
+        meterRegistry.counter("media.reclaimer.deleted.bytes", "area", area).increment(bytes);
+        return files;
+    }
+
+    /**
+     * Post media is shared by content, so a re-upload can take a name back up
+     * after the batch was re-checked. The file goes while the media_objects row
+     * is locked, as in {@link MediaDeletionQueue}: an upload of the same content
+     * waits in attach() and re-creates the file once the row is gone.
+     */
+    private boolean deletePostMedia(Path path) throws IOException {
+        String name = ownerName(path);
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                // Files stored before deduplication have no row; one is created to hold the lock
+                mediaObjectRepository.insertIfAbsent(name, 0);
+                if (mediaObjectRepository.lockRefCount(name).orElse(0) > 0) {
+                    return false;
+                }
+                boolean removed;
+                try {
+                    removed = Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                mediaObjectRepository.deleteIfUnreferenced(name);
+                return removed;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // An upload of the same content is creating the row; the file is in use again
+            log.debug("Skipping {}, it is being uploaded again", name);
+            return false;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Streams every name the area is referenced by; the stream needs an open transaction
+    private Set<String> referencedNames(MediaStorage.Area area) {
+        Set<String> referenced = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (area == MediaStorage.Area.POSTS) {
+                try (Stream<String> names = postRepository.streamMediaUrls()) {
+                    names.forEach(referenced::add);
+                }
+            } else {
+                String prefix = mediaStorage.urlOf(area, "");
+                try (Stream<String> urls = userRepository.streamProfilePicturesStartingWith(prefix)) {
+                    urls.forEach(url -> referenced.add(url.substring(prefix.length())));
+                }
+            }
+        });
+        return referenced;
+    }
+
+    // Names referenced since the set was built survive; the age cutoff covers most of these already
+    private List<Path> withoutNewlyReferenced(MediaStorage.Area area, List<Path> batch) {
+        Set<String> names = new HashSet<>();
+        batch.forEach(path -> names.add(ownerName(path)));
+        Set<String> referenced = new HashSet<>();
+        if (area == MediaStorage.Area.POSTS) {
+            referenced.addAll(postRepository.findReferencedMediaUrls(names));
+        } else {
+            String prefix = mediaStorage.urlOf(area, "");
+            userRepository.findProfilePicturesIn(names.stream().map(name -> prefix + name).toList())
+                    .forEach(url -> referenced.add(url.substring(prefix.length())));
+        }
+        return batch.stream().filter(path -> !referenced.contains(ownerName(path))).toList();
+    }
+
+    // A variant lives exactly as long as its original
+    private static String ownerName(Path path) {
+        String filename = path.getFileName().toString();
+        String original = MediaVariant.originalOf(filename);
+        return original != null ? original : filename;
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.exception.BadRequestException;
+import com.example.skillsharing.model.MediaInfo;
+import com.example.skillsharing.model.UploadSession;
+import com.example.skillsharing.repository.MediaObjectRepository;
+import com.example.skillsharing.repository.UploadSessionRepository;
+import com.example.skillsharing.service.MediaStorage;
+import com.example.skillsharing.util.MediaSignature;
+import com.example.skillsharing.util.Mp4Metadata;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Lifecycle of post media. Uploads are streamed to a staging directory before
+ * the post transaction starts, hashed on the way, and stored once under the
+ * SHA-256 of their content. The post transaction records a reference per file;
+ * files are moved into place once it commits and removed if it rolls back.
+ * Staging shares the storage root's file system, so publishing is a rename and
+ * each byte reaches the disk once. Releasing the last reference queues the
+ * file on {@link MediaDeletionQueue}. Follow-up disk work, such as syncing and generating photo variants, runs
+ * on a small bounded pool so request threads and pooled connections never wait
+ * on it.
+ */
+@Slf4j
+@Component
+public class MediaUploadPipeline {
+
+    private final MediaStorage mediaStorage;
+    private final MediaObjectRepository mediaObjectRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ImageDerivativeGenerator derivativeGenerator;
+    private final MediaDeletionQueue deletionQueue;
+    private final TransactionTemplate rowTransaction;
+    private final ThreadPoolTaskExecutor workers = new ThreadPoolTaskExecutor();
+    private final long maxFileSize;
+    private final List<String> allowedFileTypes;
+
+    public MediaUploadPipeline(MediaStorage mediaStorage,
+                               MediaObjectRepository mediaObjectRepository,
+                               UploadSessionRepository uploadSessionRepository,
+                               ImageDerivativeGenerator derivativeGenerator,
+                               MediaDeletionQueue deletionQueue,
+                               PlatformTransactionManager transactionManager,
+                               AppConfig appConfig) {
+        this.mediaStorage = mediaStorage;
+        this.mediaObjectRepository = mediaObjectRepository;
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.derivativeGenerator = derivativeGenerator;
+        this.deletionQueue = deletionQueue;
+        this.rowTransaction = new TransactionTemplate(transactionManager);
+        this.rowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AppConfig.FileStorage config = appConfig.getFileStorage();
+        this.maxFileSize = config.getMaxFileSize();
+        this.allowedFileTypes = List.copyOf(config.getAllowedFileTypes());
+        workers.setCorePoolSize(config.getWorkerThreads());
+        workers.setMaxPoolSize(config.getWorkerThreads());
+        workers.setQueueCapacity(config.getWorkerQueueCapacity());
+        workers.setThreadNamePrefix("media-");
+        // A full queue pushes the work back onto the submitting thread instead of dropping it
+        workers.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        workers.setWaitForTasksToCompleteOnShutdown(true);
+        workers.setAwaitTerminationSeconds(30);
+        workers.initialize();
+    }
+
+    /**
+     * Streams one upload into the staging directory, hashing it on the way. The
+     * format is detected from the leading bytes before anything is written, and
+     * the copy stops as soon as it grows past {@code maxFileSize}, so a bad
+     * upload is rejected without reading the rest of it.
+     */
+    public StagedMedia stage(InputStream in) throws IOException {
+        byte[] header = in.readNBytes(MediaSignature.HEADER_BYTES);
+        MediaSignature signature = requireAllowed(header);
+
+        Path path = Files.createTempFile(mediaStorage.stagingDirectory(), "upload-", ".tmp");
+        MessageDigest digest = sha256Digest();
+        long size = header.length;
+        try (OutputStream out = Files.newOutputStream(path)) {
+            digest.update(header);
+            out.write(header);
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                size += read;
+                if (maxFileSize > 0 && size > maxFileSize) {
+                    throw new BadRequestException("File size exceeds maximum limit of " + maxFileSize + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        // Named after the detected format, so mislabeled uploads are served as what they are
+        String filename = HexFormat.of().formatHex(digest.digest()) + signature.getExtension();
+        return new StagedMedia(filename, path, size, describe(path, signature));
+    }
+
+    /**
+     * Records what is known about a staged file of the given format. For video
+     * this reads duration and display size from the {@code moov} box, touching
+     * only the box headers and {@code moov} itself; a file without readable
+     * metadata is still accepted.
+     */
+    public MediaInfo describe(Path path, MediaSignature signature) {
+        MediaInfo info = new MediaInfo();
+        info.setContentType(signature.getContentType());
+        if (signature.isVideo()) {
+            try {
+                Mp4Metadata metadata = Mp4Metadata.read(path);
+                if (metadata != null) {
+                    info.setDurationMs(metadata.durationMs());
+                    info.setWidth(metadata.width());
+                    info.setHeight(metadata.height());
+                }
+            } catch (IOException e) {
+                log.warn("Failed to read video metadata of {}", path, e);
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Detects the format of an upload from its first {@link MediaSignature#HEADER_BYTES}
+     * bytes and rejects it unless it is one of {@code allowedFileTypes}.
+     */
+    public MediaSignature requireAllowed(byte[] header) {
+        MediaSignature signature = MediaSignature.detect(header);
+        if (signature == null || !allowedFileTypes.isEmpty() && !allowedFileTypes.contains(signature.getContentType())) {
+            throw new BadRequestException("Invalid file type. Allowed types are " + String.join(", ", allowedFileTypes));
+        }
+        return signature;
+    }
+
+    /**
+     * Records a reference to each staged file in the current transaction. Once it
+     * commits the files are moved into media storage; if it rolls back they are
+     * deleted.
+     */
+    public void attach(List<StagedMedia> staged) {
+        attach(staged, true);
+    }
+
+    /**
+     * Attaches the files of completed upload sessions and deletes the sessions in
+     * the current transaction. If it rolls back, sessions and files stay as they
+     * were so the client can retry without uploading again.
+     */
+    public List<StagedMedia> attachUploads(List<UploadSession> sessions) {
+        List<StagedMedia> staged = new ArrayList<>();
+        try {
+            for (UploadSession session : sessions) {
+                // A copy, since embedded values must not be shared between entities
+                MediaInfo info = new MediaInfo();
+                info.setContentType(session.getDetectedType().getContentType());
+                if (session.getMediaInfo() != null) {
+                    info.setDurationMs(session.getMediaInfo().getDurationMs());
+                    info.setWidth(session.getMediaInfo().getWidth());
+                    info.setHeight(session.getMediaInfo().getHeight());
+                }
+                staged.add(new StagedMedia(session.getMediaFilename(), sessionFile(session.getId()),
+                        session.getTotalSize(), info));
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to attach upload: " + e.getMessage());
+        }
+        attach(staged, false);
+        uploadSessionRepository.deleteAll(sessions);
+        return staged;
+    }
+
+    private void attach(List<StagedMedia> staged, boolean discardOnRollback) {
+        if (staged.isEmpty()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    publish(staged);
+                } else if (discardOnRollback) {
+                    discard(staged);
+                }
+            }
+        });
+
+        for (StagedMedia media : staged) {
+            // A deletion holding the row makes the increment wait and, once it commits,
+            // leaves no row to update; the row is then created afresh
+            do {
+                createRowIfAbsent(media);
+            } while (mediaObjectRepository.incrementRefCount(media.filename()) == 0);
+        }
+    }
+
+    /**
+     * The NOT EXISTS guard cannot see a row another upload of the same content
+     * has inserted but not yet committed, so the insert can fail on the primary
+     * key. It runs in its own transaction to keep that failure out of the
+     * caller's; either way the row exists afterwards and the increment proceeds.
+     * A row left behind by a caller that rolls back has no references and is
+     * reused by the next upload of that content.
+     */
+    private void createRowIfAbsent(StagedMedia media) {
+        try {
+            rowTransaction.executeWithoutResult(status ->
+                    mediaObjectRepository.insertIfAbsent(media.filename(), media.size()));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Media object {} was created by a concurrent upload", media.filename());
+        }
+    }
+
+    /**
+     * Drops one reference per filename in the current transaction and queues the
+     * files whose last reference that was for deletion; nothing touches the disk
+     * before the transaction commits.
+     */
+    public void detach(List<String> filenames) {
+        List<String> released = new ArrayList<>();
+        for (String filename : filenames) {
+            mediaObjectRepository.decrementRefCount(filename);
+            // Files stored before deduplication have no row and are owned by this post alone
+            if (mediaObjectRepository.findRefCount(filename).orElse(0) == 0) {
+                released.add(filename);
+            }
+        }
+        deletionQueue.enqueue(released);
+    }
+
+    /**
+     * Staging file that receives the chunks of a resumable upload.
+     */
+    public Path sessionFile(String sessionId) throws IOException {
+        return mediaStorage.stagingDirectory().resolve("session-" + sessionId + ".part");
+    }
+
+    /**
+     * Content-addressed name for a file that is already on disk.
+     */
+    public String contentName(Path path, String extension) throws IOException {
+        MessageDigest digest = sha256Digest();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest()) + extension;
+    }
+
+    public void discard(List<StagedMedia> staged) {
+        for (StagedMedia media : staged) {
+            try {
+                Files.deleteIfExists(media.path());
+            } catch (IOException e) {
+                log.warn("Failed to delete staged media file {}", media.path(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private void publish(List<StagedMedia> staged) {
+        List<Path> published = new ArrayList<>();
+        List<String> filenames = new ArrayList<>();
+        for (StagedMedia media : staged) {
+            try {
+                // Identical content may already be stored. A deletion of this name finished
+                // before the transaction could commit (attach waits on its row lock), so the
+                // file put here is never removed by it
+                mediaStorage.putFile(MediaStorage.Area.POSTS, media.filename(), media.path());
+                published.add(mediaStorage.locate(MediaStorage.Area.POSTS, media.filename()));
+                filenames.add(media.filename());
+            } catch (IOException e) {
+                log.error("Failed to move staged media {} into place", media.filename(), e);
+            }
+        }
+        workers.execute(() -> {
+            sync(published);
+            filenames.forEach(derivativeGenerator::generate);
+        });
+    }
+
+    private void sync(List<Path> paths) {
+        for (Path path : paths) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            } catch (IOException e) {
+                log.warn("Failed to sync media file {}", path, e);
+            }
+        }
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record StagedMedia(String filename, Path path, long size, MediaInfo info) {
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.skillsharing.service.impl;
 
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.dto.NotificationDTO;
+import com.example.skillsharing.exception.BadRequestException;
 import com.example.skillsharing.exception.ResourceNotFoundException;
 import com.example.skillsharing.model.Comment;
 import com.example.skillsharing.model.Notification;
@@ -11,10 +13,11 @@ import com.example.skillsharing.repository.NotificationRepository;
 import com.example.skillsharing.repository.SkillSharingPostRepository;
 import com.example.skillsharing.service.NotificationService;
 import com.example.skillsharing.service.UserService;
+import com.example.skillsharing.util.Cursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,13 +36,11 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public NotificationDTO createNotification(NotificationDTO.CreateNotificationDTO createDTO) {
-        User recipient = userService.getUserEntityById(createDTO.getRecipientId());
-        User actor = userService.getUserEntityById(createDTO.getActorId());
-
         // Don't create notification if user is acting on their own content
-        if (recipient.getId().equals(actor.getId())) {
+        if (createDTO.getRecipientId().equals(createDTO.getActorId())) {
             return null;
         }
+        User recipient = userService.getUserReference(createDTO.getRecipientId());
 
         Notification notification = new Notification();
         notification.setRecipient(recipient);
@@ -55,63 +56,70 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     @Transactional(readOnly = true)
     public NotificationDTO getNotificationById(Long notificationId) {
-        Notification notification = getNotificationEntityById(notificationId);
+        Notification notification = getOwnNotification(notificationId);
         return convertToDTO(notification);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<NotificationDTO> getUserNotifications(Long userId, Pageable pageable) {
-        User user = userService.getUserEntityById(userId);
+        User user = userService.getUserReference(userId);
         return notificationRepository.findByRecipientOrderByCreatedAtDesc(user, pageable)
                 .map(this::convertToDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NotificationDTO> getUserNotifications(Long userId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Slice<Notification> notifications = after == null
+                ? notificationRepository.findSliceByRecipientIdOrderByCreatedAtDescIdDesc(userId, Cursor.limit(size))
+                : notificationRepository.findSliceByRecipientIdBefore(userId, after.createdAt(), after.id(), Cursor.limit(size));
+        return CursorPageDTO.of(notifications, this::convertToDTO,
+                notification -> new Cursor(notification.getCreatedAt(), notification.getId()));
+    }
+
     @Override
     public void markAsRead(Long notificationId) {
-        Notification notification = getNotificationEntityById(notificationId);
+        Notification notification = getOwnNotification(notificationId);
         notification.setRead(true);
         notificationRepository.save(notification);
     }
 
     @Override
     public void markAllAsRead(Long userId) {
-        User user = userService.getUserEntityById(userId);
+        User user = userService.getUserReference(userId);
         notificationRepository.markAllAsRead(user);
     }
 
     @Override
     public void deleteNotification(Long notificationId) {
-        if (!notificationRepository.existsById(notificationId)) {
-            throw new ResourceNotFoundException("Notification", "id", notificationId);
-        }
-        notificationRepository.deleteById(notificationId);
+        notificationRepository.delete(getOwnNotification(notificationId));
     }
 
     @Override
     public void deleteAllNotifications(Long userId) {
-        User user = userService.getUserEntityById(userId);
+        User user = userService.getUserReference(userId);
         notificationRepository.deleteByRecipientAndCreatedAtBefore(user, LocalDateTime.now());
     }
 
     @Override
     @Transactional(readOnly = true)
     public long getUnreadCount(Long userId) {
-        User user = userService.getUserEntityById(userId);
+        User user = userService.getUserReference(userId);
         return notificationRepository.countByRecipientAndReadFalse(user);
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean hasUnreadNotifications(Long userId) {
-        User user = userService.getUserEntityById(userId);
+        User user = userService.getUserReference(userId);
         return notificationRepository.hasUnreadNotifications(user);
     }
 
     @Override
-    @Scheduled(cron = "0 0 0 * * *") // Run at midnight every day
     public void cleanupOldNotifications(Long userId) {
-        User user = userService.getUserEntityById(userId);
+        User user = userService.getUserReference(userId);
         LocalDateTime cutoffDate = LocalDateTime.now().minusDays(NOTIFICATION_RETENTION_DAYS);
         notificationRepository.deleteByRecipientAndCreatedAtBefore(user, cutoffDate);
     }
@@ -197,4 +205,13 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Notification", "id", notificationId));
     }
+
+    // Notifications are private to their recipient
+    private Notification getOwnNotification(Long notificationId) {
+        Notification notification = getNotificationEntityById(notificationId);
+        if (!notification.getRecipient().getId().equals(userService.getCurrentUserId())) {
+            throw new BadRequestException("You don't have permission to access this notification");
+        }
+        return notification;
+    }
 }
@@ -0,0 +1,54 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.repository.SkillSharingPostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Repairs drift between the denormalized like/comment counters on posts and the
+ * rows they summarize. Posts are walked in id order, one short transaction per
+ * batch, so the job never holds locks on the whole table.
+ */
+@Slf4j
+@Component
+public class PostCounterReconciler {
+
+    private final SkillSharingPostRepository postRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AppConfig appConfig;
+
+    public PostCounterReconciler(SkillSharingPostRepository postRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 AppConfig appConfig) {
+        this.postRepository = postRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.appConfig = appConfig;
+    }
+
+    @Scheduled(cron = "${app.counters.reconcileCron:0 30 3 * * *}")
+    public void reconcile() {
+        int batchSize = appConfig.getCounters().getReconcileBatchSize();
+        long afterId = 0;
+        int scanned = 0;
+        int repaired = 0;
+
+        List<Long> ids;
+        while (!(ids = postRepository.findIdsAfter(afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            Long fromId = ids.get(0);
+            Long toId = ids.get(ids.size() - 1);
+            repaired += transactionTemplate.execute(status ->
+                    postRepository.reconcileLikeCounts(fromId, toId) + postRepository.reconcileCommentCounts(fromId, toId));
+            scanned += ids.size();
+            afterId = toId;
+        }
+
+        log.info("Post counter reconciliation scanned {} posts and repaired {} counters", scanned, repaired);
+    }
+}
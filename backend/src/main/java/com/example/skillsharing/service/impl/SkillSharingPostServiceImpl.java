@@ -1,60 +1,153 @@
 package com.example.skillsharing.service.impl;
 
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.dto.SkillSharingPostDTO;
+import com.example.skillsharing.dto.UserDTO;
+import com.example.skillsharing.event.PostCreatedEvent;
+import com.example.skillsharing.event.PostEngagementEvent;
 import com.example.skillsharing.exception.BadRequestException;
 import com.example.skillsharing.exception.ResourceNotFoundException;
+import com.example.skillsharing.model.MediaInfo;
 import com.example.skillsharing.model.SkillSharingPost;
+import com.example.skillsharing.model.UploadSession;
 import com.example.skillsharing.model.User;
+import com.example.skillsharing.repository.FeedEntryRepository;
 import com.example.skillsharing.repository.SkillSharingPostRepository;
+import com.example.skillsharing.repository.UploadSessionRepository;
+import com.example.skillsharing.repository.UserRepository;
+import com.example.skillsharing.security.CurrentUserContext;
+import com.example.skillsharing.service.FeedService;
+import com.example.skillsharing.service.MediaStorage;
 import com.example.skillsharing.service.SkillSharingPostService;
+import com.example.skillsharing.service.TrendingService;
 import com.example.skillsharing.service.UserService;
+import com.example.skillsharing.util.Cursor;
+import com.example.skillsharing.util.MediaVariant;
+import com.example.skillsharing.util.MultipartStream;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class SkillSharingPostServiceImpl implements SkillSharingPostService {
 
+    private static final int MAX_POST_PART_BYTES = 64 * 1024;
+
     private final SkillSharingPostRepository postRepository;
+    private final FeedEntryRepository feedEntryRepository;
+    private final UserRepository userRepository;
+    private final UploadSessionRepository uploadSessionRepository;
     private final UserService userService;
-    private static final String UPLOAD_DIR = "uploads/posts";
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    private final CurrentUserContext currentUserContext;
+    private final FeedService feedService;
+    private final TrendingService trendingService;
+    private final LikeWriteBehindBuffer likeBuffer;
+    private final MediaUploadPipeline mediaPipeline;
+    private final MediaStorage mediaStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @Override
-    public SkillSharingPostDTO createPost(SkillSharingPostDTO.CreatePostDTO createPostDTO, List<MultipartFile> mediaFiles) {
-        validateMediaFiles(mediaFiles);
-
-        User currentUser = userService.getCurrentUser();
-        SkillSharingPost post = new SkillSharingPost();
-        post.setUser(currentUser);
-        post.setDescription(createPostDTO.getDescription());
-        post.setMediaType(createPostDTO.getMediaType());
-
-        // Handle media file uploads
-        if (mediaFiles != null && !mediaFiles.isEmpty()) {
-            List<String> mediaUrls = new ArrayList<>();
-            for (MultipartFile file : mediaFiles) {
-                String fileName = saveMediaFile(file);
-                mediaUrls.add(fileName);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SkillSharingPostDTO createPost(MultipartStream multipart) {
+        SkillSharingPostDTO.CreatePostDTO createPostDTO = null;
+        List<MediaUploadPipeline.StagedMedia> stagedMedia = new ArrayList<>();
+        try {
+            // Media parts go to staging as they are read, in whatever order they arrive
+            for (MultipartStream.Part part = multipart.nextPart(); part != null; part = multipart.nextPart()) {
+                if ("post".equals(part.name())) {
+                    createPostDTO = readCreatePost(part.body());
+                } else if ("media".equals(part.name()) && part.isFile() && !part.filename().isEmpty()) {
+                    if (stagedMedia.size() == 3) {
+                        throw new BadRequestException("Maximum 3 media files allowed per post");
+                    }
+                    stagedMedia.add(mediaPipeline.stage(part.body()));
+                }
             }
-            post.setMediaUrls(mediaUrls);
+        } catch (IOException e) {
+            mediaPipeline.discard(stagedMedia);
+            throw new BadRequestException("Failed to read multipart request: " + e.getMessage());
+        } catch (RuntimeException e) {
+            mediaPipeline.discard(stagedMedia);
+            throw e;
         }
 
-        SkillSharingPost savedPost = postRepository.save(post);
-        return convertToDTO(savedPost);
+        if (createPostDTO == null) {
+            mediaPipeline.discard(stagedMedia);
+            throw new BadRequestException("Required part 'post' is not present");
+        }
+        int uploads = createPostDTO.getUploadIds() == null ? 0 : createPostDTO.getUploadIds().size();
+        if (stagedMedia.size() + uploads > 3) {
+            mediaPipeline.discard(stagedMedia);
+            throw new BadRequestException("Maximum 3 media files allowed per post");
+        }
+        return createStagedPost(createPostDTO, stagedMedia);
+    }
+
+    private SkillSharingPostDTO createStagedPost(SkillSharingPostDTO.CreatePostDTO createPostDTO,
+                                                 List<MediaUploadPipeline.StagedMedia> stagedMedia) {
+        List<String> uploadIds = createPostDTO.getUploadIds() == null ? List.of() : createPostDTO.getUploadIds();
+        try {
+            return transactionTemplate.execute(status -> {
+                mediaPipeline.attach(stagedMedia);
+
+                User currentUser = userService.getCurrentUser();
+                List<MediaUploadPipeline.StagedMedia> media = new ArrayList<>(stagedMedia);
+                if (!uploadIds.isEmpty()) {
+                    media.addAll(mediaPipeline.attachUploads(getCompletedUploads(currentUser.getId(), uploadIds)));
+                }
+
+                SkillSharingPost post = new SkillSharingPost();
+                post.setUser(currentUser);
+                post.setDescription(createPostDTO.getDescription());
+                post.setMediaType(createPostDTO.getMediaType());
+                for (MediaUploadPipeline.StagedMedia file : media) {
+                    post.getMediaUrls().add(file.filename());
+                    post.getMediaInfo().put(file.filename(), file.info());
+                }
+
+                SkillSharingPost savedPost = postRepository.save(post);
+
+                // Followers' timelines are filled asynchronously once the post is committed
+                eventPublisher.publishEvent(new PostCreatedEvent(
+                        savedPost.getId(), currentUser.getId(), savedPost.getCreatedAt()));
+
+                return convertToDTO(savedPost);
+            });
+        } catch (RuntimeException e) {
+            // Covers failures before the transaction could start; discarding twice is harmless
+            mediaPipeline.discard(stagedMedia);
+            throw e;
+        }
     }
 
     @Override
@@ -64,26 +157,56 @@ public class SkillSharingPostServiceImpl implements SkillSharingPostService {
         return convertToDTO(post);
     }
 
+    /**
+     * Returns an uninitialized proxy for an existing post, so other services can
+     * attach to it without loading or converting it.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public SkillSharingPost getPostReference(Long postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post", "id", postId);
+        }
+        return postRepository.getReferenceById(postId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<SkillSharingPostDTO> getAllPosts(Pageable pageable) {
-        return postRepository.findAll(pageable).map(this::convertToDTO);
+        return toDTOPage(postRepository.findAll(pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<SkillSharingPostDTO> getUserPosts(Long userId, Pageable pageable) {
-        User user = userService.getUserEntityById(userId);
-        return postRepository.findByUserOrderByCreatedAtDesc(user, pageable)
-                .map(this::convertToDTO);
+        User user = userService.getUserReference(userId);
+        return toDTOPage(postRepository.findByUserOrderByCreatedAtDesc(user, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SkillSharingPostDTO> getUserPosts(Long userId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Slice<SkillSharingPost> posts = after == null
+                ? postRepository.findSliceByUserIdOrderByCreatedAtDescIdDesc(userId, Cursor.limit(size))
+                : postRepository.findSliceByUserIdBefore(userId, after.createdAt(), after.id(), Cursor.limit(size));
+        return CursorPageDTO.of(posts, convertToDTOs(posts.getContent()), this::cursorOf);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<SkillSharingPostDTO> getFeedPosts(Long userId, Pageable pageable) {
-        User user = userService.getUserEntityById(userId);
-        return postRepository.findFeedPostsByUser(user, pageable)
-                .map(this::convertToDTO);
+        return toDTOPage(feedEntryRepository.findFeedPosts(userId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SkillSharingPostDTO> getFeedPosts(Long userId, String cursor, int size) {
+        Cursor after = Cursor.decode(cursor);
+        Slice<SkillSharingPost> posts = after == null
+                ? feedEntryRepository.findFeedSlice(userId, Cursor.limit(size))
+                : feedEntryRepository.findFeedSliceBefore(userId, after.createdAt(), after.id(), Cursor.limit(size));
+        return CursorPageDTO.of(posts, convertToDTOs(posts.getContent()), this::cursorOf);
     }
 
     @Override
@@ -101,102 +224,163 @@ public class SkillSharingPostServiceImpl implements SkillSharingPostService {
         SkillSharingPost post = getPostEntityById(postId);
         validatePostOwnership(post);
 
-        // Delete associated media files
-        for (String mediaUrl : post.getMediaUrls()) {
-            deleteMediaFile(mediaUrl);
-        }
+        // Media files may be shared with other posts; they go once the last reference does
+        mediaPipeline.detach(List.copyOf(post.getMediaUrls()));
 
+        feedService.removePost(postId);
         postRepository.delete(post);
     }
 
+    /**
+     * The NOT EXISTS guard cannot see a like a concurrent request for the same
+     * user and post has inserted but not yet committed, so the insert can fail
+     * on the primary key. That failure aborts the transaction it runs in, so the
+     * like is written in a transaction of its own and a duplicate counts as
+     * already liked.
+     */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SkillSharingPostDTO likePost(Long postId) {
-        SkillSharingPost post = getPostEntityById(postId);
-        User currentUser = userService.getCurrentUser();
-
-        if (post.getLikes().contains(currentUser)) {
-            throw new BadRequestException("Post is already liked by the user");
+        Long userId = userService.getCurrentUserId();
+        if (likeBuffer.isEnabled()) {
+            return transactionTemplate.execute(status -> {
+                SkillSharingPost post = getPostEntityById(postId);
+                likeBuffer.submit(postId, userId, true);
+                currentUserContext.setLiked(postId, true);
+                return convertToDTO(post);
+            });
         }
 
-        post.getLikes().add(currentUser);
-        SkillSharingPost updatedPost = postRepository.save(post);
-        return convertToDTO(updatedPost);
+        boolean liked;
+        try {
+            liked = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (postRepository.insertLike(postId, userId) == 0) {
+                    return false;
+                }
+                postRepository.adjustLikeCount(postId, 1);
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            liked = false;
+        }
+        if (liked) {
+            eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Type.LIKE, 1));
+        }
+        currentUserContext.setLiked(postId, true);
+        return transactionTemplate.execute(status -> convertToDTO(getPostEntityById(postId)));
     }
 
     @Override
     public SkillSharingPostDTO unlikePost(Long postId) {
-        SkillSharingPost post = getPostEntityById(postId);
-        User currentUser = userService.getCurrentUser();
-
-        if (!post.getLikes().contains(currentUser)) {
-            throw new BadRequestException("Post is not liked by the user");
+        Long userId = userService.getCurrentUserId();
+        if (likeBuffer.isEnabled()) {
+            SkillSharingPost post = getPostEntityById(postId);
+            likeBuffer.submit(postId, userId, false);
+            currentUserContext.setLiked(postId, false);
+            return convertToDTO(post);
         }
 
-        post.getLikes().remove(currentUser);
-        SkillSharingPost updatedPost = postRepository.save(post);
-        return convertToDTO(updatedPost);
+        if (postRepository.deleteLike(postId, userId) > 0) {
+            postRepository.adjustLikeCount(postId, -1);
+            eventPublisher.publishEvent(new PostEngagementEvent(postId, PostEngagementEvent.Type.LIKE, -1));
+        }
+        currentUserContext.setLiked(postId, false);
+        return convertToDTO(getPostEntityById(postId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<SkillSharingPostDTO> getTrendingPosts() {
-        return postRepository.findTop10ByOrderByLikesDesc().stream()
-                .map(this::convertToDTO)
-                .toList();
+        List<Long> trendingIds = trendingService.getTrendingPostIds();
+        if (trendingIds.isEmpty()) {
+            return convertToDTOs(postRepository.findTop10ByOrderByLikeCountDesc());
+        }
+
+        // Keep snapshot order and skip posts deleted since the last recompute
+        Map<Long, SkillSharingPost> posts = postRepository.findAllById(trendingIds).stream()
+                .collect(Collectors.toMap(SkillSharingPost::getId, Function.identity()));
+        return convertToDTOs(trendingIds.stream()
+                .filter(posts::containsKey)
+                .map(posts::get)
+                .toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean isPostLikedByUser(Long postId, Long userId) {
-        SkillSharingPost post = getPostEntityById(postId);
-        User user = userService.getUserEntityById(userId);
-        return postRepository.isLikedByUser(post, user);
+        getPostEntityById(postId);
+        return getLikedPostIds(userId, List.of(postId)).contains(postId);
     }
 
     @Override
-    public void validateMediaFiles(List<MultipartFile> mediaFiles) {
-        if (mediaFiles == null || mediaFiles.isEmpty()) {
-            return;
+    @Transactional(readOnly = true)
+    public Set<Long> getLikedPostIds(Long userId, Collection<Long> postIds) {
+        if (userId == null || postIds.isEmpty()) {
+            return Set.of();
         }
-
-        if (mediaFiles.size() > 3) {
-            throw new BadRequestException("Maximum 3 media files allowed per post");
+        // The viewer's flags are shared by every conversion in the request
+        if (userId.equals(currentUserContext.getUserId())) {
+            return currentUserContext.getLikedPostIds(postIds, ids -> loadLikedPostIds(userId, ids));
         }
+        return loadLikedPostIds(userId, postIds);
+    }
 
-        for (MultipartFile file : mediaFiles) {
-            if (file.getSize() > MAX_FILE_SIZE) {
-                throw new BadRequestException("File size exceeds maximum limit of 10MB");
-            }
-
-            String contentType = file.getContentType();
-            if (contentType == null || (!contentType.startsWith("image/") && !contentType.startsWith("video/"))) {
-                throw new BadRequestException("Invalid file type. Only images and videos are allowed");
+    private Set<Long> loadLikedPostIds(Long userId, Collection<Long> postIds) {
+        Set<Long> likedPostIds = new HashSet<>(postRepository.findLikedPostIds(userId, postIds));
+        // Buffered write-behind intents take precedence over what has been flushed so far
+        for (Long postId : postIds) {
+            Boolean pending = likeBuffer.pendingIntent(postId, userId);
+            if (pending != null) {
+                if (pending) {
+                    likedPostIds.add(postId);
+                } else {
+                    likedPostIds.remove(postId);
+                }
             }
         }
+        return likedPostIds;
     }
 
     @Override
     public SkillSharingPostDTO convertToDTO(SkillSharingPost post) {
-        SkillSharingPostDTO dto = new SkillSharingPostDTO();
-        dto.setId(post.getId());
-        dto.setDescription(post.getDescription());
-        dto.setMediaUrls(post.getMediaUrls());
-        dto.setMediaType(post.getMediaType());
-        dto.setUser(userService.convertToDTO(post.getUser()));
-        dto.setLikesCount(post.getLikes().size());
-        dto.setCommentsCount(post.getComments().size());
-        dto.setCreatedAt(post.getCreatedAt());
-        dto.setUpdatedAt(post.getUpdatedAt());
-
-        // Set isLiked if there's a current user
-        try {
-            User currentUser = userService.getCurrentUser();
-            dto.setLiked(post.getLikes().contains(currentUser));
-        } catch (Exception e) {
-            dto.setLiked(false);
+        return convertToDTOs(List.of(post)).get(0);
+    }
+
+    @Override
+    public List<SkillSharingPostDTO> convertToDTOs(List<SkillSharingPost> posts) {
+        if (posts.isEmpty()) {
+            return List.of();
         }
 
-        return dto;
+        // Resolve everything the page needs with a fixed number of batched queries;
+        // reading post.getLikes() here would load the whole collection
+        Set<Long> postIds = posts.stream().map(SkillSharingPost::getId).collect(Collectors.toSet());
+        Set<Long> authorIds = posts.stream().map(post -> post.getUser().getId()).collect(Collectors.toSet());
+
+        Map<Long, UserDTO> authors = userService.convertToDTOs(userRepository.findAllById(authorIds)).stream()
+                .collect(Collectors.toMap(UserDTO::getId, Function.identity()));
+
+        Set<Long> likedPostIds = getLikedPostIds(currentUserContext.getUserId(), postIds);
+
+        return posts.stream()
+                .map(post -> {
+                    SkillSharingPostDTO dto = new SkillSharingPostDTO();
+                    dto.setId(post.getId());
+                    dto.setDescription(post.getDescription());
+                    dto.setMediaUrls(post.getMediaUrls());
+                    dto.setMedia(post.getMediaUrls().stream()
+                            .map(filename -> toMediaDTO(filename, post.getMediaInfo().get(filename)))
+                            .toList());
+                    dto.setMediaType(post.getMediaType());
+                    dto.setUser(authors.get(post.getUser().getId()));
+                    dto.setLikesCount((int) post.getLikeCount());
+                    dto.setCommentsCount((int) post.getCommentCount());
+                    dto.setLiked(likedPostIds.contains(post.getId()));
+                    dto.setCreatedAt(post.getCreatedAt());
+                    dto.setUpdatedAt(post.getUpdatedAt());
+                    return dto;
+                })
+                .toList();
     }
 
     @Override
@@ -208,48 +392,78 @@ public class SkillSharingPostServiceImpl implements SkillSharingPostService {
         return post;
     }
 
+    private SkillSharingPostDTO.CreatePostDTO readCreatePost(InputStream in) throws IOException {
+        byte[] json = in.readNBytes(MAX_POST_PART_BYTES + 1);
+        if (json.length > MAX_POST_PART_BYTES) {
+            throw new BadRequestException("Part 'post' exceeds " + MAX_POST_PART_BYTES + " bytes");
+        }
+        SkillSharingPostDTO.CreatePostDTO createPostDTO;
+        try {
+            createPostDTO = objectMapper.readValue(json, SkillSharingPostDTO.CreatePostDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed part 'post'");
+        }
+        Set<ConstraintViolation<SkillSharingPostDTO.CreatePostDTO>> violations = validator.validate(createPostDTO);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.iterator().next().getMessage());
+        }
+        return createPostDTO;
+    }
+
+    // Sessions in the order the ids were given; unknown, foreign and unfinished ones are rejected
+    private List<UploadSession> getCompletedUploads(Long userId, List<String> uploadIds) {
+        Map<String, UploadSession> sessions = uploadSessionRepository.findByIdInAndUserId(uploadIds, userId).stream()
+                .collect(Collectors.toMap(UploadSession::getId, Function.identity()));
+        List<UploadSession> ordered = new ArrayList<>();
+        for (String uploadId : new LinkedHashSet<>(uploadIds)) {
+            UploadSession session = sessions.get(uploadId);
+            if (session == null) {
+                throw new ResourceNotFoundException("Upload", "id", uploadId);
+            }
+            if (session.getMediaFilename() == null) {
+                throw new BadRequestException("Upload " + uploadId + " is not complete");
+            }
+            ordered.add(session);
+        }
+        return ordered;
+    }
+
     private SkillSharingPost getPostEntityById(Long postId) {
         return postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post", "id", postId));
     }
 
-    private void validatePostOwnership(SkillSharingPost post) {
-        User currentUser = userService.getCurrentUser();
-        if (!post.getUser().getId().equals(currentUser.getId())) {
-            throw new BadRequestException("You don't have permission to modify this post");
+    // Variant URLs are derived from the name; MediaController serves the original until they exist
+    private SkillSharingPostDTO.MediaDTO toMediaDTO(String filename, MediaInfo info) {
+        SkillSharingPostDTO.MediaDTO media = new SkillSharingPostDTO.MediaDTO();
+        media.setOriginal(mediaStorage.urlOf(MediaStorage.Area.POSTS, filename));
+        // Posts from before detection only have the extension to go by
+        media.setContentType(info != null
+                ? info.getContentType()
+                : MediaTypeFactory.getMediaType(filename).map(Object::toString).orElse(null));
+        if (info != null) {
+            media.setDurationMs(info.getDurationMs());
+            media.setWidth(info.getWidth());
+            media.setHeight(info.getHeight());
+        }
+        if (MediaVariant.supports(filename)) {
+            media.setMedium(mediaStorage.urlOf(MediaStorage.Area.POSTS, MediaVariant.MEDIUM.nameFor(filename)));
+            media.setThumbnail(mediaStorage.urlOf(MediaStorage.Area.POSTS, MediaVariant.THUMBNAIL.nameFor(filename)));
         }
+        return media;
     }
 
-    private String saveMediaFile(MultipartFile file) {
-        try {
-            // Create uploads directory if it doesn't exist
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String filename = UUID.randomUUID().toString() + extension;
-
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath);
+    private Page<SkillSharingPostDTO> toDTOPage(Page<SkillSharingPost> posts) {
+        return new PageImpl<>(convertToDTOs(posts.getContent()), posts.getPageable(), posts.getTotalElements());
+    }
 
-            return filename;
-        } catch (IOException e) {
-            throw new BadRequestException("Failed to save media file: " + e.getMessage());
-        }
+    private Cursor cursorOf(SkillSharingPost post) {
+        return new Cursor(post.getCreatedAt(), post.getId());
     }
 
-    private void deleteMediaFile(String filename) {
-        try {
-            Path filePath = Paths.get(UPLOAD_DIR, filename);
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            // Log error but don't throw exception as the post should still be deleted
-            System.err.println("Failed to delete media file: " + filename);
+    private void validatePostOwnership(SkillSharingPost post) {
+        if (!post.getUser().getId().equals(currentUserContext.getUserId())) {
+            throw new BadRequestException("You don't have permission to modify this post");
         }
     }
 }
@@ -0,0 +1,109 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.event.PostEngagementEvent;
+import com.example.skillsharing.service.TrendingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * In-process trending engine. Engagement is counted into fixed-size time buckets
+ * covering a sliding window; a scheduled pass scores each post with exponential
+ * decay by bucket age, keeps the best K in a bounded heap and publishes them as
+ * an immutable snapshot that reads never block on.
+ */
+@Slf4j
+@Service
+public class TrendingServiceImpl implements TrendingService {
+
+    private final AppConfig.Trending config;
+    private final Clock clock;
+
+    // bucket index -> post id -> weighted engagement in that bucket
+    private final ConcurrentMap<Long, ConcurrentMap<Long, DoubleAdder>> buckets = new ConcurrentHashMap<>();
+
+    private volatile List<Long> snapshot = List.of();
+
+    @Autowired
+    public TrendingServiceImpl(AppConfig appConfig) {
+        this(appConfig.getTrending(), Clock.systemUTC());
+    }
+
+    TrendingServiceImpl(AppConfig.Trending config, Clock clock) {
+        this.config = config;
+        this.clock = clock;
+    }
+
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void recordEngagement(PostEngagementEvent event) {
+        double weight = event.type() == PostEngagementEvent.Type.LIKE
+                ? config.getLikeWeight()
+                : config.getCommentWeight();
+        buckets.computeIfAbsent(currentBucket(), bucket -> new ConcurrentHashMap<>())
+                .computeIfAbsent(event.postId(), postId -> new DoubleAdder())
+                .add(weight * event.delta());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.trending.recomputeIntervalMs:60000}")
+    public void recompute() {
+        long now = clock.millis();
+        long bucketMillis = config.getBucket().toMillis();
+        long oldestBucket = (now - config.getWindow().toMillis()) / bucketMillis;
+        double decayPerMilli = Math.log(2) / config.getHalfLife().toMillis();
+
+        // Buckets that slid out of the window are dropped for good
+        buckets.keySet().removeIf(bucket -> bucket < oldestBucket);
+
+        Map<Long, Double> scores = new HashMap<>();
+        buckets.forEach((bucket, counts) -> {
+            long age = Math.max(0, now - (bucket * bucketMillis + bucketMillis / 2));
+            double decay = Math.exp(-decayPerMilli * age);
+            counts.forEach((postId, count) -> scores.merge(postId, count.sum() * decay, Double::sum));
+        });
+
+        // Min-heap of at most K entries: the root is the weakest of the current top K
+        int topK = config.getTopK();
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(topK + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            if (score.getValue() <= 0) {
+                continue;
+            }
+            heap.offer(score);
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(heap);
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()));
+        snapshot = ranked.stream().map(Map.Entry::getKey).toList();
+
+        log.debug("Recomputed trending posts from {} candidates: {}", scores.size(), snapshot);
+    }
+
+    @Override
+    public List<Long> getTrendingPostIds() {
+        return snapshot;
+    }
+
+    private long currentBucket() {
+        return clock.millis() / config.getBucket().toMillis();
+    }
+}
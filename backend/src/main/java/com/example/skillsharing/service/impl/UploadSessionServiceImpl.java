@@ -0,0 +1,256 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.dto.UploadSessionDTO;
+import com.example.skillsharing.exception.BadRequestException;
+import com.example.skillsharing.exception.ResourceNotFoundException;
+import com.example.skillsharing.model.UploadSession;
+import com.example.skillsharing.repository.UploadSessionRepository;
+import com.example.skillsharing.repository.UserRepository;
+import com.example.skillsharing.service.UploadSessionService;
+import com.example.skillsharing.util.MediaSignature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resumable uploads for media too large to send reliably in one request. Each
+ * chunk request holds a thread only for one fixed-size chunk, which is written
+ * straight into its slot of the preallocated staging file; the database is
+ * touched afterwards for a single conditional offset update. Every session
+ * preallocates its full size, so open sessions and reserved bytes are capped
+ * per user, and sessions idle for {@code uploadSessionExpiryHours} expire.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class UploadSessionServiceImpl implements UploadSessionService {
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UserRepository userRepository;
+    private final MediaUploadPipeline mediaPipeline;
+    private final TransactionTemplate transactionTemplate;
+    private final AppConfig appConfig;
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UploadSessionDTO createSession(Long userId, UploadSessionDTO.CreateUploadDTO createUploadDTO) {
+        AppConfig.FileStorage config = appConfig.getFileStorage();
+        if (createUploadDTO.getSize() > config.getMaxResumableFileSize()) {
+            throw new BadRequestException("File size exceeds maximum limit of "
+                    + config.getMaxResumableFileSize() + " bytes");
+        }
+        // The declared type is informational; the first chunk's leading bytes decide
+        String contentType = createUploadDTO.getContentType();
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setUserId(userId);
+        session.setOriginalFilename(createUploadDTO.getFilename());
+        session.setContentType(contentType);
+        session.setTotalSize(createUploadDTO.getSize());
+        session.setChunkSize(config.getUploadChunkSize());
+
+        expireAbandonedSessions(userId);
+        // The user row is held so concurrent requests cannot each pass the caps
+        UploadSession saved = transactionTemplate.execute(status -> {
+            userRepository.findByIdForUpdate(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+            if (uploadSessionRepository.countByUserId(userId) >= config.getMaxOpenUploadsPerUser()) {
+                throw new BadRequestException("Too many uploads in progress; finish or cancel one first");
+            }
+            if (uploadSessionRepository.sumTotalSizeByUserId(userId) + session.getTotalSize()
+                    > config.getMaxReservedUploadBytesPerUser()) {
+                throw new BadRequestException("Uploads in progress would exceed "
+                        + config.getMaxReservedUploadBytesPerUser() + " bytes; finish or cancel one first");
+            }
+            return uploadSessionRepository.save(session);
+        });
+
+        // Reserve the full length up front so chunks are positional writes into an existing file
+        try {
+            Path path = mediaPipeline.sessionFile(session.getId());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(1), session.getTotalSize() - 1);
+            }
+        } catch (IOException e) {
+            transactionTemplate.executeWithoutResult(status -> uploadSessionRepository.deleteById(session.getId()));
+            throw new BadRequestException("Failed to create upload: " + e.getMessage());
+        }
+        return convertToDTO(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UploadSessionDTO getSession(Long userId, String sessionId) {
+        return convertToDTO(getSessionEntity(userId, sessionId));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UploadSessionDTO appendChunk(Long userId, String sessionId, long offset, long length, InputStream content) {
+        UploadSession session = getSessionEntity(userId, sessionId);
+        if (session.getMediaFilename() != null) {
+            throw new BadRequestException("Upload is already complete");
+        }
+        if (offset != session.getReceivedBytes()) {
+            throw new BadRequestException("Chunk must start at offset " + session.getReceivedBytes());
+        }
+        long expected = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+        if (length != expected) {
+            throw new BadRequestException("Chunk at offset " + offset + " must be " + expected + " bytes");
+        }
+
+        // The format is checked before the first byte of the upload reaches the disk
+        MediaSignature signature = null;
+        byte[] header = null;
+        if (offset == 0) {
+            try {
+                header = content.readNBytes((int) Math.min(MediaSignature.HEADER_BYTES, length));
+            } catch (IOException e) {
+                throw new BadRequestException("Failed to read chunk: " + e.getMessage());
+            }
+            signature = mediaPipeline.requireAllowed(header);
+        }
+
+        try (FileChannel channel = FileChannel.open(mediaPipeline.sessionFile(sessionId), StandardOpenOption.WRITE)) {
+            long written = 0;
+            if (signature != null) {
+                ByteBuffer buffer = ByteBuffer.wrap(header);
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer, offset + written);
+                }
+            }
+            ReadableByteChannel in = Channels.newChannel(content);
+            while (written < length) {
+                long transferred = channel.transferFrom(in, offset + written, length - written);
+                if (transferred <= 0) {
+                    break;
+                }
+                written += transferred;
+            }
+            if (written < length) {
+                // The offset stays where it was, so the client simply resends this chunk
+                throw new BadRequestException("Chunk at offset " + offset + " was truncated");
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to write chunk: " + e.getMessage());
+        }
+
+        MediaSignature detectedType = signature;
+        Integer advanced = transactionTemplate.execute(status -> {
+            int updated = uploadSessionRepository.advance(sessionId, offset, offset + length);
+            if (updated > 0 && detectedType != null) {
+                uploadSessionRepository.recordDetectedType(sessionId, detectedType);
+            }
+            return updated;
+        });
+        if (advanced == null || advanced == 0) {
+            throw new BadRequestException("Chunk at offset " + offset + " was already written");
+        }
+        session.setReceivedBytes(offset + length);
+        if (detectedType != null) {
+            session.setDetectedType(detectedType);
+        }
+        return convertToDTO(session);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UploadSessionDTO completeSession(Long userId, String sessionId) {
+        UploadSession session = getSessionEntity(userId, sessionId);
+        if (session.getMediaFilename() != null) {
+            return convertToDTO(session);
+        }
+        if (session.getReceivedBytes() != session.getTotalSize()) {
+            throw new BadRequestException("Upload is incomplete; next chunk starts at offset "
+                    + session.getReceivedBytes());
+        }
+
+        try {
+            Path file = mediaPipeline.sessionFile(sessionId);
+            session.setMediaFilename(mediaPipeline.contentName(file, session.getDetectedType().getExtension()));
+            session.setMediaInfo(mediaPipeline.describe(file, session.getDetectedType()));
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to read upload: " + e.getMessage());
+        }
+        return convertToDTO(transactionTemplate.execute(status -> uploadSessionRepository.save(session)));
+    }
+
+    @Override
+    public void cancelSession(Long userId, String sessionId) {
+        UploadSession session = getSessionEntity(userId, sessionId);
+        uploadSessionRepository.delete(session);
+        try {
+            Files.deleteIfExists(mediaPipeline.sessionFile(sessionId));
+        } catch (IOException e) {
+            log.warn("Failed to delete upload file for session {}", sessionId, e);
+        }
+    }
+
+    /**
+     * Sessions that stopped receiving chunks would otherwise hold the user's
+     * caps until the nightly reclaim; the user's own are dropped before counting.
+     */
+    private void expireAbandonedSessions(Long userId) {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(appConfig.getFileStorage().getUploadSessionExpiryHours());
+        List<UploadSession> abandoned = transactionTemplate.execute(status -> {
+            List<UploadSession> sessions = uploadSessionRepository.findByUserIdAndUpdatedAtBefore(userId, cutoff);
+            uploadSessionRepository.deleteAllInBatch(sessions);
+            return sessions;
+        });
+        for (UploadSession session : abandoned) {
+            try {
+                deleteFile(mediaPipeline.sessionFile(session.getId()));
+            } catch (IOException e) {
+                log.warn("Failed to delete upload file for session {}", session.getId(), e);
+            }
+        }
+    }
+
+    private UploadSession getSessionEntity(Long userId, String sessionId) {
+        return uploadSessionRepository.findByIdAndUserId(sessionId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload", "id", sessionId));
+    }
+
+    private void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete upload file {}", path, e);
+        }
+    }
+
+    private UploadSessionDTO convertToDTO(UploadSession session) {
+        UploadSessionDTO dto = new UploadSessionDTO();
+        dto.setId(session.getId());
+        dto.setFilename(session.getOriginalFilename());
+        dto.setContentType(session.getDetectedType() != null
+                ? session.getDetectedType().getContentType()
+                : session.getContentType());
+        dto.setSize(session.getTotalSize());
+        dto.setChunkSize(session.getChunkSize());
+        dto.setOffset(session.getReceivedBytes());
+        dto.setComplete(session.getMediaFilename() != null);
+        dto.setCreatedAt(session.getCreatedAt());
+        dto.setUpdatedAt(session.getUpdatedAt());
+        return dto;
+    }
+}
@@ -1,25 +1,55 @@
 package com.example.skillsharing.service.impl;
 
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.dto.CursorPageDTO;
 import com.example.skillsharing.dto.UserDTO;
 import com.example.skillsharing.exception.BadRequestException;
 import com.example.skillsharing.exception.ResourceNotFoundException;
 import com.example.skillsharing.model.User;
+import com.example.skillsharing.repository.IdCount;
 import com.example.skillsharing.repository.UserRepository;
+import com.example.skillsharing.security.CurrentUserContext;
+import com.example.skillsharing.service.FeedService;
+import com.example.skillsharing.service.MediaStorage;
 import com.example.skillsharing.service.UserService;
+import com.example.skillsharing.util.Cursor;
+import com.example.skillsharing.util.IdCursor;
+import com.example.skillsharing.util.MediaSignature;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final FeedService feedService;
+    private final CurrentUserContext currentUserContext;
+    private final MediaStorage mediaStorage;
+    private final AppConfig appConfig;
 
     @Override
     public UserDTO createUser(UserDTO userDTO) {
@@ -37,7 +67,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDTO updateUser(Long userId, UserDTO userDTO) {
-        User user = getUserEntityById(userId);
+        User user = getUserEntityForUpdate(userId);
         
         // Check if email is being changed and if it's already in use
         if (!user.getEmail().equals(userDTO.getEmail()) && 
@@ -54,9 +84,56 @@ public class UserServiceImpl implements UserService {
         user.setUsername(userDTO.getUsername());
         user.setEmail(userDTO.getEmail());
         user.setBio(userDTO.getBio());
-        user.setProfilePicture(userDTO.getProfilePicture());
+        // The picture only changes through updateProfilePicture, which stored the file itself
+
+        User updatedUser = userRepository.save(user);
+        return convertToDTO(updatedUser);
+    }
+
+    @Override
+    public UserDTO updateProfilePicture(Long userId, MultipartFile file) {
+        if (file.getSize() > appConfig.getFileStorage().getMaxFileSize()) {
+            throw new BadRequestException("File size exceeds maximum limit of "
+                    + appConfig.getFileStorage().getMaxFileSize() + " bytes");
+        }
+
+        // The file is written before the user row is locked so the lock is not held across the disk
+        String filename;
+        try (InputStream content = file.getInputStream()) {
+            // The client's content type is not trusted; the leading bytes must be an allowed image
+            byte[] header = content.readNBytes(MediaSignature.HEADER_BYTES);
+            MediaSignature signature = MediaSignature.detect(header);
+            if (signature == null || !signature.getContentType().startsWith("image/")
+                    || !appConfig.getFileStorage().getAllowedFileTypes().isEmpty()
+                    && !appConfig.getFileStorage().getAllowedFileTypes().contains(signature.getContentType())) {
+                throw new BadRequestException("Invalid file type. Only images are allowed");
+            }
+            filename = mediaStorage.put(MediaStorage.Area.PROFILE_PICTURES,
+                    new SequenceInputStream(new ByteArrayInputStream(header), content), signature.getExtension());
+        } catch (IOException e) {
+            throw new BadRequestException("Failed to save profile picture: " + e.getMessage());
+        }
 
+        // A failure before the synchronization is registered leaves the file to MediaReclaimer
+        String url = mediaStorage.urlOf(MediaStorage.Area.PROFILE_PICTURES, filename);
+        User user = getUserEntityForUpdate(userId);
+        String previous = user.getProfilePicture();
+        user.setProfilePicture(url);
         User updatedUser = userRepository.save(user);
+
+        // Rows written before pictures were upload-only may point at another user's file
+        boolean previousShared = previous != null
+                && !userRepository.findProfilePicturesIn(List.of(previous)).isEmpty();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    deleteProfilePicture(url);
+                } else if (!previousShared) {
+                    deleteProfilePicture(previous);
+                }
+            }
+        });
         return convertToDTO(updatedUser);
     }
 
@@ -78,7 +155,8 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(this::convertToDTO);
+        Page<User> users = userRepository.findAll(pageable);
+        return new PageImpl<>(convertToDTOs(users.getContent()), pageable, users.getTotalElements());
     }
 
     @Override
@@ -95,15 +173,16 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Users cannot follow themselves");
         }
 
-        User user = getUserEntityById(userId);
         User targetUser = getUserEntityById(targetUserId);
 
-        if (user.getFollowing().contains(targetUser)) {
+        // Write the user_followers edge directly instead of loading either follow set
+        if (userRepository.existsFollow(userId, targetUserId)) {
             throw new BadRequestException("Already following this user");
         }
 
-        user.getFollowing().add(targetUser);
-        userRepository.save(user);
+        userRepository.insertFollow(userId, targetUserId);
+        feedService.backfillAuthor(userId, targetUserId);
+        recordFollowing(userId, targetUserId, true);
         
         return convertToDTO(targetUser);
     }
@@ -114,15 +193,14 @@ public class UserServiceImpl implements UserService {
             throw new BadRequestException("Users cannot unfollow themselves");
         }
 
-        User user = getUserEntityById(userId);
         User targetUser = getUserEntityById(targetUserId);
 
-        if (!user.getFollowing().contains(targetUser)) {
+        if (userRepository.deleteFollow(userId, targetUserId) == 0) {
             throw new BadRequestException("Not following this user");
         }
 
-        user.getFollowing().remove(targetUser);
-        userRepository.save(user);
+        feedService.pruneAuthor(userId, targetUserId);
+        recordFollowing(userId, targetUserId, false);
         
         return convertToDTO(targetUser);
     }
@@ -130,44 +208,64 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public Page<UserDTO> getFollowers(Long userId, Pageable pageable) {
-        User user = getUserEntityById(userId);
-        return userRepository.findAll(pageable)
-            .map(u -> {
-                UserDTO dto = convertToDTO(u);
-                dto.setFollowing(u.getFollowing().contains(user));
-                return dto;
-            });
+        getUserReference(userId);
+        // Ordered by the index, so a client-supplied sort does not apply
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return toDTOPage(userRepository.findFollowers(userId, unsorted));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserDTO> getFollowers(Long userId, String cursor, int size) {
+        getUserReference(userId);
+        Long afterId = IdCursor.decode(cursor);
+        Slice<User> users = userRepository.findFollowersAfter(userId, afterId == null ? 0L : afterId, Cursor.limit(size));
+        return CursorPageDTO.ofTokens(users, convertToDTOs(users.getContent()), user -> IdCursor.encode(user.getId()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<UserDTO> getFollowing(Long userId, Pageable pageable) {
-        User user = getUserEntityById(userId);
-        return userRepository.findAll(pageable)
-            .map(u -> {
-                UserDTO dto = convertToDTO(u);
-                dto.setFollowing(user.getFollowing().contains(u));
-                return dto;
-            });
+        getUserReference(userId);
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return toDTOPage(userRepository.findFollowing(userId, unsorted));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<UserDTO> getFollowing(Long userId, String cursor, int size) {
+        getUserReference(userId);
+        Long afterId = IdCursor.decode(cursor);
+        Slice<User> users = userRepository.findFollowingAfter(userId, afterId == null ? 0L : afterId, Cursor.limit(size));
+        return CursorPageDTO.ofTokens(users, convertToDTOs(users.getContent()), user -> IdCursor.encode(user.getId()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public boolean isFollowing(Long userId, Long targetUserId) {
-        User user = getUserEntityById(userId);
-        User targetUser = getUserEntityById(targetUserId);
-        return user.getFollowing().contains(targetUser);
+        getUserReference(targetUserId);
+        return userRepository.existsFollow(userId, targetUserId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public User getCurrentUser() {
+        // By primary key, so repeated calls in a request are served by the persistence context
+        Long userId = currentUserContext.getUserId();
+        if (userId != null) {
+            return getUserEntityById(userId);
+        }
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String email = authentication.getName();
         return userRepository.findByEmail(email)
             .orElseThrow(() -> new ResourceNotFoundException("User", "email", email));
     }
 
+    @Override
+    public Long getCurrentUserId() {
+        return currentUserContext.getUserId();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserDTO getCurrentUserDTO() {
@@ -181,26 +279,55 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
     }
 
+    /**
+     * Returns an uninitialized proxy for an existing user, for callers that only
+     * need the user as an association or query parameter. Costs an existence
+     * check; the row itself is loaded only if the proxy's state is read.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public User getUserReference(Long userId) {
+        if (userId == null || !userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        return userRepository.getReferenceById(userId);
+    }
+
     @Override
     public UserDTO convertToDTO(User user) {
-        UserDTO dto = new UserDTO();
-        dto.setId(user.getId());
-        dto.setUsername(user.getUsername());
-        dto.setEmail(user.getEmail());
-        dto.setBio(user.getBio());
-        dto.setProfilePicture(user.getProfilePicture());
-        dto.setFollowersCount(user.getFollowers().size());
-        dto.setFollowingCount(user.getFollowing().size());
-        
-        // Set isFollowing if there's a current user
-        try {
-            User currentUser = getCurrentUser();
-            dto.setFollowing(currentUser.getFollowing().contains(user));
-        } catch (Exception e) {
-            dto.setFollowing(false);
+        return convertToDTOs(List.of(user)).get(0);
+    }
+
+    @Override
+    public List<UserDTO> convertToDTOs(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
         }
-        
-        return dto;
+
+        // Follow counts and the current user's follow flags are resolved for the
+        // whole list at once rather than by loading each user's follow sets
+        Set<Long> userIds = users.stream().map(User::getId).collect(Collectors.toSet());
+        Map<Long, Long> followersCounts = IdCount.toMap(userRepository.countFollowers(userIds));
+        Map<Long, Long> followingCounts = IdCount.toMap(userRepository.countFollowing(userIds));
+
+        Long currentUserId = currentUserContext.getUserId();
+        Set<Long> followedIds = currentUserContext.getFollowedIds(userIds,
+            ids -> userRepository.findFollowedIds(currentUserId, ids));
+
+        return users.stream()
+            .map(user -> {
+                UserDTO dto = new UserDTO();
+                dto.setId(user.getId());
+                dto.setUsername(user.getUsername());
+                dto.setEmail(user.getEmail());
+                dto.setBio(user.getBio());
+                dto.setProfilePicture(user.getProfilePicture());
+                dto.setFollowersCount(followersCounts.getOrDefault(user.getId(), 0L).intValue());
+                dto.setFollowingCount(followingCounts.getOrDefault(user.getId(), 0L).intValue());
+                dto.setFollowing(followedIds.contains(user.getId()));
+                return dto;
+            })
+            .toList();
     }
 
     @Override
@@ -209,7 +336,34 @@ public class UserServiceImpl implements UserService {
         user.setUsername(userDTO.getUsername());
         user.setEmail(userDTO.getEmail());
         user.setBio(userDTO.getBio());
-        user.setProfilePicture(userDTO.getProfilePicture());
         return user;
     }
+
+    private Page<UserDTO> toDTOPage(Page<User> users) {
+        return new PageImpl<>(convertToDTOs(users.getContent()), users.getPageable(), users.getTotalElements());
+    }
+
+    private User getUserEntityForUpdate(Long userId) {
+        return userRepository.findByIdForUpdate(userId)
+            .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+    }
+
+    private void recordFollowing(Long userId, Long targetUserId, boolean following) {
+        if (userId.equals(currentUserContext.getUserId())) {
+            currentUserContext.setFollowing(targetUserId, following);
+        }
+    }
+
+    // Only pictures we stored ourselves are removed; OAuth2 avatars are external URLs
+    private void deleteProfilePicture(String url) {
+        String prefix = mediaStorage.urlOf(MediaStorage.Area.PROFILE_PICTURES, "");
+        if (url == null || !url.startsWith(prefix)) {
+            return;
+        }
+        try {
+            mediaStorage.delete(MediaStorage.Area.PROFILE_PICTURES, url.substring(prefix.length()));
+        } catch (IOException e) {
+            log.warn("Failed to delete profile picture {}", url, e);
+        }
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.skillsharing.util;
+
+/**
+ * Inclusive byte range taken from a single-range {@code Range: bytes=...} header.
+ */
+public record ByteRange(long start, long end) {
+
+    private static final String UNIT = "bytes=";
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long totalLength) {
+        return "bytes " + start + "-" + end + "/" + totalLength;
+    }
+
+    /**
+     * Parses a Range header against a resource of the given length. Returns
+     * {@code null} when the header should be ignored and the whole resource sent:
+     * no header, a unit other than bytes, malformed syntax, or several ranges.
+     *
+     * @throws NotSatisfiableException if the range lies entirely past the end
+     */
+    public static ByteRange parse(String header, long totalLength) {
+        if (header == null || !header.startsWith(UNIT) || header.indexOf(',') >= 0) {
+            return null;
+        }
+
+        String spec = header.substring(UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the final N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || totalLength == 0) {
+                    throw new NotSatisfiableException();
+                }
+                return new ByteRange(Math.max(0, totalLength - suffix), totalLength - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= totalLength) {
+                throw new NotSatisfiableException();
+            }
+            return new ByteRange(start, Math.min(end, totalLength - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static class NotSatisfiableException extends RuntimeException {
+        public NotSatisfiableException() {
+            super("Requested range not satisfiable");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.skillsharing.util;
+
+import com.example.skillsharing.exception.BadRequestException;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Materialized paths for threaded comments. A path lists the ids from the
+ * top-level comment down to the comment itself as fixed-width base-36 segments,
+ * each followed by a separator, so that sorting by path walks a thread depth
+ * first and every subtree is the range of paths sharing its root's prefix.
+ */
+public final class CommentPath {
+
+    // Wide enough for Long.MAX_VALUE in base 36
+    private static final int SEGMENT_WIDTH = 13;
+    private static final char SEPARATOR = '/';
+    private static final Pattern VALID = Pattern.compile("([0-9a-z]{" + SEGMENT_WIDTH + "}/)+");
+
+    private CommentPath() {
+    }
+
+    /**
+     * Path of the comment with the given id below {@code parentPath}, or of a
+     * top-level comment when the parent path is null.
+     */
+    public static String childOf(String parentPath, long id) {
+        String segment = Long.toString(id, 36);
+        StringBuilder path = new StringBuilder(parentPath == null ? "" : parentPath);
+        path.append("0".repeat(SEGMENT_WIDTH - segment.length())).append(segment).append(SEPARATOR);
+        return path.toString();
+    }
+
+    /**
+     * Opaque token resuming a subtree listing after the comment with this path.
+     */
+    public static String encode(String path) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(path.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode}; a missing or blank token
+     * yields {@code null}.
+     */
+    public static String decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            String path = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            if (!VALID.matcher(path).matches()) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return path;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
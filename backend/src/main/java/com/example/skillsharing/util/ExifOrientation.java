@@ -0,0 +1,120 @@
+package com.example.skillsharing.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The EXIF Orientation tag of a JPEG file: how the stored pixels must be
+ * rotated or flipped to appear upright. Cameras and phones store pictures in
+ * sensor order and set this tag instead of rotating the pixels. Only the
+ * segments before the image data are read.
+ */
+public final class ExifOrientation {
+
+    /**
+     * Pixels are stored upright; also what files without the tag get.
+     */
+    public static final int NORMAL = 1;
+
+    private static final int SOI = 0xD8;
+    private static final int SOS = 0xDA;
+    private static final int EOI = 0xD9;
+    private static final int APP1 = 0xE1;
+    private static final int ORIENTATION_TAG = 0x0112;
+    private static final byte[] EXIF_HEADER = {'E', 'x', 'i', 'f', 0, 0};
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * Reads the orientation, 1 to 8 as defined by EXIF, or {@link #NORMAL} when
+     * the file is not a JPEG or carries no valid tag. Segment contents are not
+     * trusted; malformed metadata yields NORMAL rather than an exception.
+     */
+    public static int read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readUnsignedByte() != 0xFF || in.readUnsignedByte() != SOI) {
+                return NORMAL;
+            }
+            while (true) {
+                int marker = nextMarker(in);
+                if (marker == SOS || marker == EOI) {
+                    return NORMAL;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return NORMAL;
+                }
+                if (marker == APP1 && length > EXIF_HEADER.length) {
+                    byte[] segment = in.readNBytes(length);
+                    if (startsWithExifHeader(segment)) {
+                        return parseTiff(ByteBuffer.wrap(segment, EXIF_HEADER.length, segment.length - EXIF_HEADER.length)
+                                .slice());
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (EOFException e) {
+            return NORMAL;
+        }
+    }
+
+    // Markers may be preceded by any number of 0xFF fill bytes
+    private static int nextMarker(InputStream in) throws IOException {
+        int b = in.read();
+        if (b != 0xFF) {
+            throw new EOFException("Expected a JPEG marker");
+        }
+        while (b == 0xFF) {
+            b = in.read();
+        }
+        if (b < 0) {
+            throw new EOFException("Truncated JPEG marker");
+        }
+        return b;
+    }
+
+    private static boolean startsWithExifHeader(byte[] segment) {
+        for (int i = 0; i < EXIF_HEADER.length; i++) {
+            if (segment[i] != EXIF_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int parseTiff(ByteBuffer tiff) {
+        try {
+            if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+                tiff.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+                return NORMAL;
+            }
+            if (tiff.getShort(2) != 42) {
+                return NORMAL;
+            }
+            int ifd = tiff.getInt(4);
+            int entries = tiff.getShort(ifd) & 0xffff;
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if ((tiff.getShort(entry) & 0xffff) == ORIENTATION_TAG) {
+                    int orientation = tiff.getShort(entry + 8) & 0xffff;
+                    return orientation >= 1 && orientation <= 8 ? orientation : NORMAL;
+                }
+            }
+            return NORMAL;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            // An offset pointing outside the segment
+            return NORMAL;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.skillsharing.util;
+
+import com.example.skillsharing.exception.BadRequestException;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by id alone, for lists whose rows carry no
+ * timestamp to page by with {@link Cursor}. Encoded the same way, so clients
+ * cannot tell the two apart.
+ */
+public final class IdCursor {
+
+    private IdCursor() {
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode}; a missing or blank token
+     * yields {@code null}.
+     */
+    public static Long decode(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.skillsharing.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Media formats recognised from the leading bytes of their content, so uploads
+ * are classified by what they are rather than by what the client calls them.
+ */
+public enum MediaSignature {
+    JPEG("image/jpeg", ".jpg"),
+    PNG("image/png", ".png"),
+    GIF("image/gif", ".gif"),
+    MP4("video/mp4", ".mp4"),
+    QUICKTIME("video/quicktime", ".mov");
+
+    /**
+     * Number of leading bytes {@link #detect} needs.
+     */
+    public static final int HEADER_BYTES = 12;
+
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    // ISO base media brands that are still images rather than video
+    private static final Set<String> IMAGE_BRANDS = Set.of("heic", "heix", "heim", "heis", "mif1", "msf1", "avif", "avis");
+
+    // Classic QuickTime files may start with one of these atoms instead of ftyp
+    private static final Set<String> QUICKTIME_ATOMS = Set.of("moov", "mdat", "wide", "free", "skip", "pnot");
+
+    private final String contentType;
+    private final String extension;
+
+    MediaSignature(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public boolean isVideo() {
+        return this == MP4 || this == QUICKTIME;
+    }
+
+    /**
+     * Identifies the format from the first bytes of the content, or returns
+     * {@code null} if it is none of the supported ones.
+     */
+    public static MediaSignature detect(byte[] header) {
+        if (startsWith(header, new byte[]{(byte) 0xff, (byte) 0xd8, (byte) 0xff})) {
+            return JPEG;
+        }
+        if (startsWith(header, PNG_MAGIC)) {
+            return PNG;
+        }
+        if (startsWith(header, ascii("GIF87a")) || startsWith(header, ascii("GIF89a"))) {
+            return GIF;
+        }
+        if (header.length >= HEADER_BYTES) {
+            String boxType = new String(header, 4, 4, StandardCharsets.ISO_8859_1);
+            if (boxType.equals("ftyp")) {
+                String brand = new String(header, 8, 4, StandardCharsets.ISO_8859_1);
+                if (brand.equals("qt  ")) {
+                    return QUICKTIME;
+                }
+                return IMAGE_BRANDS.contains(brand) ? null : MP4;
+            }
+            if (QUICKTIME_ATOMS.contains(boxType)) {
+                return QUICKTIME;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, byte[] magic) {
+        return header.length >= magic.length && Arrays.equals(header, 0, magic.length, magic, 0, magic.length);
+    }
+
+    private static byte[] ascii(String magic) {
+        return magic.getBytes(StandardCharsets.US_ASCII);
+    }
+}
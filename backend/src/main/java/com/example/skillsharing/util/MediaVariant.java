@@ -0,0 +1,54 @@
+package com.example.skillsharing.util;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Downscaled renditions generated for photo uploads. A variant is stored next to
+ * its original as {@code <name>-<suffix><ext>}, so its name can always be derived
+ * without a lookup.
+ */
+public enum MediaVariant {
+    THUMBNAIL("thumb"),
+    MEDIUM("medium");
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png");
+
+    private final String suffix;
+
+    MediaVariant(String suffix) {
+        this.suffix = suffix;
+    }
+
+    public String nameFor(String original) {
+        int dot = original.lastIndexOf('.');
+        return original.substring(0, dot) + "-" + suffix + original.substring(dot);
+    }
+
+    /**
+     * Whether variants are generated for this original. Animated formats are
+     * left alone since re-encoding would keep only the first frame.
+     */
+    public static boolean supports(String filename) {
+        int dot = filename == null ? -1 : filename.lastIndexOf('.');
+        return dot > 0 && IMAGE_EXTENSIONS.contains(filename.substring(dot).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Original filename for a variant filename, or {@code null} if it is not one.
+     */
+    public static String originalOf(String filename) {
+        if (!supports(filename)) {
+            return null;
+        }
+        int dot = filename.lastIndexOf('.');
+        String base = filename.substring(0, dot);
+        for (MediaVariant variant : values()) {
+            String marker = "-" + variant.suffix;
+            if (base.endsWith(marker)) {
+                return base.substring(0, base.length() - marker.length()) + filename.substring(dot);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.skillsharing.util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Duration and display size of an MP4 or QuickTime file, read from its
+ * {@code moov} box. Only box headers are read while looking for {@code moov},
+ * which may sit before or after the media data, and only {@code moov} itself is
+ * mapped into memory, so the cost does not depend on the length of the video.
+ *
+ * @param durationMs length of the presentation, or null if unknown
+ * @param width      display width of the first video track, or null without one
+ * @param height     display height of the first video track, or null without one
+ */
+public record Mp4Metadata(Long durationMs, Integer width, Integer height) {
+
+    // Far above any real moov box; guards against mapping a corrupt length
+    private static final long MAX_MOOV_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * Reads the metadata of the file, or returns {@code null} if it has no
+     * readable {@code moov} box. Box contents are not trusted; a truncated or
+     * malformed structure yields null rather than an exception.
+     */
+    public static Mp4Metadata read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(16);
+            long position = 0;
+            while (position + 8 <= fileSize) {
+                header.clear();
+                while (header.hasRemaining() && channel.read(header, position + header.position()) > 0) {
+                    // Positional reads may return short near the end of the file
+                }
+                header.flip();
+                if (header.remaining() < 8) {
+                    return null;
+                }
+                long size = header.getInt() & 0xffffffffL;
+                String type = type(header);
+                int headerLength = 8;
+                if (size == 1) {
+                    if (header.remaining() < 8) {
+                        return null;
+                    }
+                    size = header.getLong();
+                    headerLength = 16;
+                } else if (size == 0) {
+                    size = fileSize - position;
+                }
+                if (size < headerLength || position + size > fileSize) {
+                    return null;
+                }
+                if (type.equals("moov")) {
+                    long bodyLength = size - headerLength;
+                    if (bodyLength > MAX_MOOV_BYTES) {
+                        return null;
+                    }
+                    try {
+                        return parseMovie(channel.map(FileChannel.MapMode.READ_ONLY, position + headerLength, bodyLength));
+                    } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+                        // A header box shorter than its version says
+                        return null;
+                    }
+                }
+                position += size;
+            }
+            return null;
+        }
+    }
+
+    private static Mp4Metadata parseMovie(ByteBuffer moov) {
+        Long durationMs = null;
+        Integer width = null;
+        Integer height = null;
+        for (ByteBuffer box = nextBox(moov); box != null; box = nextBox(moov)) {
+            String type = type(box);
+            if (type.equals("mvhd")) {
+                durationMs = parseMovieHeader(box);
+            } else if (type.equals("trak") && width == null) {
+                int[] size = parseTrack(box);
+                if (size != null) {
+                    width = size[0];
+                    height = size[1];
+                }
+            }
+        }
+        return new Mp4Metadata(durationMs, width, height);
+    }
+
+    private static Long parseMovieHeader(ByteBuffer mvhd) {
+        int version = mvhd.get() & 0xff;
+        mvhd.position(mvhd.position() + 3);
+        long timescale;
+        long duration;
+        if (version == 1) {
+            mvhd.position(mvhd.position() + 16);
+            timescale = mvhd.getInt() & 0xffffffffL;
+            duration = mvhd.getLong();
+        } else {
+            mvhd.position(mvhd.position() + 8);
+            timescale = mvhd.getInt() & 0xffffffffL;
+            duration = mvhd.getInt() & 0xffffffffL;
+        }
+        // All ones means the duration is not known
+        if (timescale == 0 || duration < 0 || duration == 0xffffffffL && version == 0) {
+            return null;
+        }
+        return duration * 1000 / timescale;
+    }
+
+    // Display size of a video track as {width, height}, or null for any other kind of track
+    private static int[] parseTrack(ByteBuffer trak) {
+        int[] size = null;
+        boolean video = false;
+        for (ByteBuffer box = nextBox(trak); box != null; box = nextBox(trak)) {
+            String type = type(box);
+            if (type.equals("tkhd")) {
+                size = parseTrackHeader(box);
+            } else if (type.equals("mdia")) {
+                for (ByteBuffer child = nextBox(box); child != null; child = nextBox(box)) {
+                    if (type(child).equals("hdlr") && child.remaining() >= 12) {
+                        child.position(child.position() + 8);
+                        video = type(child).equals("vide");
+                    }
+                }
+            }
+        }
+        return video && size != null && size[0] > 0 && size[1] > 0 ? size : null;
+    }
+
+    private static int[] parseTrackHeader(ByteBuffer tkhd) {
+        int version = tkhd.get() & 0xff;
+        tkhd.position(tkhd.position() + 3);
+        // Times, track id and duration, then reserved, layer, group, volume and reserved
+        tkhd.position(tkhd.position() + (version == 1 ? 32 : 20) + 16);
+        int a = tkhd.getInt();
+        int b = tkhd.getInt();
+        tkhd.position(tkhd.position() + 4);
+        int c = tkhd.getInt();
+        int d = tkhd.getInt();
+        tkhd.position(tkhd.position() + 16);
+        // 16.16 fixed point
+        int width = tkhd.getInt() >>> 16;
+        int height = tkhd.getInt() >>> 16;
+        // Phones record portrait video as landscape plus a quarter-turn matrix
+        boolean quarterTurn = a == 0 && d == 0 && b != 0 && c != 0;
+        return quarterTurn ? new int[]{height, width} : new int[]{width, height};
+    }
+
+    /**
+     * Slices the next child box body off {@code parent} and advances past it, or
+     * returns null when no complete box is left. The box type is left in front
+     * of the returned body for {@link #type}.
+     */
+    private static ByteBuffer nextBox(ByteBuffer parent) {
+        if (parent.remaining() < 8) {
+            return null;
+        }
+        int start = parent.position();
+        long size = parent.getInt(start) & 0xffffffffL;
+        int headerLength = 8;
+        if (size == 1) {
+            if (parent.remaining() < 16) {
+                return null;
+            }
+            size = parent.getLong(start + 8);
+            headerLength = 16;
+        } else if (size == 0) {
+            size = parent.remaining();
+        }
+        if (size < headerLength || size > parent.remaining()) {
+            return null;
+        }
+        ByteBuffer box = parent.slice(start + 4, (int) size - 4);
+        if (headerLength == 16) {
+            // Keep the type in front of the body, dropping the 64-bit size
+            box = ByteBuffer.allocate((int) size - 12)
+                    .put(parent.slice(start + 4, 4))
+                    .put(parent.slice(start + 16, (int) size - 16))
+                    .flip();
+        }
+        parent.position(start + (int) size);
+        return box;
+    }
+
+    private static String type(ByteBuffer buffer) {
+        byte[] type = new byte[4];
+        buffer.get(type);
+        return new String(type, StandardCharsets.ISO_8859_1);
+    }
+}
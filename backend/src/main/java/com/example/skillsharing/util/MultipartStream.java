@@ -0,0 +1,349 @@
+package com.example.skillsharing.util;
+
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a multipart/form-data body one part at a time. Each part's body is a
+ * stream over the request itself, so a file part can be written to its
+ * destination as it arrives and rejected before the rest of it is read.
+ * Moving to the next part skips whatever is left of the current one.
+ */
+public abstract class MultipartStream {
+
+    private static final Pattern BOUNDARY = Pattern.compile(";\\s*boundary=(\"?)([^\";]{1,70})\\1", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DISPOSITION_PARAM = Pattern.compile(
+            ";\\s*([A-Za-z*-]+)\\s*=\\s*(?:\"((?:[^\"\\\\]|\\\\.)*)\"|([^;\\s]*))");
+
+    /**
+     * Returns the next part, or null once the closing boundary has been read.
+     */
+    public abstract Part nextPart() throws IOException;
+
+    /**
+     * Parses the raw request body.
+     */
+    public static MultipartStream parse(InputStream in, String boundary) {
+        return new Parser(in, boundary);
+    }
+
+    /**
+     * Walks a request whose parts were already parsed upstream, such as one built
+     * by MockMvc, so callers handle both the same way.
+     */
+    public static MultipartStream of(MultipartHttpServletRequest request) {
+        Deque<Part> parts = new ArrayDeque<>();
+        request.getParameterMap().forEach((name, values) -> {
+            for (String value : values) {
+                parts.add(new Part(name, null, null,
+                        new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8))));
+            }
+        });
+        request.getMultiFileMap().forEach((name, files) -> {
+            for (MultipartFile file : files) {
+                parts.add(new Part(name, file.getOriginalFilename(), file.getContentType(), new LazyInputStream(file)));
+            }
+        });
+        return new MultipartStream() {
+            @Override
+            public Part nextPart() {
+                return parts.poll();
+            }
+        };
+    }
+
+    /**
+     * Extracts the boundary parameter of a multipart Content-Type, or null if
+     * there is none.
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        Matcher matcher = BOUNDARY.matcher(contentType);
+        return matcher.find() ? matcher.group(2) : null;
+    }
+
+    /**
+     * A single part. {@code filename} is null for plain form fields; the body is
+     * only readable until the next call to {@link #nextPart()}.
+     */
+    public record Part(String name, String filename, String contentType, InputStream body) {
+
+        public boolean isFile() {
+            return filename != null;
+        }
+    }
+
+    private static final class Parser extends MultipartStream {
+
+        private static final int BUFFER_SIZE = 16 * 1024;
+        private static final int MAX_HEADER_BYTES = 8 * 1024;
+
+        private final InputStream in;
+        private final byte[] delimiter;
+        private final byte[] buffer;
+        private int head;
+        private int tail;
+        private PartInputStream current;
+        private boolean finished;
+
+        Parser(InputStream in, String boundary) {
+            this.in = in;
+            this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+            this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+            // The first boundary has no line break in front of it; supplying one lets the
+            // preamble be skipped like any other part body
+            buffer[tail++] = '\r';
+            buffer[tail++] = '\n';
+        }
+
+        @Override
+        public Part nextPart() throws IOException {
+            if (finished) {
+                return null;
+            }
+            if (current == null) {
+                current = new PartInputStream();
+            }
+            current.skipRemaining();
+
+            int first = readByte();
+            int second = readByte();
+            if (first == '-' && second == '-') {
+                finished = true;
+                return null;
+            }
+            // Transport padding may follow the boundary before its line break
+            while (first == ' ' || first == '\t') {
+                first = second;
+                second = readByte();
+            }
+            if (first != '\r' || second != '\n') {
+                throw new IOException("Malformed multipart boundary");
+            }
+
+            Map<String, String> headers = readHeaders();
+            String disposition = headers.get("content-disposition");
+            if (disposition == null || !disposition.toLowerCase(Locale.ROOT).startsWith("form-data")) {
+                throw new IOException("Multipart part without form-data disposition");
+            }
+            String name = null;
+            String filename = null;
+            Matcher matcher = DISPOSITION_PARAM.matcher(disposition);
+            while (matcher.find()) {
+                String value = matcher.group(2) != null ? matcher.group(2).replaceAll("\\\\(.)", "$1") : matcher.group(3);
+                switch (matcher.group(1).toLowerCase(Locale.ROOT)) {
+                    case "name" -> name = value;
+                    case "filename" -> filename = value;
+                    default -> {
+                    }
+                }
+            }
+
+            current = new PartInputStream();
+            return new Part(name, filename, headers.get("content-type"), current);
+        }
+
+        private Map<String, String> readHeaders() throws IOException {
+            byte[] block = new byte[MAX_HEADER_BYTES];
+            int length = 0;
+            while (length < 4 || block[length - 4] != '\r' || block[length - 3] != '\n'
+                    || block[length - 2] != '\r' || block[length - 1] != '\n') {
+                if (length == 2 && block[0] == '\r' && block[1] == '\n') {
+                    // A part without any headers
+                    return Map.of();
+                }
+                if (length == block.length) {
+                    throw new IOException("Multipart headers exceed " + MAX_HEADER_BYTES + " bytes");
+                }
+                block[length++] = (byte) readByte();
+            }
+
+            Map<String, String> headers = new HashMap<>();
+            for (String line : new String(block, 0, length - 4, StandardCharsets.UTF_8).split("\r\n")) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                }
+            }
+            return headers;
+        }
+
+        private int readByte() throws IOException {
+            if (head == tail && !fill()) {
+                throw new EOFException("Unexpected end of multipart body");
+            }
+            return buffer[head++] & 0xff;
+        }
+
+        // Moves the unread bytes to the front and appends what the request has ready
+        private boolean fill() throws IOException {
+            if (head > 0) {
+                System.arraycopy(buffer, head, buffer, 0, tail - head);
+                tail -= head;
+                if (current != null) {
+                    current.shift(head);
+                }
+                head = 0;
+            }
+            int read = in.read(buffer, tail, buffer.length - tail);
+            if (read < 0) {
+                return false;
+            }
+            tail += read;
+            return true;
+        }
+
+        private int indexOfDelimiter(int from) {
+            outer:
+            for (int i = from; i <= tail - delimiter.length; i++) {
+                for (int j = 0; j < delimiter.length; j++) {
+                    if (buffer[i + j] != delimiter[j]) {
+                        continue outer;
+                    }
+                }
+                return i;
+            }
+            return -1;
+        }
+
+        private final class PartInputStream extends InputStream {
+
+            // Buffer positions before which everything is known to be body
+            private int bodyEnd = -1;
+            private int delimiterAt = -1;
+            private boolean done;
+
+            @Override
+            public int read() throws IOException {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (done) {
+                    return -1;
+                }
+                if (len == 0) {
+                    return 0;
+                }
+                int available = available();
+                if (available == 0) {
+                    head += delimiter.length;
+                    done = true;
+                    return -1;
+                }
+                int count = Math.min(available, len);
+                System.arraycopy(buffer, head, b, off, count);
+                head += count;
+                return count;
+            }
+
+            // Body bytes that can be handed out now; 0 only when the delimiter is next
+            @Override
+            public int available() throws IOException {
+                if (done) {
+                    return 0;
+                }
+                while (true) {
+                    if (delimiterAt >= 0) {
+                        return delimiterAt - head;
+                    }
+                    if (bodyEnd > head) {
+                        return bodyEnd - head;
+                    }
+                    int found = indexOfDelimiter(head);
+                    if (found >= 0) {
+                        delimiterAt = found;
+                        continue;
+                    }
+                    // The tail may hold the start of a delimiter split across reads
+                    int safe = tail - delimiter.length + 1;
+                    if (safe > head) {
+                        bodyEnd = safe;
+                        continue;
+                    }
+                    if (!fill()) {
+                        throw new EOFException("Unexpected end of multipart body");
+                    }
+                }
+            }
+
+            void skipRemaining() throws IOException {
+                while (!done) {
+                    int available = available();
+                    if (available == 0) {
+                        head += delimiter.length;
+                        done = true;
+                    } else {
+                        head += available;
+                    }
+                }
+            }
+
+            void shift(int by) {
+                if (delimiterAt >= 0) {
+                    delimiterAt -= by;
+                }
+                if (bodyEnd >= 0) {
+                    bodyEnd -= by;
+                }
+            }
+
+            @Override
+            public void close() {
+                // The request stream belongs to the container; the rest is skipped by nextPart
+            }
+        }
+    }
+
+    // Opens a resolved file's stream only when the part is actually read
+    private static final class LazyInputStream extends InputStream {
+
+        private final MultipartFile file;
+        private InputStream delegate;
+
+        LazyInputStream(MultipartFile file) {
+            this.file = file;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return delegate().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return delegate().read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate != null) {
+                delegate.close();
+            }
+        }
+
+        private InputStream delegate() throws IOException {
+            if (delegate == null) {
+                delegate = file.getInputStream();
+            }
+            return delegate;
+        }
+    }
+}
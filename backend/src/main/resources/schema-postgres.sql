@@ -0,0 +1,123 @@
+-- Schema changes for the production PostgreSQL database.
+--
+-- Production runs with ddl-auto=validate, so columns, tables and indexes the
+-- entities gained after the original schema are added here. Spring runs this
+-- script on every start of the prod profile, before Hibernate validates, so each
+-- statement must be safe to repeat. Append new changes at the end, grouped by
+-- the change that introduced them.
+
+-- Materialized home timeline (FeedEntry)
+CREATE TABLE IF NOT EXISTS feed_entries (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient_id BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    post_id BIGINT NOT NULL REFERENCES skill_sharing_posts (id),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_feed_entries_recipient_post UNIQUE (recipient_id, post_id)
+);
+CREATE INDEX IF NOT EXISTS idx_feed_recipient_created ON feed_entries (recipient_id, created_at, post_id);
+CREATE INDEX IF NOT EXISTS idx_feed_recipient_author ON feed_entries (recipient_id, author_id);
+CREATE INDEX IF NOT EXISTS idx_feed_post ON feed_entries (post_id);
+-- Seed existing timelines by starting once with app.feed.backfillOnStartup=true
+
+-- Keyset pagination over (owner, created_at, id)
+CREATE INDEX IF NOT EXISTS idx_post_user_created ON skill_sharing_posts (user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_comment_post_created ON comments (post_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_notification_user_created ON notifications (user_id, created_at, id);
+
+-- Denormalized post counters
+ALTER TABLE skill_sharing_posts ADD COLUMN IF NOT EXISTS like_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE skill_sharing_posts ADD COLUMN IF NOT EXISTS comment_count BIGINT NOT NULL DEFAULT 0;
+-- Backfill: only posts still at zero that have rows to count are touched, so
+-- after the first start these find nothing. Drift from instances running the
+-- old code during the rollout is repaired by PostCounterReconciler.
+UPDATE skill_sharing_posts p SET like_count = (SELECT COUNT(*) FROM post_likes l WHERE l.post_id = p.id)
+    WHERE p.like_count = 0 AND EXISTS (SELECT 1 FROM post_likes l WHERE l.post_id = p.id);
+UPDATE skill_sharing_posts p SET comment_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id)
+    WHERE p.comment_count = 0 AND EXISTS (SELECT 1 FROM comments c WHERE c.post_id = p.id);
+
+-- Trending candidates by like count
+CREATE INDEX IF NOT EXISTS idx_post_like_count ON skill_sharing_posts (like_count);
+
+-- Liked-by-me lookups for a page of posts
+CREATE INDEX IF NOT EXISTS idx_post_likes_user_post ON post_likes (user_id, post_id);
+
+-- Content-addressed post media with reference counts (MediaObject). Files
+-- stored before this change have no row and are deleted with their post.
+CREATE TABLE IF NOT EXISTS media_objects (
+    filename VARCHAR(80) PRIMARY KEY,
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL,
+    created_at TIMESTAMP(6)
+);
+
+-- Resumable upload sessions (UploadSession)
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    original_filename VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    total_size BIGINT NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    received_bytes BIGINT NOT NULL,
+    media_filename VARCHAR(80),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_updated ON upload_sessions (updated_at);
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_user ON upload_sessions (user_id);
+
+-- Detected upload formats
+ALTER TABLE upload_sessions ADD COLUMN IF NOT EXISTS detected_type VARCHAR(20);
+CREATE TABLE IF NOT EXISTS post_media_info (
+    post_id BIGINT NOT NULL REFERENCES skill_sharing_posts (id),
+    filename VARCHAR(80) NOT NULL,
+    content_type VARCHAR(100),
+    PRIMARY KEY (post_id, filename)
+);
+
+-- Video duration and dimensions
+ALTER TABLE post_media_info ADD COLUMN IF NOT EXISTS duration_ms BIGINT;
+ALTER TABLE post_media_info ADD COLUMN IF NOT EXISTS width INTEGER;
+ALTER TABLE post_media_info ADD COLUMN IF NOT EXISTS height INTEGER;
+ALTER TABLE upload_sessions ADD COLUMN IF NOT EXISTS media_content_type VARCHAR(100);
+ALTER TABLE upload_sessions ADD COLUMN IF NOT EXISTS duration_ms BIGINT;
+ALTER TABLE upload_sessions ADD COLUMN IF NOT EXISTS width INTEGER;
+ALTER TABLE upload_sessions ADD COLUMN IF NOT EXISTS height INTEGER;
+
+-- Durable post media deletion queue (MediaDeletion)
+CREATE TABLE IF NOT EXISTS media_deletions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    filename VARCHAR(80) NOT NULL,
+    attempts INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6)
+);
+CREATE INDEX IF NOT EXISTS idx_media_deletions_due ON media_deletions (next_attempt_at);
+
+-- Comments by user, newest first
+CREATE INDEX IF NOT EXISTS idx_comment_user_created ON comments (user_id, created_at, id);
+
+-- Password hashes for local sign-ups; OAuth2 accounts keep it null
+ALTER TABLE users ADD COLUMN IF NOT EXISTS password VARCHAR(255);
+
+-- Threaded replies as materialized paths (see CommentPath)
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS parent_id BIGINT;
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS root_id BIGINT;
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS path VARCHAR(255);
+ALTER TABLE comments ADD COLUMN IF NOT EXISTS depth INTEGER NOT NULL DEFAULT 0;
+-- Backfill: comments from before threading are all top level, so each is the
+-- root of its own thread with a single-segment path, its id as 13 base-36 digits
+UPDATE comments c SET root_id = c.id, path = (
+        SELECT string_agg(substr('0123456789abcdefghijklmnopqrstuvwxyz',
+                                 ((c.id / power(36::numeric, e)::bigint) % 36)::int + 1, 1), '' ORDER BY e DESC)
+            || '/'
+        FROM generate_series(0, 12) AS e)
+    WHERE c.path IS NULL;
+CREATE INDEX IF NOT EXISTS idx_comment_post_depth_created ON comments (post_id, depth, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_comment_root_path ON comments (root_id, path);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_comment_path ON comments (path);
+
+-- Paging whom a user follows
+CREATE INDEX IF NOT EXISTS idx_user_followers_follower ON user_followers (follower_id, following_id);
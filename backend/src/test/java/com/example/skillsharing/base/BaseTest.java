@@ -16,6 +16,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +28,11 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public abstract class BaseTest {
 
+    protected static final String TEST_PASSWORD = "password123";
+
+    // Hashed once; BCrypt is deliberately slow
+    private static final String TEST_PASSWORD_HASH = new BCryptPasswordEncoder().encode(TEST_PASSWORD);
+
     @Autowired
     protected MockMvc mockMvc;
 
@@ -56,14 +62,14 @@ public abstract class BaseTest {
     protected UserPrincipal userPrincipal;
 
     @BeforeEach
-    void setUp() {
+    protected void setUp() {
         cleanupDatabase();
         setupTestUser();
         setupAuthentication();
     }
 
     @AfterEach
-    void tearDown() {
+    protected void tearDown() {
         SecurityContextHolder.clearContext();
         cleanupDatabase();
     }
@@ -77,15 +83,17 @@ public abstract class BaseTest {
     }
 
     protected void setupTestUser() {
-        testUser = TestDataFactory.createUser(1L);
+        testUser = TestDataFactory.createUser(null);
+        testUser.setPassword(TEST_PASSWORD_HASH);
         testUser = userRepository.save(testUser);
         userPrincipal = UserPrincipal.create(testUser);
     }
 
+    // Requests authenticate through the Authorization header alone, so a request
+    // sent without it is anonymous
     protected void setupAuthentication() {
         UsernamePasswordAuthenticationToken authentication = 
             new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities());
-        SecurityContextHolder.getContext().setAuthentication(authentication);
         authToken = tokenProvider.createToken(authentication);
     }
 
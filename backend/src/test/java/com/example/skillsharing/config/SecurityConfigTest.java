@@ -2,20 +2,21 @@ package com.example.skillsharing.config;
 
 import com.example.skillsharing.security.CustomUserDetailsService;
 import com.example.skillsharing.security.TokenAuthenticationFilter;
-import com.example.skillsharing.security.TokenProvider;
 import com.example.skillsharing.security.oauth2.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,10 +37,10 @@ class SecurityConfigTest {
     private OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler;
 
     @Mock
-    private TokenProvider tokenProvider;
+    private HttpCookieOAuth2AuthorizationRequestRepository httpCookieOAuth2AuthorizationRequestRepository;
 
     @Mock
-    private HttpSecurity httpSecurity;
+    private TokenAuthenticationFilter tokenAuthenticationFilter;
 
     @Mock
     private AuthenticationConfiguration authenticationConfiguration;
@@ -53,19 +54,11 @@ class SecurityConfigTest {
             customOAuth2UserService,
             oAuth2AuthenticationSuccessHandler,
             oAuth2AuthenticationFailureHandler,
-            tokenProvider
+            httpCookieOAuth2AuthorizationRequestRepository,
+            tokenAuthenticationFilter
         );
     }
 
-    @Test
-    void tokenAuthenticationFilter_ReturnsValidFilter() {
-        // Act
-        TokenAuthenticationFilter filter = securityConfig.tokenAuthenticationFilter();
-
-        // Assert
-        assertNotNull(filter);
-    }
-
     @Test
     void passwordEncoder_ReturnsBCryptPasswordEncoder() {
         // Act
@@ -89,16 +82,6 @@ class SecurityConfigTest {
         assertEquals(expectedManager, manager);
     }
 
-    @Test
-    void cookieAuthorizationRequestRepository_ReturnsValidRepository() {
-        // Act
-        HttpCookieOAuth2AuthorizationRequestRepository repository = 
-            securityConfig.cookieAuthorizationRequestRepository();
-
-        // Assert
-        assertNotNull(repository);
-    }
-
     @Test
     void passwordEncoder_GeneratesDifferentHashesForSamePassword() {
         // Arrange
@@ -115,70 +98,30 @@ class SecurityConfigTest {
         assertTrue(encoder.matches(password, hash2));
     }
 
-    @Test
-    void passwordEncoder_ValidatesCorrectPassword() {
-        // Arrange
-        PasswordEncoder encoder = securityConfig.passwordEncoder();
-        String password = "testPassword";
-        String hash = encoder.encode(password);
-
-        // Assert
-        assertTrue(encoder.matches(password, hash));
-    }
-
     @Test
     void passwordEncoder_RejectsIncorrectPassword() {
         // Arrange
         PasswordEncoder encoder = securityConfig.passwordEncoder();
-        String password = "testPassword";
-        String wrongPassword = "wrongPassword";
-        String hash = encoder.encode(password);
-
-        // Assert
-        assertFalse(encoder.matches(wrongPassword, hash));
-    }
-
-    @Test
-    void tokenAuthenticationFilter_CreatesNewInstanceEachTime() {
-        // Act
-        TokenAuthenticationFilter filter1 = securityConfig.tokenAuthenticationFilter();
-        TokenAuthenticationFilter filter2 = securityConfig.tokenAuthenticationFilter();
-
-        // Assert
-        assertNotSame(filter1, filter2);
-    }
-
-    @Test
-    void cookieAuthorizationRequestRepository_CreatesNewInstanceEachTime() {
-        // Act
-        HttpCookieOAuth2AuthorizationRequestRepository repo1 = 
-            securityConfig.cookieAuthorizationRequestRepository();
-        HttpCookieOAuth2AuthorizationRequestRepository repo2 = 
-            securityConfig.cookieAuthorizationRequestRepository();
+        String hash = encoder.encode("testPassword");
 
         // Assert
-        assertNotSame(repo1, repo2);
+        assertFalse(encoder.matches("wrongPassword", hash));
     }
 
     @Test
-    void securityFilterChain_ConfiguresSecurityFilters() throws Exception {
+    void corsConfigurationSource_AllowsFrontendOriginWithCredentials() {
         // Arrange
-        when(httpSecurity.csrf()).thenReturn(new AbstractHttpConfigurer<>() {});
-        when(httpSecurity.cors()).thenReturn(new AbstractHttpConfigurer<>() {});
-        when(httpSecurity.sessionManagement()).thenReturn(new AbstractHttpConfigurer<>() {});
-        when(httpSecurity.authorizeHttpRequests()).thenReturn(new AbstractHttpConfigurer<>() {});
-        when(httpSecurity.oauth2Login()).thenReturn(new AbstractHttpConfigurer<>() {});
-        when(httpSecurity.build()).thenReturn(mock(SecurityFilterChain.class));
+        CorsConfigurationSource source = securityConfig.corsConfigurationSource();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
 
         // Act
-        SecurityFilterChain filterChain = securityConfig.securityFilterChain(httpSecurity);
+        CorsConfiguration configuration = source.getCorsConfiguration(request);
 
         // Assert
-        assertNotNull(filterChain);
-        verify(httpSecurity).csrf();
-        verify(httpSecurity).cors();
-        verify(httpSecurity).sessionManagement();
-        verify(httpSecurity).authorizeHttpRequests();
-        verify(httpSecurity).oauth2Login();
+        assertNotNull(configuration);
+        assertEquals(List.of("http://localhost:3000"), configuration.getAllowedOrigins());
+        assertTrue(configuration.getAllowedMethods().containsAll(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS")));
+        assertTrue(configuration.getAllowCredentials());
+        assertNull(configuration.checkOrigin("http://malicious-site.com"));
     }
 }
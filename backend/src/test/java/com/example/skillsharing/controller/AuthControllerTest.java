@@ -1,7 +1,6 @@
 package com.example.skillsharing.controller;
 
 import com.example.skillsharing.base.BaseTest;
-import com.example.skillsharing.dto.AuthResponse;
 import com.example.skillsharing.dto.LoginRequest;
 import com.example.skillsharing.dto.SignUpRequest;
 import com.example.skillsharing.model.User;
@@ -81,7 +80,7 @@ class AuthControllerTest extends BaseTest {
         // Arrange
         LoginRequest loginRequest = TestDataFactory.createLoginRequest();
         loginRequest.setEmail(testUser.getEmail());
-        loginRequest.setPassword("password123");
+        loginRequest.setPassword(TEST_PASSWORD);
 
         // Act
         ResultActions result = mockMvc.perform(post("/api/auth/login")
@@ -94,8 +93,8 @@ class AuthControllerTest extends BaseTest {
                 .andExpect(jsonPath("$.tokenType", is("Bearer")));
 
         String responseString = result.andReturn().getResponse().getContentAsString();
-        AuthResponse response = objectMapper.readValue(responseString, AuthResponse.class);
-        assertNotNull(response.getAccessToken());
+        String accessToken = objectMapper.readTree(responseString).get("accessToken").asText();
+        assertEquals(testUser.getId(), tokenProvider.getUserIdFromToken(accessToken));
     }
 
     @Test
@@ -142,7 +141,7 @@ class AuthControllerTest extends BaseTest {
 
         // Assert
         result.andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.message", containsString("Email should be valid")));
+                .andExpect(jsonPath("$.email", containsString("Email should be valid")));
     }
 
     @Test
@@ -158,7 +157,7 @@ class AuthControllerTest extends BaseTest {
 
         // Assert
         result.andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.message", containsString("Password must be at least 6 characters")));
+                .andExpect(jsonPath("$.password", containsString("Password must be at least 6 characters")));
     }
 
     @Test
@@ -174,6 +173,8 @@ class AuthControllerTest extends BaseTest {
 
         // Assert
         result.andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.message", containsString("Username is required")));
+                .andExpect(jsonPath("$.username", anyOf(
+                        containsString("Username is required"),
+                        containsString("Username must be between 3 and 50 characters"))));
     }
 }
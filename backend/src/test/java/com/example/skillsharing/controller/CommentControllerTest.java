@@ -4,7 +4,9 @@ import com.example.skillsharing.base.BaseTest;
 import com.example.skillsharing.dto.CommentDTO;
 import com.example.skillsharing.model.Comment;
 import com.example.skillsharing.model.SkillSharingPost;
+import com.example.skillsharing.model.User;
 import com.example.skillsharing.util.TestDataFactory;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
@@ -22,7 +24,8 @@ class CommentControllerTest extends BaseTest {
     private SkillSharingPost testPost;
 
     @BeforeEach
-    void setUp() {
+    @Override
+    protected void setUp() {
         super.setUp();
         testPost = TestDataFactory.createPost(null, testUser);
         testPost = postRepository.save(testPost);
@@ -43,7 +46,7 @@ class CommentControllerTest extends BaseTest {
         // Assert
         result.andExpect(status().isOk())
                 .andExpect(jsonPath("$.content", is(createCommentDTO.getContent())))
-                .andExpect(jsonPath("$.authorId", is(testUser.getId().intValue())))
+                .andExpect(jsonPath("$.user.id", is(testUser.getId().intValue())))
                 .andExpect(jsonPath("$.postId", is(testPost.getId().intValue())));
     }
 
@@ -61,7 +64,7 @@ class CommentControllerTest extends BaseTest {
         result.andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(comment.getId().intValue())))
                 .andExpect(jsonPath("$.content", is(comment.getContent())))
-                .andExpect(jsonPath("$.authorId", is(testUser.getId().intValue())));
+                .andExpect(jsonPath("$.user.id", is(testUser.getId().intValue())));
     }
 
     @Test
@@ -100,6 +103,60 @@ class CommentControllerTest extends BaseTest {
                 .andExpect(jsonPath("$.totalElements", is(3)));
     }
 
+    @Test
+    void getUserComments_WithCursor_ReturnsKeysetPages() throws Exception {
+        // Arrange
+        List<Comment> comments = TestDataFactory.createComments(3, testUser, testPost);
+        commentRepository.saveAll(comments);
+
+        // Act
+        ResultActions first = mockMvc.perform(get("/api/users/{userId}/comments", testUser.getId())
+                .param("cursor", "")
+                .param("size", "2")
+                .header("Authorization", getAuthHeader()));
+        String nextCursor = JsonPath.read(
+                first.andReturn().getResponse().getContentAsString(), "$.nextCursor");
+        ResultActions second = mockMvc.perform(get("/api/users/{userId}/comments", testUser.getId())
+                .param("cursor", nextCursor)
+                .param("size", "2")
+                .header("Authorization", getAuthHeader()));
+
+        // Assert
+        first.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+        second.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
+    @Test
+    void createReply_ThenGetPostThreads_NestsReplyUnderThread() throws Exception {
+        // Arrange
+        Comment thread = commentRepository.save(TestDataFactory.createComment(null, testUser, testPost));
+        CommentDTO.CreateCommentDTO createCommentDTO = new CommentDTO.CreateCommentDTO();
+        createCommentDTO.setContent("Test reply content");
+
+        // Act
+        ResultActions reply = mockMvc.perform(post("/api/comments/{commentId}/replies", thread.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(createCommentDTO))
+                .header("Authorization", getAuthHeader()));
+        ResultActions threads = mockMvc.perform(get("/api/posts/{postId}/threads", testPost.getId())
+                .param("replies", "3")
+                .header("Authorization", getAuthHeader()));
+
+        // Assert
+        reply.andExpect(status().isOk())
+                .andExpect(jsonPath("$.parentId", is(thread.getId().intValue())))
+                .andExpect(jsonPath("$.depth", is(1)));
+        threads.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].replies", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].replies[0].content", is(createCommentDTO.getContent())))
+                .andExpect(jsonPath("$.content[0].hasMoreReplies", is(false)));
+    }
+
     @Test
     void updateComment_WithValidData_ReturnsUpdatedComment() throws Exception {
         // Arrange
@@ -155,12 +212,14 @@ class CommentControllerTest extends BaseTest {
     }
 
     @Test
-    void updateComment_WithUnauthorizedUser_ReturnsForbidden() throws Exception {
+    void updateComment_WithUnauthorizedUser_ReturnsBadRequest() throws Exception {
         // Arrange
         User otherUser = TestDataFactory.createUser(null);
         otherUser = userRepository.save(otherUser);
-        
-        Comment comment = TestDataFactory.createComment(null, otherUser, testPost);
+        // Post owners may moderate comments, so neither the comment nor the post is the test user's
+        SkillSharingPost otherPost = postRepository.save(TestDataFactory.createPost(null, otherUser));
+
+        Comment comment = TestDataFactory.createComment(null, otherUser, otherPost);
         comment = commentRepository.save(comment);
 
         CommentDTO.UpdateCommentDTO updateCommentDTO = new CommentDTO.UpdateCommentDTO();
@@ -173,6 +232,6 @@ class CommentControllerTest extends BaseTest {
                 .header("Authorization", getAuthHeader()));
 
         // Assert
-        result.andExpect(status().isForbidden());
+        result.andExpect(status().isBadRequest());
     }
 }
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
@@ -25,9 +26,10 @@ class LearningPlanControllerTest extends BaseTest {
         LearningPlanDTO.CreateLearningPlanDTO createPlanDTO = new LearningPlanDTO.CreateLearningPlanDTO();
         createPlanDTO.setTitle("Test Learning Plan");
         createPlanDTO.setDescription("Test description");
-        createPlanDTO.setSkills(Arrays.asList("Java", "Spring Boot"));
-        createPlanDTO.setResources(Arrays.asList("Book 1", "Online Course 1"));
-        createPlanDTO.setStatus(PlanStatus.NOT_STARTED);
+        createPlanDTO.setTopics(Arrays.asList("Java", "Spring Boot"));
+        createPlanDTO.setResources(Arrays.asList("https://www.example.com/book", "https://www.example.com/course"));
+        createPlanDTO.setStartDate(LocalDateTime.now().plusDays(1));
+        createPlanDTO.setEndDate(LocalDateTime.now().plusWeeks(4));
 
         // Act
         ResultActions result = mockMvc.perform(post("/api/learning-plans")
@@ -39,7 +41,7 @@ class LearningPlanControllerTest extends BaseTest {
         result.andExpect(status().isOk())
                 .andExpect(jsonPath("$.title", is(createPlanDTO.getTitle())))
                 .andExpect(jsonPath("$.description", is(createPlanDTO.getDescription())))
-                .andExpect(jsonPath("$.skills", containsInAnyOrder("Java", "Spring Boot")))
+                .andExpect(jsonPath("$.topics", containsInAnyOrder("Java", "Spring Boot")))
                 .andExpect(jsonPath("$.resources", hasSize(2)))
                 .andExpect(jsonPath("$.status", is(PlanStatus.NOT_STARTED.toString())));
     }
@@ -106,6 +108,8 @@ class LearningPlanControllerTest extends BaseTest {
         LearningPlanDTO.UpdateLearningPlanDTO updatePlanDTO = new LearningPlanDTO.UpdateLearningPlanDTO();
         updatePlanDTO.setTitle("Updated Title");
         updatePlanDTO.setDescription("Updated description");
+        updatePlanDTO.setStartDate(LocalDateTime.now().plusDays(1));
+        updatePlanDTO.setEndDate(LocalDateTime.now().plusWeeks(4));
         updatePlanDTO.setStatus(PlanStatus.COMPLETED);
 
         // Act
@@ -141,7 +145,7 @@ class LearningPlanControllerTest extends BaseTest {
         // Arrange
         LearningPlan plan = TestDataFactory.createLearningPlan(null, testUser);
         plan.setTitle("Java Programming");
-        plan.setSkills(Arrays.asList("Java", "Spring"));
+        plan.setTopics(Arrays.asList("Java", "Spring"));
         learningPlanRepository.save(plan);
 
         // Act
@@ -3,29 +3,38 @@ package com.example.skillsharing.controller;
 import com.example.skillsharing.base.BaseTest;
 import com.example.skillsharing.dto.SkillSharingPostDTO;
 import com.example.skillsharing.model.SkillSharingPost;
+import com.example.skillsharing.model.User;
+import com.example.skillsharing.repository.SkillSharingPostRepository;
 import com.example.skillsharing.util.TestDataFactory;
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
+import java.io.ByteArrayOutputStream;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 class SkillSharingPostControllerTest extends BaseTest {
 
+    @SpyBean
+    private SkillSharingPostRepository postRepositorySpy;
+
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // media is streamed outside any transaction
     void createPost_WithValidData_ReturnsCreatedPost() throws Exception {
         // Arrange
         SkillSharingPostDTO.CreatePostDTO createPostDTO = new SkillSharingPostDTO.CreatePostDTO();
-        createPostDTO.setTitle("Test Post");
-        createPostDTO.setContent("Test content");
-        createPostDTO.setSkills(Arrays.asList("Java", "Spring Boot"));
+        createPostDTO.setDescription("Test description");
 
         MockMultipartFile postData = new MockMultipartFile(
             "post",
@@ -38,7 +47,7 @@ class SkillSharingPostControllerTest extends BaseTest {
             "media",
             "test-image.jpg",
             MediaType.IMAGE_JPEG_VALUE,
-            "test image content".getBytes()
+            new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0}
         );
 
         // Act
@@ -49,12 +58,39 @@ class SkillSharingPostControllerTest extends BaseTest {
 
         // Assert
         result.andExpect(status().isOk())
-                .andExpect(jsonPath("$.title", is(createPostDTO.getTitle())))
-                .andExpect(jsonPath("$.content", is(createPostDTO.getContent())))
-                .andExpect(jsonPath("$.skills", containsInAnyOrder("Java", "Spring Boot")))
+                .andExpect(jsonPath("$.description", is(createPostDTO.getDescription())))
                 .andExpect(jsonPath("$.mediaUrls", hasSize(1)));
     }
 
+    @Test
+    void createPost_WithBodyOverMaxRequestSize_ReturnsBadRequest() throws Exception {
+        // Arrange
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--limit\r\nContent-Disposition: form-data; name=\"post\"\r\n"
+                + "Content-Type: application/json\r\n\r\n{\"description\":\"Too big\"}\r\n").getBytes());
+        byte[] image = new byte[4 * 1024 * 1024];
+        System.arraycopy(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}, 0, image, 0, 4);
+        for (int i = 0; i < 3; i++) {
+            body.write(("--limit\r\nContent-Disposition: form-data; name=\"media\"; filename=\"" + i + ".jpg\"\r\n"
+                    + "Content-Type: image/jpeg\r\n\r\n").getBytes());
+            body.write(image);
+            body.write("\r\n".getBytes());
+        }
+        body.write("--limit--\r\n".getBytes());
+
+        // Act
+        // Served at the servlet path, as the DispatcherServlet sees it, so the body is read raw
+        ResultActions result = mockMvc.perform(post("/api/posts")
+                .servletPath("/api/posts")
+                .contentType("multipart/form-data; boundary=limit")
+                .content(body.toByteArray())
+                .header("Authorization", getAuthHeader()));
+
+        // Assert
+        result.andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("File size exceeds maximum limit")));
+    }
+
     @Test
     void getPost_WithValidId_ReturnsPost() throws Exception {
         // Arrange
@@ -68,8 +104,7 @@ class SkillSharingPostControllerTest extends BaseTest {
         // Assert
         result.andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(post.getId().intValue())))
-                .andExpect(jsonPath("$.title", is(post.getTitle())))
-                .andExpect(jsonPath("$.content", is(post.getContent())));
+                .andExpect(jsonPath("$.description", is(post.getDescription())));
     }
 
     @Test
@@ -108,17 +143,35 @@ class SkillSharingPostControllerTest extends BaseTest {
                 .andExpect(jsonPath("$.totalElements", is(3)));
     }
 
+    @Test
+    void getUserPosts_WithCommentPreview_EmbedsLatestComments() throws Exception {
+        // Arrange
+        SkillSharingPost post = postRepository.save(TestDataFactory.createPost(null, testUser));
+        commentRepository.saveAll(TestDataFactory.createComments(3, testUser, post));
+
+        // Act
+        ResultActions result = mockMvc.perform(get("/api/posts/user/{userId}", testUser.getId())
+                .param("includeCommentPreview", "2")
+                .header("Authorization", getAuthHeader()));
+
+        // Assert
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].commentPreview", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].commentPreview[0].postId", is(post.getId().intValue())));
+    }
+
     @Test
     void getFeedPosts_ReturnsPaginatedFeedPosts() throws Exception {
         // Arrange
         User followedUser = TestDataFactory.createUser(null);
         followedUser = userRepository.save(followedUser);
-        testUser.getFollowing().add(followedUser);
-        userRepository.save(testUser);
-
         List<SkillSharingPost> posts = TestDataFactory.createPosts(3, followedUser);
         postRepository.saveAll(posts);
 
+        // Following copies the author's existing posts into the feed
+        mockMvc.perform(post("/api/users/{userId}/follow", followedUser.getId())
+                .header("Authorization", getAuthHeader()));
+
         // Act
         ResultActions result = mockMvc.perform(get("/api/posts/feed")
                 .param("page", "0")
@@ -138,8 +191,7 @@ class SkillSharingPostControllerTest extends BaseTest {
         post = postRepository.save(post);
 
         SkillSharingPostDTO.UpdatePostDTO updatePostDTO = new SkillSharingPostDTO.UpdatePostDTO();
-        updatePostDTO.setTitle("Updated Title");
-        updatePostDTO.setContent("Updated content");
+        updatePostDTO.setDescription("Updated description");
 
         // Act
         ResultActions result = mockMvc.perform(put("/api/posts/{postId}", post.getId())
@@ -149,8 +201,7 @@ class SkillSharingPostControllerTest extends BaseTest {
 
         // Assert
         result.andExpect(status().isOk())
-                .andExpect(jsonPath("$.title", is(updatePostDTO.getTitle())))
-                .andExpect(jsonPath("$.content", is(updatePostDTO.getContent())));
+                .andExpect(jsonPath("$.description", is(updatePostDTO.getDescription())));
     }
 
     @Test
@@ -169,6 +220,7 @@ class SkillSharingPostControllerTest extends BaseTest {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // the like is written in its own transaction
     void likePost_WhenNotLiked_LikesPost() throws Exception {
         // Arrange
         SkillSharingPost post = TestDataFactory.createPost(null, testUser);
@@ -179,15 +231,38 @@ class SkillSharingPostControllerTest extends BaseTest {
                 .header("Authorization", getAuthHeader()));
 
         // Assert
-        result.andExpect(status().isOk());
-        assertTrue(postRepository.findById(post.getId()).get().getLikedBy().contains(testUser));
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.liked", is(true)))
+                .andExpect(jsonPath("$.likesCount", is(1)));
+        assertEquals(List.of(post.getId()), postRepository.findLikedPostIds(testUser.getId(), List.of(post.getId())));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void likePost_WhenConcurrentLikeWinsTheInsert_ReturnsLikedWithoutCounting() throws Exception {
+        // Arrange
+        SkillSharingPost post = postRepository.save(TestDataFactory.createPost(null, testUser));
+        // What Postgres reports when another request's like committed after the NOT EXISTS check
+        doThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"))
+                .when(postRepositorySpy).insertLike(post.getId(), testUser.getId());
+
+        // Act
+        ResultActions result = mockMvc.perform(post("/api/posts/{postId}/like", post.getId())
+                .header("Authorization", getAuthHeader()));
+
+        // Assert
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.liked", is(true)))
+                .andExpect(jsonPath("$.likesCount", is(0)));
+        verify(postRepositorySpy, never()).adjustLikeCount(post.getId(), 1);
     }
 
     @Test
     void unlikePost_WhenLiked_UnlikesPost() throws Exception {
         // Arrange
         SkillSharingPost post = TestDataFactory.createPost(null, testUser);
-        post.getLikedBy().add(testUser);
+        post.getLikes().add(testUser);
+        post.setLikeCount(1);
         post = postRepository.save(post);
 
         // Act
@@ -195,15 +270,21 @@ class SkillSharingPostControllerTest extends BaseTest {
                 .header("Authorization", getAuthHeader()));
 
         // Assert
-        result.andExpect(status().isOk());
-        assertFalse(postRepository.findById(post.getId()).get().getLikedBy().contains(testUser));
+        result.andExpect(status().isOk())
+                .andExpect(jsonPath("$.liked", is(false)))
+                .andExpect(jsonPath("$.likesCount", is(0)));
+        assertTrue(postRepository.findLikedPostIds(testUser.getId(), List.of(post.getId())).isEmpty());
     }
 
     @Test
     void getTrendingPosts_ReturnsTrendingPosts() throws Exception {
         // Arrange
         List<SkillSharingPost> posts = TestDataFactory.createPosts(5, testUser);
-        posts.forEach(post -> post.getLikedBy().add(testUser)); // Add likes to make them trending
+        posts.forEach(post -> {
+            // Add likes to make them trending
+            post.getLikes().add(testUser);
+            post.setLikeCount(1);
+        });
         postRepository.saveAll(posts);
 
         // Act
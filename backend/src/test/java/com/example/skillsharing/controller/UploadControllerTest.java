@@ -0,0 +1,109 @@
+package com.example.skillsharing.controller;
+
+import com.example.skillsharing.base.BaseTest;
+import com.example.skillsharing.dto.UploadSessionDTO;
+import com.example.skillsharing.model.UploadSession;
+import com.example.skillsharing.repository.UploadSessionRepository;
+import com.example.skillsharing.service.impl.MediaUploadPipeline;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sessions are created in their own transactions, which must see the committed test user
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UploadControllerTest extends BaseTest {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private MediaUploadPipeline mediaUploadPipeline;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanupUploads() throws IOException {
+        for (UploadSession session : uploadSessionRepository.findAll()) {
+            Files.deleteIfExists(mediaUploadPipeline.sessionFile(session.getId()));
+        }
+        uploadSessionRepository.deleteAll();
+    }
+
+    @Test
+    void createUpload_WhenOpenUploadLimitIsReached_ReturnsBadRequest() throws Exception {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            createUpload(MEGABYTE).andExpect(status().isOk());
+        }
+
+        // Act
+        ResultActions result = createUpload(MEGABYTE);
+
+        // Assert
+        result.andExpect(status().isBadRequest());
+        assertEquals(5, uploadSessionRepository.countByUserId(testUser.getId()));
+    }
+
+    @Test
+    void createUpload_WhenReservedBytesWouldExceedLimit_ReturnsBadRequest() throws Exception {
+        // Arrange
+        createUpload(100 * MEGABYTE).andExpect(status().isOk());
+        createUpload(100 * MEGABYTE).andExpect(status().isOk());
+
+        // Act
+        ResultActions result = createUpload(1);
+
+        // Assert
+        result.andExpect(status().isBadRequest());
+        assertEquals(2, uploadSessionRepository.countByUserId(testUser.getId()));
+    }
+
+    @Test
+    void createUpload_WithAbandonedUpload_ExpiresItAndFreesTheSlot() throws Exception {
+        // Arrange
+        String abandoned = null;
+        for (int i = 0; i < 5; i++) {
+            String body = createUpload(MEGABYTE).andReturn().getResponse().getContentAsString();
+            abandoned = JsonPath.read(body, "$.id");
+        }
+        jdbcTemplate.update("UPDATE upload_sessions SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(1), abandoned);
+
+        // Act
+        ResultActions result = createUpload(MEGABYTE);
+
+        // Assert
+        result.andExpect(status().isOk());
+        assertFalse(uploadSessionRepository.existsById(abandoned));
+        assertFalse(Files.exists(mediaUploadPipeline.sessionFile(abandoned)));
+        assertEquals(5, uploadSessionRepository.countByUserId(testUser.getId()));
+    }
+
+    private ResultActions createUpload(long size) throws Exception {
+        UploadSessionDTO.CreateUploadDTO createUploadDTO = new UploadSessionDTO.CreateUploadDTO();
+        createUploadDTO.setFilename("clip.mp4");
+        createUploadDTO.setContentType("video/mp4");
+        createUploadDTO.setSize(size);
+        return mockMvc.perform(post("/api/uploads")
+                .header("Authorization", getAuthHeader())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(createUploadDTO)));
+    }
+}
@@ -3,12 +3,19 @@ package com.example.skillsharing.controller;
 import com.example.skillsharing.base.BaseTest;
 import com.example.skillsharing.dto.UserDTO;
 import com.example.skillsharing.model.User;
+import com.example.skillsharing.service.MediaStorage;
 import com.example.skillsharing.util.TestDataFactory;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -18,6 +25,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 class UserControllerTest extends BaseTest {
 
+    @Autowired
+    private MediaStorage mediaStorage;
+
     @Test
     void getCurrentUser_ReturnsAuthenticatedUser() throws Exception {
         // Act
@@ -66,8 +76,10 @@ class UserControllerTest extends BaseTest {
     void updateUser_WithValidData_ReturnsUpdatedProfile() throws Exception {
         // Arrange
         UserDTO updateRequest = new UserDTO();
+        updateRequest.setUsername(testUser.getUsername());
+        updateRequest.setEmail(testUser.getEmail());
         updateRequest.setBio("Updated bio");
-        updateRequest.setProfilePicture("new-profile.jpg");
+        updateRequest.setProfilePicture("/uploads/profile-pictures/someone-elses.jpg");
 
         // Act
         ResultActions result = mockMvc.perform(put("/api/users/me")
@@ -78,22 +90,19 @@ class UserControllerTest extends BaseTest {
         // Assert
         result.andExpect(status().isOk())
                 .andExpect(jsonPath("$.bio", is(updateRequest.getBio())))
-                .andExpect(jsonPath("$.profilePicture", is(updateRequest.getProfilePicture())));
+                .andExpect(jsonPath("$.profilePicture", is(testUser.getProfilePicture())));
 
+        // The picture is only set by uploading one
         User updatedUser = userRepository.findById(testUser.getId()).orElseThrow();
         assertEquals(updateRequest.getBio(), updatedUser.getBio());
-        assertEquals(updateRequest.getProfilePicture(), updatedUser.getProfilePicture());
+        assertEquals(testUser.getProfilePicture(), updatedUser.getProfilePicture());
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // old files are only removed once the swap commits
     void updateProfilePicture_WithValidFile_ReturnsUpdatedProfile() throws Exception {
         // Arrange
-        MockMultipartFile file = new MockMultipartFile(
-            "file",
-            "test-image.jpg",
-            MediaType.IMAGE_JPEG_VALUE,
-            "test image content".getBytes()
-        );
+        MockMultipartFile file = jpegUpload();
 
         // Act
         ResultActions result = mockMvc.perform(multipart("/api/users/me/profile-picture")
@@ -105,6 +114,47 @@ class UserControllerTest extends BaseTest {
                 .andExpect(jsonPath("$.profilePicture", notNullValue()));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateProfilePicture_WithOwnPreviousPicture_DeletesPreviousFile() throws Exception {
+        // Arrange
+        String previous = storeProfilePicture();
+        testUser.setProfilePicture(mediaStorage.urlOf(MediaStorage.Area.PROFILE_PICTURES, previous));
+        userRepository.save(testUser);
+
+        // Act
+        ResultActions result = mockMvc.perform(multipart("/api/users/me/profile-picture")
+                .file(jpegUpload())
+                .header("Authorization", getAuthHeader()));
+
+        // Assert
+        result.andExpect(status().isOk());
+        assertNull(mediaStorage.locate(MediaStorage.Area.PROFILE_PICTURES, previous));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateProfilePicture_WhenAnotherUserSharesPreviousPicture_KeepsPreviousFile() throws Exception {
+        // Arrange
+        String previous = storeProfilePicture();
+        String previousUrl = mediaStorage.urlOf(MediaStorage.Area.PROFILE_PICTURES, previous);
+        testUser.setProfilePicture(previousUrl);
+        userRepository.save(testUser);
+        User owner = TestDataFactory.createUser(null);
+        owner.setProfilePicture(previousUrl);
+        userRepository.save(owner);
+
+        // Act
+        ResultActions result = mockMvc.perform(multipart("/api/users/me/profile-picture")
+                .file(jpegUpload())
+                .header("Authorization", getAuthHeader()));
+
+        // Assert
+        result.andExpect(status().isOk());
+        assertNotNull(mediaStorage.locate(MediaStorage.Area.PROFILE_PICTURES, previous));
+        mediaStorage.delete(MediaStorage.Area.PROFILE_PICTURES, previous);
+    }
+
     @Test
     void followUser_WhenUserExists_SuccessfullyFollows() throws Exception {
         // Arrange
@@ -117,7 +167,7 @@ class UserControllerTest extends BaseTest {
 
         // Assert
         result.andExpect(status().isOk());
-        assertTrue(userRepository.existsByFollowerIdAndFollowingId(testUser.getId(), userToFollow.getId()));
+        assertTrue(userRepository.existsFollow(testUser.getId(), userToFollow.getId()));
     }
 
     @Test
@@ -125,8 +175,8 @@ class UserControllerTest extends BaseTest {
         // Arrange
         User userToUnfollow = TestDataFactory.createUser(null);
         userToUnfollow = userRepository.save(userToUnfollow);
-        testUser.getFollowing().add(userToUnfollow);
-        userRepository.save(testUser);
+        userToUnfollow.getFollowers().add(testUser);
+        userRepository.save(userToUnfollow);
 
         // Act
         ResultActions result = mockMvc.perform(post("/api/users/{userId}/unfollow", userToUnfollow.getId())
@@ -134,18 +184,15 @@ class UserControllerTest extends BaseTest {
 
         // Assert
         result.andExpect(status().isOk());
-        assertFalse(userRepository.existsByFollowerIdAndFollowingId(testUser.getId(), userToUnfollow.getId()));
+        assertFalse(userRepository.existsFollow(testUser.getId(), userToUnfollow.getId()));
     }
 
     @Test
     void getUserFollowers_ReturnsFollowersList() throws Exception {
         // Arrange
         List<User> followers = TestDataFactory.createUsers(3);
-        followers.forEach(follower -> {
-            follower = userRepository.save(follower);
-            follower.getFollowing().add(testUser);
-            userRepository.save(follower);
-        });
+        testUser.getFollowers().addAll(userRepository.saveAll(followers));
+        userRepository.save(testUser);
 
         // Act
         ResultActions result = mockMvc.perform(get("/api/users/{userId}/followers", testUser.getId())
@@ -161,11 +208,10 @@ class UserControllerTest extends BaseTest {
     void getUserFollowing_ReturnsFollowingList() throws Exception {
         // Arrange
         List<User> following = TestDataFactory.createUsers(3);
-        following.forEach(followedUser -> {
-            followedUser = userRepository.save(followedUser);
-            testUser.getFollowing().add(followedUser);
-        });
-        userRepository.save(testUser);
+        for (User followedUser : userRepository.saveAll(following)) {
+            followedUser.getFollowers().add(testUser);
+            userRepository.save(followedUser);
+        }
 
         // Act
         ResultActions result = mockMvc.perform(get("/api/users/{userId}/following", testUser.getId())
@@ -177,6 +223,37 @@ class UserControllerTest extends BaseTest {
                 .andExpect(jsonPath("$.totalElements", is(3)));
     }
 
+    @Test
+    void getUserFollowing_WithCursor_ReturnsKeysetPages() throws Exception {
+        // Arrange
+        for (User followedUser : TestDataFactory.createUsers(3)) {
+            followedUser = userRepository.save(followedUser);
+            mockMvc.perform(post("/api/users/{userId}/follow", followedUser.getId())
+                    .header("Authorization", getAuthHeader()));
+        }
+
+        // Act
+        ResultActions first = mockMvc.perform(get("/api/users/{userId}/following", testUser.getId())
+                .param("cursor", "")
+                .param("size", "2")
+                .header("Authorization", getAuthHeader()));
+        String nextCursor = JsonPath.read(
+                first.andReturn().getResponse().getContentAsString(), "$.nextCursor");
+        ResultActions second = mockMvc.perform(get("/api/users/{userId}/following", testUser.getId())
+                .param("cursor", nextCursor)
+                .param("size", "2")
+                .header("Authorization", getAuthHeader()));
+
+        // Assert
+        first.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].following", is(true)))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+        second.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+    }
+
     @Test
     void deleteUser_SuccessfullyDeletesUser() throws Exception {
         // Act
@@ -193,8 +270,8 @@ class UserControllerTest extends BaseTest {
         // Arrange
         User userToCheck = TestDataFactory.createUser(null);
         userToCheck = userRepository.save(userToCheck);
-        testUser.getFollowing().add(userToCheck);
-        userRepository.save(testUser);
+        userToCheck.getFollowers().add(testUser);
+        userRepository.save(userToCheck);
 
         // Act
         ResultActions result = mockMvc.perform(get("/api/users/{userId}/is-following", userToCheck.getId())
@@ -204,4 +281,18 @@ class UserControllerTest extends BaseTest {
         result.andExpect(status().isOk())
                 .andExpect(content().string("true"));
     }
+
+    private String storeProfilePicture() throws IOException {
+        return mediaStorage.put(MediaStorage.Area.PROFILE_PICTURES,
+                new ByteArrayInputStream(jpegUpload().getBytes()), ".jpg");
+    }
+
+    private static MockMultipartFile jpegUpload() {
+        return new MockMultipartFile(
+            "file",
+            "test-image.jpg",
+            MediaType.IMAGE_JPEG_VALUE,
+            new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0}
+        );
+    }
 }
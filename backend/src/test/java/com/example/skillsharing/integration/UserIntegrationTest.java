@@ -1,27 +1,38 @@
 package com.example.skillsharing.integration;
 
+import com.example.skillsharing.dto.LoginRequest;
 import com.example.skillsharing.dto.SignUpRequest;
 import com.example.skillsharing.dto.UserDTO;
 import com.example.skillsharing.model.User;
 import com.example.skillsharing.repository.UserRepository;
 import com.example.skillsharing.service.UserService;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.transaction.annotation.Transactional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+/**
+ * Drives the API over HTTP the way a client does: sign up or log in through
+ * {@code /api/auth}, then send the returned token as a bearer header.
+ */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
 public class UserIntegrationTest {
 
+    private static final String PASSWORD = "password123";
+
     @Autowired
     private TestRestTemplate restTemplate;
 
@@ -31,7 +42,11 @@ public class UserIntegrationTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     private User testUser;
+    private String authToken;
 
     @BeforeEach
     void setUp() {
@@ -42,9 +57,12 @@ public class UserIntegrationTest {
         testUser = new User();
         testUser.setUsername("testuser");
         testUser.setEmail("test@example.com");
-        testUser.setPassword("password123");
+        testUser.setPassword(passwordEncoder.encode(PASSWORD));
         testUser.setBio("Test bio");
+        testUser.setProvider(User.AuthProvider.LOCAL);
         testUser = userRepository.save(testUser);
+
+        authToken = login(testUser.getEmail(), PASSWORD);
     }
 
     @AfterEach
@@ -53,36 +71,48 @@ public class UserIntegrationTest {
     }
 
     @Test
-    @Transactional
-    void registerUser_WithValidData_ReturnsCreatedUser() {
+    void registerUser_WithValidData_CreatesUserThatCanLogIn() {
         // Arrange
         SignUpRequest signUpRequest = new SignUpRequest();
         signUpRequest.setUsername("newuser");
         signUpRequest.setEmail("newuser@example.com");
-        signUpRequest.setPassword("password123");
+        signUpRequest.setPassword(PASSWORD);
         signUpRequest.setBio("New user bio");
 
         // Act
-        ResponseEntity<UserDTO> response = restTemplate.postForEntity(
+        ResponseEntity<String> response = restTemplate.postForEntity(
             "/api/auth/signup",
             signUpRequest,
-            UserDTO.class
+            String.class
         );
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertEquals(signUpRequest.getUsername(), response.getBody().getUsername());
-        assertEquals(signUpRequest.getEmail(), response.getBody().getEmail());
-        assertTrue(userRepository.existsByEmail(signUpRequest.getEmail()));
+        assertTrue(response.getHeaders().getLocation().getPath().endsWith("/api/users/newuser"));
+        User saved = userRepository.findByEmail(signUpRequest.getEmail()).orElseThrow();
+        assertNotEquals(PASSWORD, saved.getPassword());
+        assertNotNull(login(signUpRequest.getEmail(), PASSWORD));
+    }
+
+    @Test
+    void getUserProfile_WithoutToken_ReturnsUnauthorized() {
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(
+            "/api/users/" + testUser.getUsername(),
+            String.class
+        );
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
 
     @Test
-    @Transactional
     void getUserProfile_WithExistingUsername_ReturnsUserProfile() {
         // Act
-        ResponseEntity<UserDTO> response = restTemplate.getForEntity(
+        ResponseEntity<UserDTO> response = restTemplate.exchange(
             "/api/users/" + testUser.getUsername(),
+            HttpMethod.GET,
+            authorized(null),
             UserDTO.class
         );
 
@@ -94,17 +124,18 @@ public class UserIntegrationTest {
     }
 
     @Test
-    @Transactional
     void updateUserProfile_WithValidData_ReturnsUpdatedProfile() {
         // Arrange
         UserDTO updateRequest = new UserDTO();
+        updateRequest.setUsername(testUser.getUsername());
+        updateRequest.setEmail(testUser.getEmail());
         updateRequest.setBio("Updated bio");
-        updateRequest.setProfilePicture("new-profile.jpg");
 
         // Act
-        ResponseEntity<UserDTO> response = restTemplate.postForEntity(
+        ResponseEntity<UserDTO> response = restTemplate.exchange(
             "/api/users/me",
-            updateRequest,
+            HttpMethod.PUT,
+            authorized(updateRequest),
             UserDTO.class
         );
 
@@ -112,28 +143,22 @@ public class UserIntegrationTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(updateRequest.getBio(), response.getBody().getBio());
-        assertEquals(updateRequest.getProfilePicture(), response.getBody().getProfilePicture());
 
         // Verify database update
         User updatedUser = userRepository.findById(testUser.getId()).orElseThrow();
         assertEquals(updateRequest.getBio(), updatedUser.getBio());
-        assertEquals(updateRequest.getProfilePicture(), updatedUser.getProfilePicture());
     }
 
     @Test
-    @Transactional
     void followUser_WhenUserExists_SuccessfullyFollows() {
         // Arrange
-        User userToFollow = new User();
-        userToFollow.setUsername("usertofollow");
-        userToFollow.setEmail("follow@example.com");
-        userToFollow.setPassword("password123");
-        userToFollow = userRepository.save(userToFollow);
+        User userToFollow = createUser("usertofollow", "follow@example.com");
 
         // Act
-        ResponseEntity<UserDTO> response = restTemplate.postForEntity(
+        ResponseEntity<UserDTO> response = restTemplate.exchange(
             "/api/users/" + userToFollow.getId() + "/follow",
-            null,
+            HttpMethod.POST,
+            authorized(null),
             UserDTO.class
         );
 
@@ -143,22 +168,18 @@ public class UserIntegrationTest {
     }
 
     @Test
-    @Transactional
     void unfollowUser_WhenFollowing_SuccessfullyUnfollows() {
         // Arrange
-        User userToUnfollow = new User();
-        userToUnfollow.setUsername("usertounfollow");
-        userToUnfollow.setEmail("unfollow@example.com");
-        userToUnfollow.setPassword("password123");
-        userToUnfollow = userRepository.save(userToUnfollow);
+        User userToUnfollow = createUser("usertounfollow", "unfollow@example.com");
 
         // First follow the user
         userService.followUser(testUser.getId(), userToUnfollow.getId());
 
         // Act
-        ResponseEntity<UserDTO> response = restTemplate.postForEntity(
+        ResponseEntity<UserDTO> response = restTemplate.exchange(
             "/api/users/" + userToUnfollow.getId() + "/unfollow",
-            null,
+            HttpMethod.POST,
+            authorized(null),
             UserDTO.class
         );
 
@@ -168,12 +189,46 @@ public class UserIntegrationTest {
     }
 
     @Test
-    @Transactional
     void deleteUser_WhenUserExists_SuccessfullyDeletes() {
         // Act
-        restTemplate.delete("/api/users/me");
+        ResponseEntity<Void> response = restTemplate.exchange(
+            "/api/users/me",
+            HttpMethod.DELETE,
+            authorized(null),
+            Void.class
+        );
 
         // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
         assertFalse(userRepository.existsById(testUser.getId()));
     }
+
+    private String login(String email, String password) {
+        LoginRequest loginRequest = new LoginRequest();
+        loginRequest.setEmail(email);
+        loginRequest.setPassword(password);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+            "/api/auth/login",
+            loginRequest,
+            String.class
+        );
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return JsonPath.read(response.getBody(), "$.accessToken");
+    }
+
+    private <T> HttpEntity<T> authorized(T body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(authToken);
+        return new HttpEntity<>(body, headers);
+    }
+
+    private User createUser(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.setProvider(User.AuthProvider.LOCAL);
+        return userRepository.save(user);
+    }
 }
@@ -0,0 +1,88 @@
+package com.example.skillsharing.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrentUserContextTest {
+
+    private final CurrentUserContext context = new CurrentUserContext();
+    private final List<Collection<Long>> loads = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getFollowedIds_WithinRequest_LoadsEachIdOnce() {
+        // Arrange
+        signIn(7L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        // Act
+        Set<Long> first = context.getFollowedIds(List.of(1L, 2L), this::matchesOne);
+        Set<Long> second = context.getFollowedIds(List.of(1L, 2L, 3L), this::matchesOne);
+
+        // Assert
+        assertEquals(7L, context.getUserId());
+        assertEquals(Set.of(1L), first);
+        assertEquals(Set.of(1L), second);
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), loads);
+    }
+
+    @Test
+    void setLiked_AfterLookup_OverridesCachedFlag() {
+        // Arrange
+        signIn(7L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        context.getLikedPostIds(List.of(5L), this::matchesOne);
+
+        // Act
+        context.setLiked(5L, true);
+
+        // Assert
+        assertEquals(Set.of(5L), context.getLikedPostIds(List.of(5L), this::matchesOne));
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void getFollowedIds_OutsideRequestOrAnonymous_SkipsCache() {
+        // Arrange
+        signIn(7L);
+
+        // Act
+        context.getFollowedIds(List.of(1L), this::matchesOne);
+        context.getFollowedIds(List.of(1L), this::matchesOne);
+        SecurityContextHolder.clearContext();
+        Set<Long> anonymous = context.getFollowedIds(List.of(1L), this::matchesOne);
+
+        // Assert
+        assertEquals(2, loads.size());
+        assertTrue(anonymous.isEmpty());
+        assertNull(context.getUserId());
+    }
+
+    private Collection<Long> matchesOne(Collection<Long> ids) {
+        loads.add(List.copyOf(ids));
+        return ids.contains(1L) ? List.of(1L) : List.of();
+    }
+
+    private static void signIn(Long userId) {
+        UserPrincipal principal = new UserPrincipal(userId, "user@example.com", null, List.of(), null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -110,7 +110,7 @@ class CustomUserDetailsServiceTest {
     @Test
     void loadUserById_WithNullId_ThrowsException() {
         // Act & Assert
-        assertThrows(IllegalArgumentException.class, () ->
+        assertThrows(ResourceNotFoundException.class, () ->
                 userDetailsService.loadUserById(null));
     }
 
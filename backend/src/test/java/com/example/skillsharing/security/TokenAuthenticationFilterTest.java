@@ -12,13 +12,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,9 +37,6 @@ class TokenAuthenticationFilterTest {
     @Mock
     private FilterChain filterChain;
 
-    @Mock
-    private Authentication authentication;
-
     @InjectMocks
     private TokenAuthenticationFilter tokenAuthenticationFilter;
 
@@ -64,7 +59,6 @@ class TokenAuthenticationFilterTest {
         when(tokenProvider.validateToken(validToken)).thenReturn(true);
         when(tokenProvider.getUserIdFromToken(validToken)).thenReturn(testUser.getId());
         when(customUserDetailsService.loadUserById(testUser.getId())).thenReturn(userPrincipal);
-        when(tokenProvider.getAuthentication(validToken)).thenReturn(authentication);
 
         // Act
         tokenAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -181,13 +175,12 @@ class TokenAuthenticationFilterTest {
         when(tokenProvider.validateToken(validToken)).thenReturn(true);
         when(tokenProvider.getUserIdFromToken(validToken)).thenReturn(testUser.getId());
         when(customUserDetailsService.loadUserById(testUser.getId())).thenReturn(userPrincipal);
-        when(tokenProvider.getAuthentication(validToken)).thenReturn(authentication);
 
         // Act
         tokenAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
         verify(filterChain).doFilter(request, response);
-        assertEquals(authentication, SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(userPrincipal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
     }
 }
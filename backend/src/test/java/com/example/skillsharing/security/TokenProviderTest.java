@@ -1,14 +1,13 @@
 package com.example.skillsharing.security;
 
-import com.example.skillsharing.config.AppConfig;
 import com.example.skillsharing.model.User;
 import com.example.skillsharing.util.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
 
@@ -16,19 +15,16 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class TokenProviderTest {
 
+    private static final String TOKEN_SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
     private TokenProvider tokenProvider;
-    private AppConfig appConfig;
     private User testUser;
     private UserPrincipal userPrincipal;
     private Authentication authentication;
 
     @BeforeEach
     void setUp() {
-        appConfig = new AppConfig();
-        appConfig.setTokenSecret("404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
-        appConfig.setTokenExpirationMsec(864000000L); // 10 days
-
-        tokenProvider = new TokenProvider(appConfig);
+        tokenProvider = createTokenProvider(TOKEN_SECRET, 864000000L); // 10 days
 
         testUser = TestDataFactory.createUser(1L);
         userPrincipal = UserPrincipal.create(testUser);
@@ -81,19 +77,10 @@ class TokenProviderTest {
     @Test
     void validateToken_WithExpiredToken_ReturnsFalse() {
         // Arrange
-        AppConfig shortExpirationConfig = new AppConfig();
-        shortExpirationConfig.setTokenSecret(appConfig.getTokenSecret());
-        shortExpirationConfig.setTokenExpirationMsec(1L); // 1 millisecond expiration
-
-        TokenProvider shortExpirationTokenProvider = new TokenProvider(shortExpirationConfig);
+        // JWT expiry has one-second granularity, so a negative lifetime is the reliable way to expire a token
+        TokenProvider shortExpirationTokenProvider = createTokenProvider(TOKEN_SECRET, -1000L);
         String token = shortExpirationTokenProvider.createToken(authentication);
 
-        try {
-            Thread.sleep(2); // Wait for token to expire
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
         // Act & Assert
         assertFalse(shortExpirationTokenProvider.validateToken(token));
     }
@@ -111,36 +98,14 @@ class TokenProviderTest {
     }
 
     @Test
-    void createToken_PreservesUserAuthorities() {
-        // Arrange
-        GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_USER");
-        Authentication authWithAuthorities = new UsernamePasswordAuthenticationToken(
-            userPrincipal,
-            null,
-            Collections.singletonList(authority)
-        );
-
-        // Act
-        String token = tokenProvider.createToken(authWithAuthorities);
-        Authentication resultAuth = tokenProvider.getAuthentication(token);
-
-        // Assert
-        assertTrue(resultAuth.getAuthorities().contains(authority));
-    }
-
-    @Test
-    void getAuthentication_ReturnsCorrectPrincipal() {
+    void validateToken_WithTokenSignedByAnotherSecret_ReturnsFalse() {
         // Arrange
-        String token = tokenProvider.createToken(authentication);
+        TokenProvider otherTokenProvider = createTokenProvider(
+            "6E5A7234753778214125442A472D4B6150645367566B59703373367639792442", 864000000L);
+        String token = otherTokenProvider.createToken(authentication);
 
-        // Act
-        Authentication resultAuth = tokenProvider.getAuthentication(token);
-
-        // Assert
-        assertTrue(resultAuth.getPrincipal() instanceof UserPrincipal);
-        UserPrincipal resultPrincipal = (UserPrincipal) resultAuth.getPrincipal();
-        assertEquals(userPrincipal.getId(), resultPrincipal.getId());
-        assertEquals(userPrincipal.getEmail(), resultPrincipal.getEmail());
+        // Act & Assert
+        assertFalse(tokenProvider.validateToken(token));
     }
 
     @Test
@@ -169,4 +134,10 @@ class TokenProviderTest {
             tokenProvider.getUserIdFromToken("invalid.token.string")
         );
     }
+
+    private static TokenProvider createTokenProvider(String secret, long expirationMsec) {
+        TokenProvider provider = new TokenProvider(secret);
+        ReflectionTestUtils.setField(provider, "tokenExpirationMsec", expirationMsec);
+        return provider;
+    }
 }
@@ -101,9 +101,9 @@ class UserPrincipalTest {
     }
 
     @Test
-    void getAttributes_WithNoAttributes_ReturnsEmptyMap() {
+    void getAttributes_WithNoAttributes_ReturnsNull() {
         // Assert
-        assertTrue(userPrincipal.getAttributes().isEmpty());
+        assertNull(userPrincipal.getAttributes());
     }
 
     @Test
@@ -154,25 +154,6 @@ class UserPrincipalTest {
         assertNotEquals(userPrincipal, new Object());
     }
 
-    @Test
-    void builder_CreatesValidUserPrincipal() {
-        // Act
-        UserPrincipal principal = UserPrincipal.builder()
-                .id(testUser.getId())
-                .email(testUser.getEmail())
-                .password(testUser.getPassword())
-                .authorities(userPrincipal.getAuthorities())
-                .attributes(attributes)
-                .build();
-
-        // Assert
-        assertNotNull(principal);
-        assertEquals(testUser.getId(), principal.getId());
-        assertEquals(testUser.getEmail(), principal.getEmail());
-        assertEquals(testUser.getPassword(), principal.getPassword());
-        assertEquals(attributes, principal.getAttributes());
-    }
-
     @Test
     void create_WithNullUser_ThrowsException() {
         // Assert
@@ -186,6 +167,6 @@ class UserPrincipalTest {
 
         // Assert
         assertNotNull(principal);
-        assertTrue(principal.getAttributes().isEmpty());
+        assertNull(principal.getAttributes());
     }
 }
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.Serializable;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -86,7 +87,6 @@ class CookieUtilsTest {
         // Arrange
         Cookie existingCookie = new Cookie(COOKIE_NAME, COOKIE_VALUE);
         when(request.getCookies()).thenReturn(new Cookie[]{existingCookie});
-        when(request.getServerName()).thenReturn("localhost");
 
         // Act
         CookieUtils.deleteCookie(request, response, COOKIE_NAME);
@@ -132,7 +132,7 @@ class CookieUtilsTest {
         String serialized = CookieUtils.serialize(original);
 
         // Act
-        TestObject deserialized = CookieUtils.deserialize(serialized, TestObject.class);
+        TestObject deserialized = CookieUtils.deserialize(new Cookie(COOKIE_NAME, serialized), TestObject.class);
 
         // Assert
         assertNotNull(deserialized);
@@ -140,21 +140,12 @@ class CookieUtilsTest {
     }
 
     @Test
-    void deserialize_WithInvalidString_ReturnsNull() {
-        // Act
-        TestObject result = CookieUtils.deserialize("invalid_serialized_string", TestObject.class);
-
-        // Assert
-        assertNull(result);
-    }
-
-    @Test
-    void deserialize_WithNullInput_ReturnsNull() {
-        // Act
-        TestObject result = CookieUtils.deserialize(null, TestObject.class);
+    void deserialize_WithInvalidString_ThrowsException() {
+        // Arrange
+        Cookie cookie = new Cookie(COOKIE_NAME, "invalid_serialized_string");
 
-        // Assert
-        assertNull(result);
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CookieUtils.deserialize(cookie, TestObject.class));
     }
 
     @Test
@@ -188,7 +179,7 @@ class CookieUtilsTest {
     }
 
     // Helper class for serialization tests
-    private static class TestObject {
+    private static class TestObject implements Serializable {
         private String value;
 
         public TestObject() {
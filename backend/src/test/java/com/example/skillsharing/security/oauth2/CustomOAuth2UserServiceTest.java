@@ -1,6 +1,5 @@
 package com.example.skillsharing.security.oauth2;
 
-import com.example.skillsharing.exception.OAuth2AuthenticationProcessingException;
 import com.example.skillsharing.model.User;
 import com.example.skillsharing.repository.UserRepository;
 import com.example.skillsharing.security.UserPrincipal;
@@ -8,15 +7,20 @@ import com.example.skillsharing.util.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
-import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestOperations;
 
 import java.time.Instant;
 import java.util.HashMap;
@@ -25,6 +29,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,159 +38,184 @@ class CustomOAuth2UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    // Stands in for the provider's user-info endpoint that DefaultOAuth2UserService calls
     @Mock
-    private OAuth2UserService delegateUserService;
+    private RestOperations restOperations;
 
-    @InjectMocks
     private CustomOAuth2UserService customOAuth2UserService;
-
     private OAuth2UserRequest oAuth2UserRequest;
-    private OAuth2User oAuth2User;
     private User testUser;
     private Map<String, Object> attributes;
 
     @BeforeEach
     void setUp() {
+        customOAuth2UserService = new CustomOAuth2UserService(userRepository);
+        customOAuth2UserService.setRestOperations(restOperations);
+
         testUser = TestDataFactory.createUser(1L);
+        testUser.setProvider(User.AuthProvider.GOOGLE);
         attributes = new HashMap<>();
         attributes.put("sub", "123456789");
         attributes.put("email", "test@example.com");
         attributes.put("name", "Test User");
+        attributes.put("picture", "https://example.com/picture.jpg");
 
-        ClientRegistration clientRegistration = ClientRegistration
-            .withRegistrationId("google")
-            .clientId("client-id")
-            .clientSecret("client-secret")
-            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
-            .redirectUri("http://localhost/login/oauth2/code/google")
-            .authorizationUri("https://accounts.google.com/o/oauth2/v2/auth")
-            .tokenUri("https://www.googleapis.com/oauth2/v4/token")
-            .userInfoUri("https://www.googleapis.com/oauth2/v3/userinfo")
-            .userNameAttributeName("sub")
-            .scope("openid", "profile", "email")
-            .build();
-
-        OAuth2AccessToken accessToken = new OAuth2AccessToken(
-            OAuth2AccessToken.TokenType.BEARER,
-            "token",
-            Instant.now(),
-            Instant.now().plusSeconds(3600)
-        );
-
-        oAuth2UserRequest = new OAuth2UserRequest(clientRegistration, accessToken);
-        oAuth2User = mock(OAuth2User.class);
-        when(oAuth2User.getAttributes()).thenReturn(attributes);
+        oAuth2UserRequest = createUserRequest("google");
     }
 
     @Test
     void loadUser_WithNewUser_CreatesAndReturnsUser() {
         // Arrange
-        when(delegateUserService.loadUser(any())).thenReturn(oAuth2User);
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        returnUserInfo(attributes);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
+        when(userRepository.existsByUsername("testuser")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         OAuth2User result = customOAuth2UserService.loadUser(oAuth2UserRequest);
 
         // Assert
-        assertNotNull(result);
         assertTrue(result instanceof UserPrincipal);
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).save(argThat(user ->
+            user.getProvider() == User.AuthProvider.GOOGLE
+                && "123456789".equals(user.getProviderId())
+                && "testuser".equals(user.getUsername())
+                && "test@example.com".equals(user.getEmail())
+        ));
+    }
+
+    @Test
+    void loadUser_WithTakenUsername_AppendsSuffix() {
+        // Arrange
+        returnUserInfo(attributes);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+        when(userRepository.existsByUsername("testuser1")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        customOAuth2UserService.loadUser(oAuth2UserRequest);
+
+        // Assert
+        verify(userRepository).save(argThat(user -> "testuser1".equals(user.getUsername())));
     }
 
     @Test
     void loadUser_WithExistingUser_UpdatesAndReturnsUser() {
         // Arrange
-        when(delegateUserService.loadUser(any())).thenReturn(oAuth2User);
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        returnUserInfo(attributes);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
 
         // Act
         OAuth2User result = customOAuth2UserService.loadUser(oAuth2UserRequest);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result instanceof UserPrincipal);
-        verify(userRepository).save(any(User.class));
+        assertEquals(testUser.getId(), ((UserPrincipal) result).getId());
+        assertEquals("https://example.com/picture.jpg", testUser.getProfilePicture());
+    }
+
+    @Test
+    void loadUser_WithExistingUserOfOtherProvider_ThrowsException() {
+        // Arrange
+        testUser.setProvider(User.AuthProvider.LOCAL);
+        returnUserInfo(attributes);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+        // Act & Assert
+        InternalAuthenticationServiceException exception = assertThrows(InternalAuthenticationServiceException.class,
+                () -> customOAuth2UserService.loadUser(oAuth2UserRequest));
+        assertTrue(exception.getMessage().contains("LOCAL"));
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
-    void loadUser_WithInvalidProvider_ThrowsException() {
+    void loadUser_WithUnsupportedProvider_ThrowsException() {
         // Arrange
-        when(delegateUserService.loadUser(any())).thenReturn(oAuth2User);
-        oAuth2UserRequest = mock(OAuth2UserRequest.class);
-        ClientRegistration invalidRegistration = mock(ClientRegistration.class);
-        when(invalidRegistration.getRegistrationId()).thenReturn("invalid_provider");
-        when(oAuth2UserRequest.getClientRegistration()).thenReturn(invalidRegistration);
+        oAuth2UserRequest = createUserRequest("github");
+        returnUserInfo(attributes);
 
         // Act & Assert
-        assertThrows(OAuth2AuthenticationProcessingException.class,
+        assertThrows(InternalAuthenticationServiceException.class,
                 () -> customOAuth2UserService.loadUser(oAuth2UserRequest));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void loadUser_WithMissingEmail_ThrowsException() {
         // Arrange
-        when(delegateUserService.loadUser(any())).thenReturn(oAuth2User);
         attributes.remove("email");
+        returnUserInfo(attributes);
 
         // Act & Assert
-        assertThrows(OAuth2AuthenticationProcessingException.class,
+        assertThrows(InternalAuthenticationServiceException.class,
                 () -> customOAuth2UserService.loadUser(oAuth2UserRequest));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    void loadUser_WithDelegateServiceFailure_PropagatesException() {
+    void loadUser_WithUserInfoEndpointFailure_ThrowsOAuth2Exception() {
         // Arrange
-        when(delegateUserService.loadUser(any()))
-                .thenThrow(new RuntimeException("Delegate service failure"));
+        when(restOperations.exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class)))
+                .thenThrow(new RestClientException("User info endpoint failure"));
 
         // Act & Assert
-        assertThrows(RuntimeException.class,
+        assertThrows(OAuth2AuthenticationException.class,
                 () -> customOAuth2UserService.loadUser(oAuth2UserRequest));
     }
 
     @Test
-    void loadUser_WithRepositoryFailure_PropagatesException() {
+    void loadUser_WithRepositoryFailure_ThrowsException() {
         // Arrange
-        when(delegateUserService.loadUser(any())).thenReturn(oAuth2User);
-        when(userRepository.findByEmail(anyString()))
-                .thenThrow(new RuntimeException("Repository failure"));
+        returnUserInfo(attributes);
+        when(userRepository.findByEmail(anyString())).thenThrow(new RuntimeException("Repository failure"));
 
         // Act & Assert
-        assertThrows(RuntimeException.class,
+        assertThrows(InternalAuthenticationServiceException.class,
                 () -> customOAuth2UserService.loadUser(oAuth2UserRequest));
     }
 
     @Test
     void loadUser_PreservesUserAttributes() {
         // Arrange
-        when(delegateUserService.loadUser(any())).thenReturn(oAuth2User);
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        returnUserInfo(attributes);
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenReturn(testUser);
 
         // Act
         OAuth2User result = customOAuth2UserService.loadUser(oAuth2UserRequest);
 
         // Assert
-        assertNotNull(result);
         assertEquals(attributes, result.getAttributes());
     }
 
-    @Test
-    void loadUser_UpdatesExistingUserProvider() {
-        // Arrange
-        testUser.setProvider("facebook");
-        when(delegateUserService.loadUser(any())).thenReturn(oAuth2User);
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+    @SuppressWarnings("unchecked")
+    private void returnUserInfo(Map<String, Object> userInfo) {
+        when(restOperations.exchange(any(RequestEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(userInfo));
+    }
 
-        // Act
-        customOAuth2UserService.loadUser(oAuth2UserRequest);
+    private static OAuth2UserRequest createUserRequest(String registrationId) {
+        ClientRegistration clientRegistration = ClientRegistration
+            .withRegistrationId(registrationId)
+            .clientId("client-id")
+            .clientSecret("client-secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("http://localhost/login/oauth2/code/" + registrationId)
+            .authorizationUri("https://accounts.example.com/o/oauth2/v2/auth")
+            .tokenUri("https://accounts.example.com/oauth2/v4/token")
+            .userInfoUri("https://accounts.example.com/oauth2/v3/userinfo")
+            .userNameAttributeName("sub")
+            .scope("openid", "profile", "email")
+            .build();
 
-        // Assert
-        verify(userRepository).save(argThat(user -> 
-            user.getProvider().equals("google")
-        ));
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(
+            OAuth2AccessToken.TokenType.BEARER,
+            "token",
+            Instant.now(),
+            Instant.now().plusSeconds(3600)
+        );
+
+        return new OAuth2UserRequest(clientRegistration, accessToken);
     }
 }
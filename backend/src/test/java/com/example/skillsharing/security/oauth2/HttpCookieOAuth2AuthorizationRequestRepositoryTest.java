@@ -1,38 +1,30 @@
 package com.example.skillsharing.security.oauth2;
 
 import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
 
+import static com.example.skillsharing.security.oauth2.HttpCookieOAuth2AuthorizationRequestRepository.OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME;
+import static com.example.skillsharing.security.oauth2.HttpCookieOAuth2AuthorizationRequestRepository.REDIRECT_URI_PARAM_COOKIE_NAME;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class HttpCookieOAuth2AuthorizationRequestRepositoryTest {
 
-    private HttpCookieOAuth2AuthorizationRequestRepository repository;
-
-    @Mock
-    private HttpServletRequest request;
-
-    @Mock
-    private HttpServletResponse response;
+    private static final String REDIRECT_URI = "http://localhost:3000/oauth2/redirect";
 
+    private HttpCookieOAuth2AuthorizationRequestRepository repository;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
     private OAuth2AuthorizationRequest authorizationRequest;
 
     @BeforeEach
     void setUp() {
         repository = new HttpCookieOAuth2AuthorizationRequestRepository();
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
         authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
                 .authorizationUri("https://example.com/oauth2/authorize")
                 .clientId("client-id")
@@ -44,10 +36,8 @@ class HttpCookieOAuth2AuthorizationRequestRepositoryTest {
     @Test
     void loadAuthorizationRequest_WithValidCookie_ReturnsRequest() {
         // Arrange
-        String serializedRequest = CookieUtils.serialize(authorizationRequest);
-        Cookie cookie = new Cookie(HttpCookieOAuth2AuthorizationRequestRepository.OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME,
-                serializedRequest);
-        when(request.getCookies()).thenReturn(new Cookie[]{cookie});
+        request.setCookies(new Cookie(OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME,
+                CookieUtils.serialize(authorizationRequest)));
 
         // Act
         OAuth2AuthorizationRequest loadedRequest = repository.loadAuthorizationRequest(request);
@@ -61,9 +51,6 @@ class HttpCookieOAuth2AuthorizationRequestRepositoryTest {
 
     @Test
     void loadAuthorizationRequest_WithNoCookie_ReturnsNull() {
-        // Arrange
-        when(request.getCookies()).thenReturn(null);
-
         // Act
         OAuth2AuthorizationRequest loadedRequest = repository.loadAuthorizationRequest(request);
 
@@ -72,115 +59,103 @@ class HttpCookieOAuth2AuthorizationRequestRepositoryTest {
     }
 
     @Test
-    void saveAuthorizationRequest_WithValidRequest_SavesCookie() {
-        // Act
-        repository.saveAuthorizationRequest(authorizationRequest, request, response);
-
-        // Assert
-        verify(response, times(2)).addCookie(any(Cookie.class));
-    }
+    void loadAuthorizationRequest_WithMultipleCookies_FindsCorrectCookie() {
+        // Arrange
+        request.setCookies(
+            new Cookie("other_cookie", "other_value"),
+            new Cookie(OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME, CookieUtils.serialize(authorizationRequest))
+        );
 
-    @Test
-    void saveAuthorizationRequest_WithNullRequest_RemovesCookie() {
         // Act
-        repository.saveAuthorizationRequest(null, request, response);
+        OAuth2AuthorizationRequest loadedRequest = repository.loadAuthorizationRequest(request);
 
         // Assert
-        verify(response, times(2)).addCookie(argThat(cookie -> 
-            cookie.getMaxAge() == 0
-        ));
+        assertNotNull(loadedRequest);
+        assertEquals(authorizationRequest.getClientId(), loadedRequest.getClientId());
     }
 
     @Test
-    void removeAuthorizationRequest_ReturnsAndRemovesRequest() {
+    void loadAuthorizationRequest_WithInvalidCookie_ThrowsException() {
         // Arrange
-        MockHttpServletRequest mockRequest = new MockHttpServletRequest();
-        MockHttpServletResponse mockResponse = new MockHttpServletResponse();
-        String serializedRequest = CookieUtils.serialize(authorizationRequest);
-        mockRequest.setCookies(new Cookie(
-            HttpCookieOAuth2AuthorizationRequestRepository.OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME,
-            serializedRequest
-        ));
+        request.setCookies(new Cookie(OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME, "invalid_serialized_data"));
 
-        // Act
-        OAuth2AuthorizationRequest removedRequest = repository.removeAuthorizationRequest(mockRequest, mockResponse);
-
-        // Assert
-        assertNotNull(removedRequest);
-        assertEquals(authorizationRequest.getClientId(), removedRequest.getClientId());
-        assertTrue(mockResponse.getCookies().length > 0);
-        assertEquals(0, mockResponse.getCookies()[0].getMaxAge());
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> repository.loadAuthorizationRequest(request));
     }
 
     @Test
-    void removeAuthorizationRequestCookies_RemovesBothCookies() {
+    void saveAuthorizationRequest_WithValidRequest_SavesRequestCookie() {
         // Act
-        repository.removeAuthorizationRequestCookies(request, response);
+        repository.saveAuthorizationRequest(authorizationRequest, request, response);
 
         // Assert
-        verify(response, times(2)).addCookie(argThat(cookie -> 
-            cookie.getMaxAge() == 0
-        ));
+        Cookie cookie = response.getCookie(OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME);
+        assertNotNull(cookie);
+        assertTrue(cookie.isHttpOnly());
+        assertTrue(cookie.getMaxAge() > 0);
+        assertNull(response.getCookie(REDIRECT_URI_PARAM_COOKIE_NAME));
     }
 
     @Test
-    void loadAuthorizationRequest_WithInvalidCookie_ReturnsNull() {
+    void saveAuthorizationRequest_WithRedirectUri_SavesRedirectUriCookie() {
         // Arrange
-        Cookie cookie = new Cookie(HttpCookieOAuth2AuthorizationRequestRepository.OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME,
-                "invalid_serialized_data");
-        when(request.getCookies()).thenReturn(new Cookie[]{cookie});
+        request.setParameter(REDIRECT_URI_PARAM_COOKIE_NAME, REDIRECT_URI);
 
         // Act
-        OAuth2AuthorizationRequest loadedRequest = repository.loadAuthorizationRequest(request);
+        repository.saveAuthorizationRequest(authorizationRequest, request, response);
 
         // Assert
-        assertNull(loadedRequest);
+        assertNotNull(response.getCookie(OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME));
+        assertEquals(REDIRECT_URI, response.getCookie(REDIRECT_URI_PARAM_COOKIE_NAME).getValue());
     }
 
     @Test
-    void saveAuthorizationRequest_WithRedirectUri_SavesRedirectUriCookie() {
+    void saveAuthorizationRequest_WithNullRequest_ExpiresExistingCookies() {
         // Arrange
-        String redirectUri = "http://localhost:3000/oauth2/redirect";
-        when(request.getParameter(eq("redirect_uri"))).thenReturn(redirectUri);
+        request.setCookies(
+            new Cookie(OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME, CookieUtils.serialize(authorizationRequest)),
+            new Cookie(REDIRECT_URI_PARAM_COOKIE_NAME, REDIRECT_URI)
+        );
 
         // Act
-        repository.saveAuthorizationRequest(authorizationRequest, request, response);
+        repository.saveAuthorizationRequest(null, request, response);
 
         // Assert
-        verify(response).addCookie(argThat(cookie -> 
-            cookie.getName().equals(HttpCookieOAuth2AuthorizationRequestRepository.REDIRECT_URI_PARAM_COOKIE_NAME) &&
-            cookie.getValue().equals(redirectUri)
-        ));
+        assertEquals(2, response.getCookies().length);
+        assertEquals(0, response.getCookie(OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME).getMaxAge());
+        assertEquals(0, response.getCookie(REDIRECT_URI_PARAM_COOKIE_NAME).getMaxAge());
     }
 
     @Test
-    void loadAuthorizationRequest_WithMultipleCookies_FindsCorrectCookie() {
+    void removeAuthorizationRequest_ReturnsRequestAndLeavesCookiesToTheHandlers() {
         // Arrange
-        String serializedRequest = CookieUtils.serialize(authorizationRequest);
-        Cookie authCookie = new Cookie(
-            HttpCookieOAuth2AuthorizationRequestRepository.OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME,
-            serializedRequest
-        );
-        Cookie otherCookie = new Cookie("other_cookie", "other_value");
-        when(request.getCookies()).thenReturn(new Cookie[]{otherCookie, authCookie});
+        request.setCookies(new Cookie(OAUTH2_AUTHORIZATION_REQUEST_COOKIE_NAME,
+                CookieUtils.serialize(authorizationRequest)));
 
         // Act
-        OAuth2AuthorizationRequest loadedRequest = repository.loadAuthorizationRequest(request);
+        OAuth2AuthorizationRequest removedRequest = repository.removeAuthorizationRequest(request, response);
 
         // Assert
-        assertNotNull(loadedRequest);
-        assertEquals(authorizationRequest.getClientId(), loadedRequest.getClientId());
+        assertNotNull(removedRequest);
+        assertEquals(authorizationRequest.getClientId(), removedRequest.getClientId());
+        assertEquals(0, response.getCookies().length);
     }
 
     @Test
     void removeAuthorizationRequest_WithNoCookies_ReturnsNull() {
-        // Arrange
-        when(request.getCookies()).thenReturn(null);
-
         // Act
         OAuth2AuthorizationRequest removedRequest = repository.removeAuthorizationRequest(request, response);
 
         // Assert
         assertNull(removedRequest);
     }
+
+    @Test
+    void removeAuthorizationRequestCookies_WithNoCookies_WritesNothing() {
+        // Act
+        repository.removeAuthorizationRequestCookies(request, response);
+
+        // Assert
+        assertEquals(0, response.getCookies().length);
+    }
 }
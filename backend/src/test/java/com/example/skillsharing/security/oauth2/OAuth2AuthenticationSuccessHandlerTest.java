@@ -1,28 +1,23 @@
 package com.example.skillsharing.security.oauth2;
 
-import com.example.skillsharing.config.AppConfig;
 import com.example.skillsharing.security.TokenProvider;
-import com.example.skillsharing.util.TestDataFactory;
+import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
-import java.net.URI;
-import java.util.Arrays;
-import java.util.Collections;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,150 +26,123 @@ class OAuth2AuthenticationSuccessHandlerTest {
     @Mock
     private TokenProvider tokenProvider;
 
-    @Mock
-    private AppConfig appConfig;
-
     @Mock
     private HttpCookieOAuth2AuthorizationRequestRepository httpCookieOAuth2AuthorizationRequestRepository;
 
-    @Mock
-    private HttpServletRequest request;
-
-    @Mock
-    private HttpServletResponse response;
-
     @Mock
     private Authentication authentication;
 
     @InjectMocks
     private OAuth2AuthenticationSuccessHandler successHandler;
 
+    private static final String DEFAULT_TARGET_URL = "http://localhost:8080";
     private static final String REDIRECT_URI = "http://localhost:3000/oauth2/redirect";
     private static final String TOKEN = "test.jwt.token";
 
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
     @BeforeEach
     void setUp() {
-        successHandler.setDefaultTargetUrl("http://localhost:8080");
-        when(appConfig.getAuthorizedRedirectUris())
-                .thenReturn(Collections.singletonList(REDIRECT_URI));
-        when(tokenProvider.createToken(any(Authentication.class)))
-                .thenReturn(TOKEN);
+        successHandler.setDefaultTargetUrl(DEFAULT_TARGET_URL);
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
     }
 
     @Test
-    void onAuthenticationSuccess_WithValidRedirectUri_RedirectsWithToken() throws IOException {
+    void onAuthenticationSuccess_WithValidRedirectUri_RedirectsWithToken() throws IOException, ServletException {
         // Arrange
-        Cookie redirectUriCookie = new Cookie("redirect_uri", REDIRECT_URI);
-        when(request.getCookies()).thenReturn(new Cookie[]{redirectUriCookie});
-        when(request.getParameter("redirect_uri")).thenReturn(REDIRECT_URI);
+        when(tokenProvider.createToken(authentication)).thenReturn(TOKEN);
+        request.setCookies(new Cookie("redirect_uri", REDIRECT_URI));
 
         // Act
         successHandler.onAuthenticationSuccess(request, response, authentication);
 
         // Assert
-        String expectedRedirectUrl = UriComponentsBuilder.fromUriString(REDIRECT_URI)
-                .queryParam("token", TOKEN)
-                .build().toUriString();
-        verify(response).sendRedirect(expectedRedirectUrl);
+        assertEquals(withToken(REDIRECT_URI), response.getRedirectedUrl());
         verify(httpCookieOAuth2AuthorizationRequestRepository).removeAuthorizationRequestCookies(request, response);
     }
 
     @Test
-    void onAuthenticationSuccess_WithInvalidRedirectUri_UsesDefaultTargetUrl() throws IOException {
+    void onAuthenticationSuccess_WithOtherPathOnAuthorizedHost_RedirectsWithToken() throws IOException, ServletException {
         // Arrange
-        String invalidRedirectUri = "http://malicious-site.com";
-        Cookie redirectUriCookie = new Cookie("redirect_uri", invalidRedirectUri);
-        when(request.getCookies()).thenReturn(new Cookie[]{redirectUriCookie});
-        when(request.getParameter("redirect_uri")).thenReturn(invalidRedirectUri);
+        String otherPath = "http://localhost:3000/welcome";
+        when(tokenProvider.createToken(authentication)).thenReturn(TOKEN);
+        request.setCookies(new Cookie("redirect_uri", otherPath));
 
         // Act
         successHandler.onAuthenticationSuccess(request, response, authentication);
 
         // Assert
-        verify(response).sendRedirect(anyString());
-        verify(httpCookieOAuth2AuthorizationRequestRepository).removeAuthorizationRequestCookies(request, response);
+        assertEquals(withToken(otherPath), response.getRedirectedUrl());
     }
 
     @Test
-    void onAuthenticationSuccess_WithNoCookies_UsesDefaultTargetUrl() throws IOException {
+    void onAuthenticationSuccess_WithUnauthorizedRedirectUri_RejectsWithoutIssuingToken() {
         // Arrange
-        when(request.getCookies()).thenReturn(null);
+        request.setCookies(new Cookie("redirect_uri", "http://malicious-site.com"));
 
-        // Act
-        successHandler.onAuthenticationSuccess(request, response, authentication);
-
-        // Assert
-        verify(response).sendRedirect(anyString());
-        verify(httpCookieOAuth2AuthorizationRequestRepository).removeAuthorizationRequestCookies(request, response);
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> successHandler.onAuthenticationSuccess(request, response, authentication));
+        assertNull(response.getRedirectedUrl());
+        verifyNoInteractions(tokenProvider);
     }
 
     @Test
-    void onAuthenticationSuccess_WithNoRedirectUri_UsesDefaultTargetUrl() throws IOException {
+    void onAuthenticationSuccess_WithNoCookies_UsesDefaultTargetUrl() throws IOException, ServletException {
         // Arrange
-        when(request.getCookies()).thenReturn(new Cookie[]{});
-        when(request.getParameter("redirect_uri")).thenReturn(null);
+        when(tokenProvider.createToken(authentication)).thenReturn(TOKEN);
 
         // Act
         successHandler.onAuthenticationSuccess(request, response, authentication);
 
         // Assert
-        verify(response).sendRedirect(anyString());
+        assertEquals(withToken(DEFAULT_TARGET_URL), response.getRedirectedUrl());
         verify(httpCookieOAuth2AuthorizationRequestRepository).removeAuthorizationRequestCookies(request, response);
     }
 
     @Test
-    void onAuthenticationSuccess_WithMultipleCookies_FindsCorrectRedirectUri() throws IOException {
+    void onAuthenticationSuccess_WithMultipleCookies_FindsCorrectRedirectUri() throws IOException, ServletException {
         // Arrange
-        Cookie redirectUriCookie = new Cookie("redirect_uri", REDIRECT_URI);
-        Cookie otherCookie = new Cookie("other", "value");
-        when(request.getCookies()).thenReturn(new Cookie[]{otherCookie, redirectUriCookie});
-        when(request.getParameter("redirect_uri")).thenReturn(REDIRECT_URI);
+        when(tokenProvider.createToken(authentication)).thenReturn(TOKEN);
+        request.setCookies(new Cookie("other", "value"), new Cookie("redirect_uri", REDIRECT_URI));
 
         // Act
         successHandler.onAuthenticationSuccess(request, response, authentication);
 
         // Assert
-        String expectedRedirectUrl = UriComponentsBuilder.fromUriString(REDIRECT_URI)
-                .queryParam("token", TOKEN)
-                .build().toUriString();
-        verify(response).sendRedirect(expectedRedirectUrl);
+        assertEquals(withToken(REDIRECT_URI), response.getRedirectedUrl());
     }
 
     @Test
-    void onAuthenticationSuccess_WithEmptyAuthorizedUris_UsesDefaultTargetUrl() throws IOException {
+    void onAuthenticationSuccess_WithCommittedResponse_DoesNotRedirect() throws IOException, ServletException {
         // Arrange
-        when(appConfig.getAuthorizedRedirectUris()).thenReturn(Collections.emptyList());
-        when(request.getCookies()).thenReturn(new Cookie[]{new Cookie("redirect_uri", REDIRECT_URI)});
+        when(tokenProvider.createToken(authentication)).thenReturn(TOKEN);
+        response.setCommitted(true);
 
         // Act
         successHandler.onAuthenticationSuccess(request, response, authentication);
 
         // Assert
-        verify(response).sendRedirect(anyString());
+        assertNull(response.getRedirectedUrl());
+        verify(httpCookieOAuth2AuthorizationRequestRepository, never()).removeAuthorizationRequestCookies(any(), any());
     }
 
     @Test
-    void onAuthenticationSuccess_HandlesIOException() throws IOException {
+    void onAuthenticationSuccess_WhenTokenCreationFails_Propagates() {
         // Arrange
-        when(request.getCookies()).thenReturn(new Cookie[]{new Cookie("redirect_uri", REDIRECT_URI)});
-        doThrow(new IOException("Test exception")).when(response).sendRedirect(anyString());
+        when(tokenProvider.createToken(authentication)).thenThrow(new IllegalStateException("Token creation failed"));
 
         // Act & Assert
-        successHandler.onAuthenticationSuccess(request, response, authentication);
-        // Verify that cleanup still occurs even if redirect fails
-        verify(httpCookieOAuth2AuthorizationRequestRepository).removeAuthorizationRequestCookies(request, response);
+        assertThrows(IllegalStateException.class,
+                () -> successHandler.onAuthenticationSuccess(request, response, authentication));
+        assertNull(response.getRedirectedUrl());
     }
 
-    @Test
-    void onAuthenticationSuccess_CleansUpCookiesOnError() throws IOException {
-        // Arrange
-        when(request.getCookies()).thenReturn(new Cookie[]{new Cookie("redirect_uri", REDIRECT_URI)});
-        when(tokenProvider.createToken(any())).thenThrow(new RuntimeException("Token creation failed"));
-
-        // Act
-        successHandler.onAuthenticationSuccess(request, response, authentication);
-
-        // Assert
-        verify(httpCookieOAuth2AuthorizationRequestRepository).removeAuthorizationRequestCookies(request, response);
+    private static String withToken(String targetUrl) {
+        return UriComponentsBuilder.fromUriString(targetUrl)
+                .queryParam("token", TOKEN)
+                .build().toUriString();
     }
 }
@@ -1,6 +1,6 @@
 package com.example.skillsharing.security.oauth2;
 
-import com.example.skillsharing.exception.OAuth2AuthenticationProcessingException;
+import com.example.skillsharing.exception.BadRequestException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -40,23 +40,23 @@ class OAuth2UserInfoFactoryTest {
         Map<String, Object> attributes = new HashMap<>();
 
         // Act & Assert
-        OAuth2AuthenticationProcessingException exception = assertThrows(
-            OAuth2AuthenticationProcessingException.class,
+        BadRequestException exception = assertThrows(
+            BadRequestException.class,
             () -> OAuth2UserInfoFactory.getOAuth2UserInfo(registrationId, attributes)
         );
         assertEquals("Sorry! Login with invalid_provider is not supported yet.", exception.getMessage());
     }
 
     @Test
-    void getOAuth2UserInfo_WithNullAttributes_ThrowsException() {
+    void getOAuth2UserInfo_WithNullAttributes_ThrowsOnAccess() {
         // Arrange
         String registrationId = "google";
 
-        // Act & Assert
-        assertThrows(
-            NullPointerException.class,
-            () -> OAuth2UserInfoFactory.getOAuth2UserInfo(registrationId, null)
-        );
+        // Act
+        OAuth2UserInfo userInfo = OAuth2UserInfoFactory.getOAuth2UserInfo(registrationId, null);
+
+        // Assert
+        assertThrows(NullPointerException.class, userInfo::getEmail);
     }
 
     @Test
@@ -111,21 +111,17 @@ class OAuth2UserInfoFactoryTest {
     }
 
     @Test
-    void googleOAuth2UserInfo_WithNonStringAttributes_HandlesTypesGracefully() {
+    void googleOAuth2UserInfo_WithNonStringAttributes_ThrowsOnAccess() {
         // Arrange
         Map<String, Object> attributes = new HashMap<>();
         attributes.put("sub", 123456789);
-        attributes.put("name", new StringBuilder("Test User"));
-        attributes.put("email", new Object());
         attributes.put("picture", null);
 
         // Act
         GoogleOAuth2UserInfo userInfo = new GoogleOAuth2UserInfo(attributes);
 
         // Assert
-        assertEquals("123456789", userInfo.getId());
-        assertEquals("Test User", userInfo.getName());
-        assertEquals(userInfo.getEmail(), userInfo.getEmail());
+        assertThrows(ClassCastException.class, userInfo::getId);
         assertNull(userInfo.getImageUrl());
     }
 
@@ -150,16 +146,14 @@ class OAuth2UserInfoFactoryTest {
     }
 
     @Test
-    void googleOAuth2UserInfo_GetAttributes_ReturnsUnmodifiableMap() {
+    void googleOAuth2UserInfo_GetAttributes_ReturnsProviderAttributes() {
         // Arrange
         Map<String, Object> attributes = new HashMap<>();
         attributes.put("sub", "123456789");
         GoogleOAuth2UserInfo userInfo = new GoogleOAuth2UserInfo(attributes);
 
         // Act & Assert
-        assertThrows(
-            UnsupportedOperationException.class,
-            () -> userInfo.getAttributes().put("newKey", "newValue")
-        );
+        assertSame(attributes, userInfo.getAttributes());
+        assertEquals("google", userInfo.getProvider());
     }
 }
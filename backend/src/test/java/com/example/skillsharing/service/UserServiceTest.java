@@ -4,14 +4,15 @@ import com.example.skillsharing.dto.UserDTO;
 import com.example.skillsharing.exception.ResourceNotFoundException;
 import com.example.skillsharing.model.User;
 import com.example.skillsharing.repository.UserRepository;
+import com.example.skillsharing.security.CurrentUserContext;
 import com.example.skillsharing.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 
@@ -26,7 +27,11 @@ public class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private FeedService feedService;
+
+    // Outside a request it holds no viewer, so every user converts as not followed
+    @Spy
+    private CurrentUserContext currentUserContext = new CurrentUserContext();
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -86,10 +91,12 @@ public class UserServiceTest {
         // Arrange
         Long userId = 1L;
         UserDTO updateDTO = new UserDTO();
+        updateDTO.setUsername(testUser.getUsername());
+        updateDTO.setEmail(testUser.getEmail());
         updateDTO.setBio("Updated bio");
         updateDTO.setProfilePicture("new-profile.jpg");
 
-        when(userRepository.findById(userId))
+        when(userRepository.findByIdForUpdate(userId))
                 .thenReturn(Optional.of(testUser));
         when(userRepository.save(any(User.class)))
                 .thenReturn(testUser);
@@ -100,8 +107,8 @@ public class UserServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(updateDTO.getBio(), result.getBio());
-        assertEquals(updateDTO.getProfilePicture(), result.getProfilePicture());
-        verify(userRepository).findById(userId);
+        assertEquals("profile.jpg", result.getProfilePicture());
+        verify(userRepository).findByIdForUpdate(userId);
         verify(userRepository).save(any(User.class));
     }
 
@@ -110,13 +117,13 @@ public class UserServiceTest {
         // Arrange
         Long userId = 999L;
         UserDTO updateDTO = new UserDTO();
-        when(userRepository.findById(userId))
+        when(userRepository.findByIdForUpdate(userId))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class,
                 () -> userService.updateUser(userId, updateDTO));
-        verify(userRepository).findById(userId);
+        verify(userRepository).findByIdForUpdate(userId);
         verify(userRepository, never()).save(any(User.class));
     }
 
@@ -124,30 +131,29 @@ public class UserServiceTest {
     void deleteUser_WhenUserExists_DeletesUser() {
         // Arrange
         Long userId = 1L;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.of(testUser));
-        doNothing().when(userRepository).delete(any(User.class));
+        when(userRepository.existsById(userId))
+                .thenReturn(true);
 
         // Act
         userService.deleteUser(userId);
 
         // Assert
-        verify(userRepository).findById(userId);
-        verify(userRepository).delete(testUser);
+        verify(userRepository).existsById(userId);
+        verify(userRepository).deleteById(userId);
     }
 
     @Test
     void deleteUser_WhenUserNotFound_ThrowsException() {
         // Arrange
         Long userId = 999L;
-        when(userRepository.findById(userId))
-                .thenReturn(Optional.empty());
+        when(userRepository.existsById(userId))
+                .thenReturn(false);
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class,
                 () -> userService.deleteUser(userId));
-        verify(userRepository).findById(userId);
-        verify(userRepository, never()).delete(any(User.class));
+        verify(userRepository).existsById(userId);
+        verify(userRepository, never()).deleteById(any());
     }
 
     @Test
@@ -155,7 +161,9 @@ public class UserServiceTest {
         // Arrange
         Long userId = 1L;
         Long targetUserId = 2L;
-        when(userRepository.existsByFollowerIdAndFollowingId(userId, targetUserId))
+        when(userRepository.existsById(targetUserId))
+                .thenReturn(true);
+        when(userRepository.existsFollow(userId, targetUserId))
                 .thenReturn(true);
 
         // Act
@@ -163,7 +171,7 @@ public class UserServiceTest {
 
         // Assert
         assertTrue(result);
-        verify(userRepository).existsByFollowerIdAndFollowingId(userId, targetUserId);
+        verify(userRepository).existsFollow(userId, targetUserId);
     }
 
     @Test
@@ -171,7 +179,9 @@ public class UserServiceTest {
         // Arrange
         Long userId = 1L;
         Long targetUserId = 2L;
-        when(userRepository.existsByFollowerIdAndFollowingId(userId, targetUserId))
+        when(userRepository.existsById(targetUserId))
+                .thenReturn(true);
+        when(userRepository.existsFollow(userId, targetUserId))
                 .thenReturn(false);
 
         // Act
@@ -179,6 +189,6 @@ public class UserServiceTest {
 
         // Assert
         assertFalse(result);
-        verify(userRepository).existsByFollowerIdAndFollowingId(userId, targetUserId);
+        verify(userRepository).existsFollow(userId, targetUserId);
     }
 }
@@ -0,0 +1,59 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.base.BaseTest;
+import com.example.skillsharing.model.FeedEntry;
+import com.example.skillsharing.model.SkillSharingPost;
+import com.example.skillsharing.model.User;
+import com.example.skillsharing.repository.FeedEntryRepository;
+import com.example.skillsharing.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedReconcilerTest extends BaseTest {
+
+    @Autowired
+    private FeedReconciler feedReconciler;
+
+    @Autowired
+    private FeedEntryRepository feedEntryRepository;
+
+    @Test
+    void reconcile_WithFollowAndNoEntries_BackfillsTimeline() {
+        // Arrange
+        User author = userRepository.saveAndFlush(TestDataFactory.createUser(null));
+        SkillSharingPost post = postRepository.saveAndFlush(TestDataFactory.createPost(null, author));
+        userRepository.insertFollow(testUser.getId(), author.getId());
+
+        // Act
+        feedReconciler.reconcile();
+        feedReconciler.reconcile();
+
+        // Assert
+        List<SkillSharingPost> feed = feedEntryRepository.findFeedPosts(testUser.getId(), Pageable.unpaged()).getContent();
+        assertEquals(List.of(post.getId()), feed.stream().map(SkillSharingPost::getId).toList());
+    }
+
+    @Test
+    void reconcile_WithEntryFromUnfollowedAuthor_RemovesIt() {
+        // Arrange
+        User author = userRepository.saveAndFlush(TestDataFactory.createUser(null));
+        SkillSharingPost post = postRepository.saveAndFlush(TestDataFactory.createPost(null, author));
+        FeedEntry stale = new FeedEntry();
+        stale.setRecipientId(testUser.getId());
+        stale.setAuthorId(author.getId());
+        stale.setPost(post);
+        stale.setCreatedAt(post.getCreatedAt());
+        feedEntryRepository.saveAndFlush(stale);
+
+        // Act
+        feedReconciler.reconcile();
+
+        // Assert
+        assertTrue(feedEntryRepository.findFeedPosts(testUser.getId(), Pageable.unpaged()).isEmpty());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.event.PostCreatedEvent;
+import com.example.skillsharing.repository.FeedEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedServiceImplTest {
+
+    private static final PostCreatedEvent EVENT = new PostCreatedEvent(7L, 3L, LocalDateTime.of(2024, 1, 1, 9, 0));
+
+    @Mock
+    private FeedEntryRepository feedEntryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FeedServiceImpl feedService;
+
+    @BeforeEach
+    void setUp() {
+        feedService = new FeedServiceImpl(feedEntryRepository, transactionManager);
+    }
+
+    @Test
+    void fanOutPost_WhenConcurrentInsertWinsUniqueKey_RetriesInNewTransaction() {
+        // Arrange
+        when(feedEntryRepository.fanOutPost(7L, 3L, EVENT.createdAt()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(4);
+
+        // Act
+        feedService.fanOutPost(EVENT);
+
+        // Assert
+        verify(feedEntryRepository, times(2)).fanOutPost(7L, 3L, EVENT.createdAt());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void fanOutPost_WhenEveryAttemptCollides_GivesUpWithoutThrowing() {
+        // Arrange
+        when(feedEntryRepository.fanOutPost(7L, 3L, EVENT.createdAt()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act
+        feedService.fanOutPost(EVENT);
+
+        // Assert
+        verify(feedEntryRepository, times(FeedServiceImpl.MAX_FAN_OUT_ATTEMPTS)).fanOutPost(7L, 3L, EVENT.createdAt());
+        verify(transactionManager, never()).commit(any());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.service.MediaStorage;
+import com.example.skillsharing.util.MediaVariant;
+import com.example.skillsharing.util.TestUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageDerivativeGeneratorTest {
+
+    private static final String FILENAME = "photo.jpg";
+
+    @Mock
+    private MediaStorage mediaStorage;
+
+    @TempDir
+    private Path directory;
+
+    private ImageDerivativeGenerator generator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        generator = new ImageDerivativeGenerator(mediaStorage, new AppConfig());
+        when(mediaStorage.stagingDirectory()).thenReturn(directory);
+        // No variants exist yet
+        when(mediaStorage.locate(eq(MediaStorage.Area.POSTS), anyString())).thenReturn(null);
+        doAnswer(invocation -> Files.copy(invocation.<Path>getArgument(2),
+                directory.resolve(invocation.<String>getArgument(1)), StandardCopyOption.REPLACE_EXISTING))
+                .when(mediaStorage).putFile(eq(MediaStorage.Area.POSTS), anyString(), any(Path.class));
+    }
+
+    @Test
+    void generate_WithRotatedExifOrientation_WritesUprightVariants() throws IOException {
+        // Arrange
+        // Stored sideways: red on the left, blue on the right; orientation 6 turns it clockwise
+        Path original = Files.write(directory.resolve(FILENAME),
+                TestUtil.withExifOrientation(sideBySide(400, 200), ByteOrder.BIG_ENDIAN, 6));
+        when(mediaStorage.locate(MediaStorage.Area.POSTS, FILENAME)).thenReturn(original);
+
+        // Act
+        generator.generate(FILENAME);
+
+        // Assert
+        BufferedImage thumbnail = ImageIO.read(directory.resolve(MediaVariant.THUMBNAIL.nameFor(FILENAME)).toFile());
+        assertEquals(160, thumbnail.getWidth());
+        assertEquals(320, thumbnail.getHeight());
+        assertTrue(isRed(thumbnail.getRGB(80, 40)));
+        assertFalse(isRed(thumbnail.getRGB(80, 280)));
+    }
+
+    @Test
+    void generate_WithoutExif_KeepsStoredOrientation() throws IOException {
+        // Arrange
+        Path original = Files.write(directory.resolve(FILENAME), sideBySide(400, 200));
+        when(mediaStorage.locate(MediaStorage.Area.POSTS, FILENAME)).thenReturn(original);
+
+        // Act
+        generator.generate(FILENAME);
+
+        // Assert
+        BufferedImage thumbnail = ImageIO.read(directory.resolve(MediaVariant.THUMBNAIL.nameFor(FILENAME)).toFile());
+        assertEquals(320, thumbnail.getWidth());
+        assertEquals(160, thumbnail.getHeight());
+        assertTrue(isRed(thumbnail.getRGB(40, 80)));
+    }
+
+    private static byte[] sideBySide(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(width / 2, 0, width - width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    private static boolean isRed(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 200 && color.getBlue() < 60;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.event.PostEngagementEvent;
+import com.example.skillsharing.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LikeWriteBehindBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AppConfig appConfig;
+    private LikeWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        appConfig = new AppConfig();
+        appConfig.getLikes().setMaxPending(2);
+        appConfig.getLikes().setBatchSize(1);
+        buffer = new LikeWriteBehindBuffer(jdbcTemplate, new TransactionTemplate(transactionManager),
+                eventPublisher, appConfig);
+    }
+
+    @Test
+    void flush_WhenDriverReportsSuccessNoInfo_RecountsFromPostLikes() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO post_likes"), anyList()))
+                .thenReturn(new int[]{Statement.SUCCESS_NO_INFO});
+        when(jdbcTemplate.batchUpdate(startsWith("DELETE FROM post_likes"), anyList())).thenReturn(new int[0]);
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE"), eq(Long.class), eq(5L))).thenReturn(List.of(3L));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*)"), eq(Long.class), eq(5L))).thenReturn(4L);
+        buffer.submit(5L, 9L, true);
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        verify(jdbcTemplate).update(startsWith("UPDATE skill_sharing_posts SET like_count = ?"), eq(4L), eq(5L));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE skill_sharing_posts SET like_count = like_count"),
+                argThat((List<Object[]> adjustments) -> adjustments.isEmpty()));
+        verify(eventPublisher).publishEvent(new PostEngagementEvent(5L, PostEngagementEvent.Type.LIKE, 1));
+    }
+
+    @Test
+    void submit_WhenFullAndFlushFails_ThrowsServiceUnavailableAndKeepsIntents() {
+        // Arrange
+        buffer.submit(1L, 9L, true);
+        buffer.submit(2L, 9L, true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        when(jdbcTemplate.queryForObject("SELECT 1", Integer.class)).thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> buffer.submit(3L, 9L, true));
+        assertTrue(buffer.pendingIntent(1L, 9L));
+        assertTrue(buffer.pendingIntent(2L, 9L));
+        assertNull(buffer.pendingIntent(3L, 9L));
+    }
+
+    @Test
+    void submit_WhenFull_WritesOnlyOneBatchInline() {
+        // Arrange
+        buffer.submit(1L, 9L, true);
+        buffer.submit(2L, 9L, true);
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO post_likes"), anyList())).thenReturn(new int[]{1});
+        when(jdbcTemplate.batchUpdate(startsWith("DELETE FROM post_likes"), anyList())).thenReturn(new int[0]);
+
+        // Act
+        buffer.submit(3L, 9L, true);
+
+        // Assert
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("INSERT INTO post_likes"), anyList());
+        assertTrue(buffer.pendingIntent(3L, 9L));
+    }
+
+    @Test
+    void flush_WhenOneIntentKeepsFailing_WritesTheRestAndDropsIt() {
+        // Arrange
+        appConfig.getLikes().setBatchSize(10);
+        buffer.submit(1L, 9L, true);
+        buffer.submit(2L, 9L, true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            if (invocation.<String>getArgument(0).startsWith("INSERT INTO post_likes")
+                    && rows.stream().anyMatch(row -> row[1].equals(2L))) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            int[] updateCounts = new int[rows.size()];
+            Arrays.fill(updateCounts, 1);
+            return updateCounts;
+        });
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        assertNull(buffer.pendingIntent(1L, 9L));
+        assertNull(buffer.pendingIntent(2L, 9L));
+        verify(eventPublisher).publishEvent(new PostEngagementEvent(1L, PostEngagementEvent.Type.LIKE, 1));
+        verify(eventPublisher, never()).publishEvent(new PostEngagementEvent(2L, PostEngagementEvent.Type.LIKE, 1));
+        // The batch, the retry alone, then four more flushes until maxFlushAttempts is used up
+        verify(jdbcTemplate, times(6)).batchUpdate(startsWith("INSERT INTO post_likes"),
+                argThat((List<Object[]> rows) -> rows.stream().anyMatch(row -> row[1].equals(2L))));
+    }
+
+    @Test
+    void flush_WhenDatabaseIsDown_KeepsEveryIntentAndPropagates() {
+        // Arrange
+        appConfig.getLikes().setBatchSize(10);
+        buffer.submit(1L, 9L, true);
+        buffer.submit(2L, 9L, false);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timeout"));
+        when(jdbcTemplate.queryForObject("SELECT 1", Integer.class)).thenThrow(new QueryTimeoutException("timeout"));
+
+        // Act & Assert
+        assertThrows(QueryTimeoutException.class, () -> buffer.flush());
+        assertTrue(buffer.pendingIntent(1L, 9L));
+        assertFalse(buffer.pendingIntent(2L, 9L));
+    }
+}
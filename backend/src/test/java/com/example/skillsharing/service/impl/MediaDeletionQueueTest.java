@@ -0,0 +1,104 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.base.BaseTest;
+import com.example.skillsharing.repository.MediaDeletionRepository;
+import com.example.skillsharing.repository.MediaObjectRepository;
+import com.example.skillsharing.service.MediaStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+class MediaDeletionQueueTest extends BaseTest {
+
+    @MockBean
+    private ImageDerivativeGenerator derivativeGenerator;
+
+    @Autowired
+    private MediaUploadPipeline mediaUploadPipeline;
+
+    @Autowired
+    private MediaObjectRepository mediaObjectRepository;
+
+    @Autowired
+    private MediaDeletionRepository mediaDeletionRepository;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanupMedia() {
+        mediaDeletionRepository.deleteAll();
+        mediaObjectRepository.deleteAll();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void process_WhenContentIsUploadedAgainMidDeletion_KeepsTheNewCopy() throws Exception {
+        // Arrange
+        byte[] content = jpeg();
+        MediaUploadPipeline.StagedMedia first = mediaUploadPipeline.stage(new ByteArrayInputStream(content));
+        String filename = first.filename();
+
+        // The deletion pauses while it holds the media_objects row, before it touches the file
+        CountDownLatch deleting = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            deleting.countDown();
+            assertTrue(resume.await(10, TimeUnit.SECONDS));
+            return null;
+        }).when(derivativeGenerator).delete(filename);
+        transactionTemplate.executeWithoutResult(status -> mediaUploadPipeline.attach(List.of(first)));
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> mediaUploadPipeline.detach(List.of(filename)));
+        assertTrue(deleting.await(10, TimeUnit.SECONDS));
+
+        MediaUploadPipeline.StagedMedia second = mediaUploadPipeline.stage(new ByteArrayInputStream(content));
+        CompletableFuture<Void> reupload = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> mediaUploadPipeline.attach(List.of(second))));
+        Thread.sleep(200);
+        boolean waitedForDeletion = !reupload.isDone();
+        resume.countDown();
+        reupload.get(10, TimeUnit.SECONDS);
+        awaitEmptyQueue();
+
+        // Assert
+        assertTrue(waitedForDeletion);
+        assertNotNull(mediaStorage.locate(MediaStorage.Area.POSTS, filename));
+        assertEquals(1, mediaObjectRepository.findRefCount(filename).orElseThrow());
+    }
+
+    private void awaitEmptyQueue() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (mediaDeletionRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    // Unique content per run, since the upload directory outlives the test
+    private static byte[] jpeg() {
+        byte[] header = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0};
+        byte[] tail = UUID.randomUUID().toString().getBytes();
+        byte[] content = new byte[header.length + tail.length];
+        System.arraycopy(header, 0, content, 0, header.length);
+        System.arraycopy(tail, 0, content, header.length, tail.length);
+        return content;
+    }
+}
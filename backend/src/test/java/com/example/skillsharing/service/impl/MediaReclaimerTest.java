@@ -0,0 +1,108 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.repository.MediaObjectRepository;
+import com.example.skillsharing.repository.SkillSharingPostRepository;
+import com.example.skillsharing.repository.UploadSessionRepository;
+import com.example.skillsharing.repository.UserRepository;
+import com.example.skillsharing.service.MediaStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MediaReclaimerTest {
+
+    @Mock
+    private MediaStorage mediaStorage;
+
+    @Mock
+    private SkillSharingPostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MediaObjectRepository mediaObjectRepository;
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path root;
+
+    private MediaReclaimer reclaimer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        AppConfig appConfig = new AppConfig();
+        appConfig.getFileStorage().setCleanupBatchPauseMs(0);
+        reclaimer = new MediaReclaimer(mediaStorage, postRepository, userRepository, mediaObjectRepository,
+                uploadSessionRepository, transactionManager, new SimpleMeterRegistry(), appConfig);
+        when(mediaStorage.stagingDirectory()).thenReturn(Files.createDirectory(root.resolve("staging")));
+        lenient().when(mediaStorage.list(MediaStorage.Area.PROFILE_PICTURES)).thenReturn(Stream.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reclaimer.shutdown();
+    }
+
+    @Test
+    void reclaim_WhenListedFileVanishes_SkipsItAndDeletesTheRest() throws IOException {
+        // Arrange
+        Path orphan = oldFile("orphan.jpg");
+        when(mediaStorage.list(MediaStorage.Area.POSTS)).thenReturn(Stream.of(root.resolve("gone.jpg"), orphan));
+
+        // Act
+        reclaimer.reclaim();
+
+        // Assert
+        assertFalse(Files.exists(orphan));
+        verify(mediaObjectRepository).deleteIfUnreferenced("orphan.jpg");
+        verify(mediaObjectRepository, never()).lockRefCount("gone.jpg");
+    }
+
+    @Test
+    void reclaim_WhenPostMediaIsReferencedAgainBeforeUnlink_KeepsFile() throws IOException {
+        // Arrange
+        Path reused = oldFile("reused.jpg");
+        when(mediaStorage.list(MediaStorage.Area.POSTS)).thenReturn(Stream.of(reused));
+        when(mediaObjectRepository.lockRefCount("reused.jpg")).thenReturn(Optional.of(1));
+
+        // Act
+        reclaimer.reclaim();
+
+        // Assert
+        assertTrue(Files.exists(reused));
+        verify(mediaObjectRepository).insertIfAbsent("reused.jpg", 0);
+        verify(mediaObjectRepository, never()).deleteIfUnreferenced("reused.jpg");
+    }
+
+    private Path oldFile(String name) throws IOException {
+        Path path = Files.write(root.resolve(name), new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofDays(7))));
+        return path;
+    }
+}
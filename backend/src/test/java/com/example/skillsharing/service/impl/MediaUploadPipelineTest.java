@@ -0,0 +1,93 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.base.BaseTest;
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.model.MediaDeletion;
+import com.example.skillsharing.model.MediaInfo;
+import com.example.skillsharing.model.MediaObject;
+import com.example.skillsharing.repository.MediaDeletionRepository;
+import com.example.skillsharing.repository.MediaObjectRepository;
+import com.example.skillsharing.repository.UploadSessionRepository;
+import com.example.skillsharing.service.MediaStorage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MediaUploadPipelineTest extends BaseTest {
+
+    @Autowired
+    private MediaUploadPipeline mediaUploadPipeline;
+
+    @Autowired
+    private MediaObjectRepository mediaObjectRepository;
+
+    @Autowired
+    private MediaDeletionRepository mediaDeletionRepository;
+
+    @Test
+    void detach_WhileOtherReferencesRemain_DoesNotQueueDeletion() {
+        // Arrange
+        saveMediaObject("shared.jpg", 2);
+
+        // Act
+        mediaUploadPipeline.detach(List.of("shared.jpg"));
+
+        // Assert
+        assertEquals(1, mediaObjectRepository.findRefCount("shared.jpg").orElseThrow());
+        assertEquals(0, mediaDeletionRepository.count());
+    }
+
+    @Test
+    void detach_LastReference_QueuesDeletion() {
+        // Arrange
+        saveMediaObject("single.jpg", 1);
+
+        // Act
+        mediaUploadPipeline.detach(List.of("single.jpg", "legacy.jpg"));
+
+        // Assert
+        List<String> queued = mediaDeletionRepository.findAll().stream().map(MediaDeletion::getFilename).toList();
+        assertEquals(List.of("single.jpg", "legacy.jpg"), queued);
+    }
+
+    @Test
+    void attach_WhenConcurrentUploadCreatesRowFirst_StillCountsReference() {
+        // Arrange
+        MediaObjectRepository repository = mock(MediaObjectRepository.class);
+        when(repository.insertIfAbsent("same.jpg", 100))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(repository.incrementRefCount("same.jpg")).thenReturn(1);
+        MediaUploadPipeline pipeline = new MediaUploadPipeline(mock(MediaStorage.class), repository,
+                mock(UploadSessionRepository.class), mock(ImageDerivativeGenerator.class),
+                mock(MediaDeletionQueue.class), mock(PlatformTransactionManager.class), new AppConfig());
+        MediaUploadPipeline.StagedMedia staged =
+                new MediaUploadPipeline.StagedMedia("same.jpg", Path.of("upload.tmp"), 100, new MediaInfo());
+
+        // Act
+        try {
+            pipeline.attach(List.of(staged));
+        } finally {
+            pipeline.shutdown();
+        }
+
+        // Assert
+        verify(repository).insertIfAbsent("same.jpg", 100);
+        verify(repository).incrementRefCount("same.jpg");
+    }
+
+    private void saveMediaObject(String filename, int refCount) {
+        MediaObject mediaObject = new MediaObject();
+        mediaObject.setFilename(filename);
+        mediaObject.setSizeBytes(100);
+        mediaObject.setRefCount(refCount);
+        mediaObjectRepository.saveAndFlush(mediaObject);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.base.BaseTest;
+import com.example.skillsharing.model.SkillSharingPost;
+import com.example.skillsharing.util.TestDataFactory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostCounterReconcilerTest extends BaseTest {
+
+    @Autowired
+    private PostCounterReconciler postCounterReconciler;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void reconcile_WithDriftedCounters_RewritesThemFromRows() {
+        // Arrange
+        SkillSharingPost post = TestDataFactory.createPost(null, testUser);
+        post.getLikes().add(testUser);
+        post.setLikeCount(5);
+        post.setCommentCount(3);
+        post = postRepository.saveAndFlush(post);
+
+        // Act
+        postCounterReconciler.reconcile();
+        entityManager.clear();
+
+        // Assert
+        SkillSharingPost reconciled = postRepository.findById(post.getId()).orElseThrow();
+        assertEquals(1, reconciled.getLikeCount());
+        assertEquals(0, reconciled.getCommentCount());
+    }
+}
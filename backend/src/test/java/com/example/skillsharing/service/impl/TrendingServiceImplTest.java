@@ -0,0 +1,139 @@
+package com.example.skillsharing.service.impl;
+
+import com.example.skillsharing.config.AppConfig;
+import com.example.skillsharing.event.PostEngagementEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingServiceImplTest {
+
+    private MutableClock clock;
+    private AppConfig.Trending config;
+    private TrendingServiceImpl trendingService;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        config = new AppConfig.Trending();
+        config.setWindow(Duration.ofHours(24));
+        config.setBucket(Duration.ofMinutes(5));
+        config.setHalfLife(Duration.ofHours(1));
+        config.setTopK(2);
+        trendingService = new TrendingServiceImpl(config, clock);
+    }
+
+    @Test
+    void recompute_RanksByWeightedEngagement_AndKeepsOnlyTopK() {
+        // Arrange
+        like(1L, 1);
+        like(2L, 3);
+        comment(3L, 1);
+
+        // Act
+        trendingService.recompute();
+
+        // Assert
+        assertEquals(List.of(2L, 3L), trendingService.getTrendingPostIds());
+    }
+
+    @Test
+    void recompute_DecaysOlderEngagement() {
+        // Arrange
+        like(1L, 5);
+        clock.advance(Duration.ofHours(4));
+        like(2L, 1);
+
+        // Act
+        trendingService.recompute();
+
+        // Assert
+        assertEquals(List.of(2L, 1L), trendingService.getTrendingPostIds());
+    }
+
+    @Test
+    void recompute_DropsEngagementOutsideWindow() {
+        // Arrange
+        like(1L, 10);
+        clock.advance(Duration.ofHours(25));
+
+        // Act
+        trendingService.recompute();
+
+        // Assert
+        assertTrue(trendingService.getTrendingPostIds().isEmpty());
+    }
+
+    @Test
+    void recompute_SkipsPostsWhoseEngagementWasWithdrawn() {
+        // Arrange
+        like(1L, 1);
+        trendingService.recordEngagement(new PostEngagementEvent(1L, PostEngagementEvent.Type.LIKE, -1));
+
+        // Act
+        trendingService.recompute();
+
+        // Assert
+        assertTrue(trendingService.getTrendingPostIds().isEmpty());
+    }
+
+    @Test
+    void getTrendingPostIds_ReturnsImmutableSnapshot() {
+        // Arrange
+        like(1L, 1);
+        trendingService.recompute();
+
+        // Act
+        List<Long> snapshot = trendingService.getTrendingPostIds();
+
+        // Assert
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(2L));
+    }
+
+    private void like(Long postId, int times) {
+        for (int i = 0; i < times; i++) {
+            trendingService.recordEngagement(new PostEngagementEvent(postId, PostEngagementEvent.Type.LIKE, 1));
+        }
+    }
+
+    private void comment(Long postId, int times) {
+        for (int i = 0; i < times; i++) {
+            trendingService.recordEngagement(new PostEngagementEvent(postId, PostEngagementEvent.Type.COMMENT, 1));
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.skillsharing.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteRangeTest {
+
+    @Test
+    void parse_WithClosedRange_ReturnsInclusiveBounds() {
+        // Act
+        ByteRange range = ByteRange.parse("bytes=0-99", 1000);
+
+        // Assert
+        assertEquals(new ByteRange(0, 99), range);
+        assertEquals(100, range.length());
+        assertEquals("bytes 0-99/1000", range.contentRange(1000));
+    }
+
+    @Test
+    void parse_WithOpenOrOversizedEnd_ClampsToLastByte() {
+        assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-", 1000));
+        assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-5000", 1000));
+    }
+
+    @Test
+    void parse_WithSuffixRange_ReturnsFinalBytes() {
+        assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=-100", 1000));
+        assertEquals(new ByteRange(0, 999), ByteRange.parse("bytes=-5000", 1000));
+    }
+
+    @Test
+    void parse_WithMissingMalformedOrMultipleRanges_ReturnsNull() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-1", 1000));
+        assertNull(ByteRange.parse("bytes=abc", 1000));
+        assertNull(ByteRange.parse("bytes=10-5", 1000));
+        assertNull(ByteRange.parse("bytes=0-1,5-6", 1000));
+    }
+
+    @Test
+    void parse_WithStartPastEnd_ThrowsNotSatisfiable() {
+        assertThrows(ByteRange.NotSatisfiableException.class, () -> ByteRange.parse("bytes=1000-", 1000));
+        assertThrows(ByteRange.NotSatisfiableException.class, () -> ByteRange.parse("bytes=-0", 1000));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.skillsharing.util;
+
+import com.example.skillsharing.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentPathTest {
+
+    @Test
+    void childOf_WithParent_SortsDepthFirst() {
+        // Arrange
+        String root = CommentPath.childOf(null, 35);
+        String firstReply = CommentPath.childOf(root, 400);
+        String nestedReply = CommentPath.childOf(firstReply, 401);
+        String secondReply = CommentPath.childOf(root, 1000);
+
+        // Assert
+        assertEquals("000000000000z/", root);
+        assertTrue(nestedReply.startsWith(firstReply));
+        assertTrue(firstReply.compareTo(nestedReply) < 0);
+        assertTrue(nestedReply.compareTo(secondReply) < 0);
+        assertEquals(4 * 14, CommentPath.childOf(nestedReply, Long.MAX_VALUE).length());
+    }
+
+    @Test
+    void decode_WithEncodedPath_ReturnsPath() {
+        // Arrange
+        String path = CommentPath.childOf(CommentPath.childOf(null, 7), 8);
+
+        // Act & Assert
+        assertEquals(path, CommentPath.decode(CommentPath.encode(path)));
+        assertNull(CommentPath.decode(""));
+    }
+
+    @Test
+    void decode_WithMalformedToken_ThrowsBadRequest() {
+        // Arrange
+        String notBase64 = "not a cursor!";
+        String wrongShape = CommentPath.encode("abc/");
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> CommentPath.decode(notBase64));
+        assertThrows(BadRequestException.class, () -> CommentPath.decode(wrongShape));
+    }
+}
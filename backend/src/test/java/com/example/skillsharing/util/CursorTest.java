@@ -0,0 +1,61 @@
+package com.example.skillsharing.util;
+
+import com.example.skillsharing.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+
+    @Test
+    void encode_ThenDecode_ReturnsSamePosition() {
+        // Arrange
+        Cursor cursor = new Cursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123456000), 42L);
+
+        // Act
+        Cursor decoded = Cursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void encode_WithNanoseconds_TruncatesToStoredPrecision() {
+        // Arrange
+        Cursor cursor = new Cursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123456789), 42L);
+
+        // Act
+        Cursor decoded = Cursor.decode(cursor.encode());
+
+        // Assert
+        assertEquals(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123456000), decoded.createdAt());
+    }
+
+    @Test
+    void decode_WithBlankToken_ReturnsNull() {
+        assertNull(Cursor.decode(null));
+        assertNull(Cursor.decode(""));
+        assertNull(Cursor.decode("   "));
+    }
+
+    @Test
+    void decode_WithMalformedToken_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> Cursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class, () -> Cursor.decode("Zm9vYmFy"));
+    }
+
+    @Test
+    void limit_ClampsSizeToAllowedRange() {
+        // Act
+        Pageable tooSmall = Cursor.limit(0);
+        Pageable tooLarge = Cursor.limit(10_000);
+
+        // Assert
+        assertEquals(1, tooSmall.getPageSize());
+        assertEquals(Cursor.MAX_SIZE, tooLarge.getPageSize());
+        assertEquals(0, tooLarge.getOffset());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.skillsharing.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExifOrientationTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_WithBigEndianExif_ReturnsOrientation() throws IOException {
+        // Arrange
+        Path file = write(TestUtil.withExifOrientation(jpeg(), ByteOrder.BIG_ENDIAN, 6));
+
+        // Act
+        int orientation = ExifOrientation.read(file);
+
+        // Assert
+        assertEquals(6, orientation);
+    }
+
+    @Test
+    void read_WithLittleEndianExif_ReturnsOrientation() throws IOException {
+        // Arrange
+        Path file = write(TestUtil.withExifOrientation(jpeg(), ByteOrder.LITTLE_ENDIAN, 8));
+
+        // Act
+        int orientation = ExifOrientation.read(file);
+
+        // Assert
+        assertEquals(8, orientation);
+    }
+
+    @Test
+    void read_WithoutExifOrNotJpeg_ReturnsNormal() throws IOException {
+        // Arrange
+        Path plainJpeg = write(jpeg());
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", png);
+        Path pngFile = write(png.toByteArray());
+
+        // Act & Assert
+        assertEquals(ExifOrientation.NORMAL, ExifOrientation.read(plainJpeg));
+        assertEquals(ExifOrientation.NORMAL, ExifOrientation.read(pngFile));
+    }
+
+    @Test
+    void read_WithOutOfRangeValueOrBrokenOffset_ReturnsNormal() throws IOException {
+        // Arrange
+        Path outOfRange = write(TestUtil.withExifOrientation(jpeg(), ByteOrder.BIG_ENDIAN, 9));
+        byte[] broken = TestUtil.withExifOrientation(jpeg(), ByteOrder.BIG_ENDIAN, 6);
+        // IFD0 offset of the TIFF header, 4 bytes into it
+        int ifdOffset = indexOf(broken, new byte[]{'M', 'M', 0, 42}) + 4;
+        ByteBuffer.wrap(broken).putInt(ifdOffset, 60_000);
+        Path brokenOffset = write(broken);
+
+        // Act & Assert
+        assertEquals(ExifOrientation.NORMAL, ExifOrientation.read(outOfRange));
+        assertEquals(ExifOrientation.NORMAL, ExifOrientation.read(brokenOffset));
+    }
+
+    private static byte[] jpeg() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(8, 4, BufferedImage.TYPE_INT_RGB), "jpeg", out);
+        return out.toByteArray();
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private Path write(byte[] content) throws IOException {
+        return Files.write(Files.createTempFile(directory, "image", ".bin"), content);
+    }
+}
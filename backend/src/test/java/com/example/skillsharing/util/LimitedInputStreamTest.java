@@ -0,0 +1,44 @@
+package com.example.skillsharing.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimitedInputStreamTest {
+
+    @Test
+    void read_UpToLimit_ReturnsAllBytes() throws IOException {
+        // Arrange
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(new byte[10]), 10);
+
+        // Act
+        byte[] read = in.readAllBytes();
+
+        // Assert
+        assertEquals(10, read.length);
+    }
+
+    @Test
+    void read_PastLimit_ThrowsMaxUploadSizeExceeded() throws IOException {
+        // Arrange
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(new byte[11]), 10);
+        in.readNBytes(5);
+
+        // Act & Assert
+        assertThrows(MaxUploadSizeExceededException.class, in::readAllBytes);
+    }
+
+    @Test
+    void skip_PastLimit_ThrowsMaxUploadSizeExceeded() {
+        // Arrange
+        InputStream in = new LimitedInputStream(new ByteArrayInputStream(new byte[11]), 10);
+
+        // Act & Assert
+        assertThrows(MaxUploadSizeExceededException.class, () -> in.skip(11));
+    }
+}
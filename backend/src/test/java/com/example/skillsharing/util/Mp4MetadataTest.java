@@ -0,0 +1,124 @@
+package com.example.skillsharing.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Mp4MetadataTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_WithMoovAfterMediaData_ReturnsDurationAndVideoSize() throws IOException {
+        // Arrange
+        byte[] moov = box("moov",
+                movieHeader(0, 600, 7500),
+                track("soun", trackHeader(0, 0, 0, false)),
+                track("vide", trackHeader(0, 1920, 1080, false)));
+        Path file = write(box("ftyp", ascii("isom"), new byte[4]), box("mdat", new byte[50_000]), moov);
+
+        // Act
+        Mp4Metadata metadata = Mp4Metadata.read(file);
+
+        // Assert
+        assertEquals(12500L, metadata.durationMs());
+        assertEquals(1920, metadata.width());
+        assertEquals(1080, metadata.height());
+    }
+
+    @Test
+    void read_WithVersion1HeadersAndRotation_ReturnsDisplaySize() throws IOException {
+        // Arrange
+        byte[] largeMdat = ByteBuffer.allocate(16 + 1000)
+                .putInt(1).put(ascii("mdat")).putLong(16 + 1000)
+                .array();
+        byte[] moov = box("moov",
+                movieHeader(1, 90000, 90000L * 3),
+                track("vide", trackHeader(1, 1280, 720, true)));
+        Path file = write(box("ftyp", ascii("qt  "), new byte[4]), largeMdat, moov);
+
+        // Act
+        Mp4Metadata metadata = Mp4Metadata.read(file);
+
+        // Assert
+        assertEquals(3000L, metadata.durationMs());
+        assertEquals(720, metadata.width());
+        assertEquals(1280, metadata.height());
+    }
+
+    @Test
+    void read_WithoutMoovOrTruncatedHeader_ReturnsNull() throws IOException {
+        // Arrange
+        Path withoutMoov = write(box("ftyp", ascii("isom"), new byte[4]), box("mdat", new byte[100]));
+        Path truncated = write(box("ftyp", ascii("isom"), new byte[4]), box("moov", box("mvhd", new byte[6])));
+
+        // Act & Assert
+        assertNull(Mp4Metadata.read(withoutMoov));
+        assertNull(Mp4Metadata.read(truncated));
+    }
+
+    private Path write(byte[]... boxes) throws IOException {
+        return Files.write(Files.createTempFile(directory, "video", ".mp4"), concat(boxes));
+    }
+
+    private static byte[] movieHeader(int version, int timescale, long duration) {
+        ByteBuffer body = ByteBuffer.allocate(version == 1 ? 108 : 96);
+        body.putInt(version << 24);
+        if (version == 1) {
+            body.putLong(0).putLong(0).putInt(timescale).putLong(duration);
+        } else {
+            body.putInt(0).putInt(0).putInt(timescale).putInt((int) duration);
+        }
+        return box("mvhd", body.array());
+    }
+
+    private static byte[] trackHeader(int version, int width, int height, boolean quarterTurn) {
+        ByteBuffer body = ByteBuffer.allocate(version == 1 ? 96 : 84);
+        body.putInt(version << 24);
+        body.position(body.position() + (version == 1 ? 32 : 20) + 16);
+        int one = 0x10000;
+        int[] matrix = quarterTurn
+                ? new int[]{0, one, 0, -one, 0, 0, 0, 0, 0x40000000}
+                : new int[]{one, 0, 0, 0, one, 0, 0, 0, 0x40000000};
+        for (int value : matrix) {
+            body.putInt(value);
+        }
+        body.putInt(width << 16).putInt(height << 16);
+        return box("tkhd", body.array());
+    }
+
+    private static byte[] track(String handler, byte[] trackHeader) {
+        byte[] hdlr = box("hdlr", new byte[8], ascii(handler), new byte[12]);
+        return box("trak", trackHeader, box("mdia", hdlr));
+    }
+
+    private static byte[] box(String type, byte[]... children) {
+        byte[] body = concat(children);
+        return ByteBuffer.allocate(8 + body.length)
+                .putInt(8 + body.length)
+                .put(ascii(type))
+                .put(body)
+                .array();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.writeBytes(part);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.skillsharing.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartStreamTest {
+
+    private static final String BOUNDARY = "----formBoundary7MA4YWxk";
+
+    @Test
+    void nextPart_WithFieldAndFile_ReturnsPartsInOrder() throws IOException {
+        // Arrange
+        byte[] file = new byte[100_000];
+        for (int i = 0; i < file.length; i++) {
+            file[i] = (byte) (i % 251);
+        }
+        byte[] body = concat(
+                "preamble\r\n--" + BOUNDARY + "\r\n"
+                        + "Content-Disposition: form-data; name=\"post\"\r\n"
+                        + "Content-Type: application/json\r\n\r\n"
+                        + "{\"description\":\"x\"}\r\n--" + BOUNDARY + "\r\n"
+                        + "Content-Disposition: form-data; name=\"media\"; filename=\"a \\\"b\\\".png\"\r\n"
+                        + "Content-Type: image/png\r\n\r\n",
+                file,
+                "\r\n--" + BOUNDARY + "--\r\nepilogue");
+
+        // Act
+        MultipartStream stream = MultipartStream.parse(new TrickleInputStream(body, 7), BOUNDARY);
+        MultipartStream.Part post = stream.nextPart();
+        String json = new String(post.body().readAllBytes(), StandardCharsets.UTF_8);
+        MultipartStream.Part media = stream.nextPart();
+        byte[] content = media.body().readAllBytes();
+
+        // Assert
+        assertEquals("post", post.name());
+        assertFalse(post.isFile());
+        assertEquals("application/json", post.contentType());
+        assertEquals("{\"description\":\"x\"}", json);
+        assertEquals("media", media.name());
+        assertEquals("a \"b\".png", media.filename());
+        assertEquals("image/png", media.contentType());
+        assertArrayEquals(file, content);
+        assertNull(stream.nextPart());
+    }
+
+    @Test
+    void nextPart_WithUnreadBody_SkipsToNextPart() throws IOException {
+        // Arrange
+        byte[] body = concat(
+                "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"a\"\r\n\r\n"
+                        + "\r\n--" + BOUNDARY.substring(0, 10) + " not yet\r\n--" + BOUNDARY + "\r\n"
+                        + "Content-Disposition: form-data; name=\"b\"\r\n\r\nsecond",
+                new byte[0],
+                "\r\n--" + BOUNDARY + "--");
+
+        // Act
+        MultipartStream stream = MultipartStream.parse(new ByteArrayInputStream(body), BOUNDARY);
+        stream.nextPart();
+        MultipartStream.Part second = stream.nextPart();
+
+        // Assert
+        assertEquals("b", second.name());
+        assertEquals("second", new String(second.body().readAllBytes(), StandardCharsets.US_ASCII));
+        assertNull(stream.nextPart());
+    }
+
+    @Test
+    void nextPart_WithTruncatedBody_Throws() throws IOException {
+        // Arrange
+        byte[] body = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"media\"; filename=\"a.png\"\r\n\r\n"
+                + "partial").getBytes(StandardCharsets.US_ASCII);
+
+        // Act
+        MultipartStream.Part part = MultipartStream.parse(new ByteArrayInputStream(body), BOUNDARY).nextPart();
+
+        // Assert
+        assertThrows(EOFException.class, () -> part.body().readAllBytes());
+    }
+
+    @Test
+    void boundaryOf_WithQuotedOrPlainParameter_ReturnsBoundary() {
+        assertEquals("abc", MultipartStream.boundaryOf("multipart/form-data; boundary=abc"));
+        assertEquals("a b", MultipartStream.boundaryOf("multipart/form-data; charset=utf-8; boundary=\"a b\""));
+        assertNull(MultipartStream.boundaryOf("multipart/form-data"));
+        assertNull(MultipartStream.boundaryOf(null));
+    }
+
+    private static byte[] concat(String head, byte[] middle, String tail) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        out.writeBytes(middle);
+        out.writeBytes(tail.getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    // Hands out a few bytes per read so delimiters straddle buffer refills
+    private static final class TrickleInputStream extends FilterInputStream {
+
+        private final int chunk;
+
+        TrickleInputStream(byte[] data, int chunk) {
+            super(new ByteArrayInputStream(data));
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, chunk));
+        }
+    }
+}
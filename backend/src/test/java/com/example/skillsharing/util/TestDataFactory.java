@@ -10,38 +10,47 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public class TestDataFactory {
 
+    // Labels entities created without an id, so saved rows stay distinguishable
+    private static final AtomicLong SEQUENCE = new AtomicLong(1000);
+
     public static User createUser(Long id) {
+        long n = id != null ? id : SEQUENCE.incrementAndGet();
         User user = new User();
         user.setId(id);
-        user.setUsername("user" + id);
-        user.setEmail("user" + id + "@example.com");
-        user.setPassword("password" + id);
-        user.setBio("Bio for user " + id);
-        user.setProfilePicture("profile" + id + ".jpg");
+        user.setUsername("user" + n);
+        user.setEmail("user" + n + "@example.com");
+        user.setPassword("password" + n);
+        user.setBio("Bio for user " + n);
+        user.setProfilePicture("profile" + n + ".jpg");
+        user.setProvider(User.AuthProvider.LOCAL);
         user.setCreatedAt(LocalDateTime.now());
         user.setUpdatedAt(LocalDateTime.now());
         return user;
     }
 
+    /**
+     * Unsaved users with no id, ready to pass to {@code saveAll}.
+     */
     public static List<User> createUsers(int count) {
-        return IntStream.range(1, count + 1)
-                .mapToObj(TestDataFactory::createUser)
+        return IntStream.range(0, count)
+                .mapToObj(i -> createUser(null))
                 .collect(Collectors.toList());
     }
 
     public static SkillSharingPost createPost(Long id, User author) {
+        long n = id != null ? id : SEQUENCE.incrementAndGet();
         SkillSharingPost post = new SkillSharingPost();
         post.setId(id);
-        post.setTitle("Post " + id);
-        post.setContent("Content for post " + id);
-        post.setAuthor(author);
-        post.setSkills(Arrays.asList("Skill1", "Skill2"));
-        post.setMediaUrls(Arrays.asList("media1.jpg", "media2.jpg"));
+        post.setDescription("Description for post " + n);
+        post.setUser(author);
+        post.setMediaUrls(new ArrayList<>(Arrays.asList("media1.jpg", "media2.jpg")));
+        post.setMediaType(SkillSharingPost.MediaType.PHOTO);
         post.setCreatedAt(LocalDateTime.now());
         post.setUpdatedAt(LocalDateTime.now());
         return post;
@@ -49,15 +58,16 @@ public class TestDataFactory {
 
     public static List<SkillSharingPost> createPosts(int count, User author) {
         return IntStream.range(1, count + 1)
-                .mapToObj(i -> createPost((long) i, author))
+                .mapToObj(i -> createPost(null, author))
                 .collect(Collectors.toList());
     }
 
     public static Comment createComment(Long id, User author, SkillSharingPost post) {
+        long n = id != null ? id : SEQUENCE.incrementAndGet();
         Comment comment = new Comment();
         comment.setId(id);
-        comment.setContent("Comment " + id + " content");
-        comment.setAuthor(author);
+        comment.setContent("Comment " + n + " content");
+        comment.setUser(author);
         comment.setPost(post);
         comment.setCreatedAt(LocalDateTime.now());
         comment.setUpdatedAt(LocalDateTime.now());
@@ -66,19 +76,20 @@ public class TestDataFactory {
 
     public static List<Comment> createComments(int count, User author, SkillSharingPost post) {
         return IntStream.range(1, count + 1)
-                .mapToObj(i -> createComment((long) i, author, post))
+                .mapToObj(i -> createComment(null, author, post))
                 .collect(Collectors.toList());
     }
 
     public static LearningPlan createLearningPlan(Long id, User user) {
+        long n = id != null ? id : SEQUENCE.incrementAndGet();
         LearningPlan plan = new LearningPlan();
         plan.setId(id);
-        plan.setTitle("Learning Plan " + id);
-        plan.setDescription("Description for plan " + id);
+        plan.setTitle("Learning Plan " + n);
+        plan.setDescription("Description for plan " + n);
         plan.setUser(user);
         plan.setStatus(LearningPlan.PlanStatus.IN_PROGRESS);
-        plan.setSkills(Arrays.asList("Skill1", "Skill2"));
-        plan.setResources(Arrays.asList("Resource1", "Resource2"));
+        plan.setTopics(new ArrayList<>(Arrays.asList("Topic1", "Topic2")));
+        plan.setResources(new ArrayList<>(Arrays.asList("Resource1", "Resource2")));
         plan.setCreatedAt(LocalDateTime.now());
         plan.setUpdatedAt(LocalDateTime.now());
         return plan;
@@ -86,16 +97,16 @@ public class TestDataFactory {
 
     public static List<LearningPlan> createLearningPlans(int count, User user) {
         return IntStream.range(1, count + 1)
-                .mapToObj(i -> createLearningPlan((long) i, user))
+                .mapToObj(i -> createLearningPlan(null, user))
                 .collect(Collectors.toList());
     }
 
     public static Notification createNotification(Long id, User user) {
+        long n = id != null ? id : SEQUENCE.incrementAndGet();
         Notification notification = new Notification();
         notification.setId(id);
-        notification.setUser(user);
-        notification.setTitle("Notification " + id);
-        notification.setMessage("Message for notification " + id);
+        notification.setRecipient(user);
+        notification.setMessage("Message for notification " + n);
         notification.setType(Notification.NotificationType.COMMENT);
         notification.setRead(false);
         notification.setCreatedAt(LocalDateTime.now());
@@ -104,7 +115,7 @@ public class TestDataFactory {
 
     public static List<Notification> createNotifications(int count, User user) {
         return IntStream.range(1, count + 1)
-                .mapToObj(i -> createNotification((long) i, user))
+                .mapToObj(i -> createNotification(null, user))
                 .collect(Collectors.toList());
     }
 
@@ -121,10 +132,8 @@ public class TestDataFactory {
     public static SkillSharingPostDTO createPostDTO(Long id) {
         SkillSharingPostDTO dto = new SkillSharingPostDTO();
         dto.setId(id);
-        dto.setTitle("Post " + id);
-        dto.setContent("Content for post " + id);
-        dto.setAuthorId(1L);
-        dto.setSkills(Arrays.asList("Skill1", "Skill2"));
+        dto.setDescription("Description for post " + id);
+        dto.setUser(createUserDTO(1L));
         dto.setMediaUrls(Arrays.asList("media1.jpg", "media2.jpg"));
         return dto;
     }
@@ -133,7 +142,7 @@ public class TestDataFactory {
         CommentDTO dto = new CommentDTO();
         dto.setId(id);
         dto.setContent("Comment " + id + " content");
-        dto.setAuthorId(1L);
+        dto.setUser(createUserDTO(1L));
         dto.setPostId(1L);
         return dto;
     }
@@ -143,9 +152,9 @@ public class TestDataFactory {
         dto.setId(id);
         dto.setTitle("Learning Plan " + id);
         dto.setDescription("Description for plan " + id);
-        dto.setUserId(1L);
+        dto.setUser(createUserDTO(1L));
         dto.setStatus(LearningPlan.PlanStatus.IN_PROGRESS);
-        dto.setSkills(Arrays.asList("Skill1", "Skill2"));
+        dto.setTopics(Arrays.asList("Topic1", "Topic2"));
         dto.setResources(Arrays.asList("Resource1", "Resource2"));
         return dto;
     }
@@ -153,8 +162,6 @@ public class TestDataFactory {
     public static NotificationDTO createNotificationDTO(Long id) {
         NotificationDTO dto = new NotificationDTO();
         dto.setId(id);
-        dto.setUserId(1L);
-        dto.setTitle("Notification " + id);
         dto.setMessage("Message for notification " + id);
         dto.setType(Notification.NotificationType.COMMENT);
         dto.setRead(false);
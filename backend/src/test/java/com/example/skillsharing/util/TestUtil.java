@@ -4,6 +4,7 @@ import com.example.skillsharing.dto.LoginRequest;
 import com.example.skillsharing.dto.SignUpRequest;
 import com.example.skillsharing.model.User;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,10 +16,15 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Collections;
 
 public class TestUtil {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
 
     public static String asJsonString(final Object obj) {
         try {
@@ -126,4 +132,33 @@ public class TestUtil {
     public static String createAuthorizationHeader() {
         return "Bearer " + createTestToken();
     }
+
+    /**
+     * A JPEG with the APP1 Exif segment inserted after the writer's own
+     * segments, holding an IFD0 with one Orientation entry.
+     */
+    public static byte[] withExifOrientation(byte[] jpeg, ByteOrder order, int orientation) {
+        ByteBuffer tiff = ByteBuffer.allocate(8 + 2 + 12 + 4).order(order);
+        tiff.put(order == ByteOrder.BIG_ENDIAN ? (byte) 'M' : (byte) 'I');
+        tiff.put(order == ByteOrder.BIG_ENDIAN ? (byte) 'M' : (byte) 'I');
+        tiff.putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+
+        byte[] exif = {'E', 'x', 'i', 'f', 0, 0};
+        int length = 2 + exif.length + tiff.capacity();
+        ByteBuffer segment = ByteBuffer.allocate(2 + length)
+                .put((byte) 0xFF).put((byte) 0xE1).putShort((short) length)
+                .put(exif).put(tiff.array());
+
+        // After SOI and the JFIF APP0 segment ImageIO writes
+        int app0Length = ((jpeg[4] & 0xff) << 8) | (jpeg[5] & 0xff);
+        int insertAt = 4 + app0Length;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, insertAt);
+        out.writeBytes(segment.array());
+        out.write(jpeg, insertAt, jpeg.length - insertAt);
+        return out.toByteArray();
+    }
 }